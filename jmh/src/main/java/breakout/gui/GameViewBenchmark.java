@@ -0,0 +1,63 @@
+package breakout.gui;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import breakout.BreakoutState;
+import breakout.GameMap;
+import breakout.jmh.Scenarios;
+
+/**
+ * Measures `GameView.paintComponent` into an offscreen image, for `initMap` and for a `Scenarios` state
+ * with 1000 balls and 1000 blocks. The view does not play the game, so every frame paints the same state.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class GameViewBenchmark {
+
+	@Param({ "initMap", "large" })
+	public String scenario;
+
+	private GameView view;
+	private BufferedImage image;
+
+	@Setup
+	public void setUp() {
+		BreakoutState state = scenario.equals("initMap") ? GameMap.createStateFromDescription(BreakoutApplication.initMap)
+				: Scenarios.create(1000, 1000, 2, 0.5);
+		view = new GameView(state);
+		view.stopMovingBalls();
+		Dimension size = view.getPreferredSize();
+		view.setSize(size);
+		image = new BufferedImage(size.width, size.height, BufferedImage.TYPE_INT_RGB);
+	}
+
+	@Benchmark
+	public BufferedImage paintComponent() {
+		Graphics2D g = image.createGraphics();
+		try {
+			view.paintComponent(g);
+		} finally {
+			g.dispose();
+		}
+		return image;
+	}
+}
@@ -0,0 +1,52 @@
+package breakout.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import breakout.BreakoutState;
+import breakout.radioactivity.Alpha;
+import breakout.radioactivity.Ball;
+
+/**
+ * Measures `getBalls()` and `getAlphas()`, which copy the ball/alpha graph out of a state, on
+ * `Scenarios` states with two links per ball.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccessorBenchmark {
+
+	@Param({ "10", "100", "1000" })
+	public int balls;
+
+	private BreakoutState state;
+
+	@Setup
+	public void setUp() {
+		state = Scenarios.create(balls, 80, 2, 0.5);
+	}
+
+	@Benchmark
+	public Ball[] getBalls() {
+		return state.getBalls();
+	}
+
+	@Benchmark
+	public Alpha[] getAlphas() {
+		return state.getAlphas();
+	}
+}
@@ -0,0 +1,107 @@
+package breakout.jmh;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import breakout.BlockState;
+import breakout.BreakoutFacade;
+import breakout.BreakoutState;
+import breakout.radioactivity.Alpha;
+import breakout.radioactivity.Ball;
+import breakout.utils.Point;
+import breakout.utils.Vector;
+
+/**
+ * Measures the cost of deep copying the ball/alpha graph: the old copy, which finds the copy of every
+ * linked alpha by scanning the alpha array, as the baseline, next to `BreakoutState.copy()`, building a
+ * `BreakoutState` from the graph, and exporting it again with `getBalls()`.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CopyBenchmark {
+
+	// each alpha is linked to about this many balls
+	private static final int LINKS_PER_ALPHA = 10;
+	private static final Point BOTTOM_RIGHT = new Point(50000, 30000);
+
+	private static final BreakoutFacade facade = new BreakoutFacade();
+
+	@Param({ "1000", "10000", "100000" })
+	public int links;
+
+	private Ball[] balls;
+	private Alpha[] alphas;
+	private BreakoutState state;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(links);
+		int nbBalphas = links / LINKS_PER_ALPHA;
+		balls = new Ball[nbBalphas];
+		alphas = new Alpha[nbBalphas];
+		for (int i = 0; i < nbBalphas; i++) {
+			Point center = new Point(1000 + random.nextInt(48000), 1000 + random.nextInt(20000));
+			Vector velocity = new Vector(random.nextInt(11) - 5, random.nextInt(11) - 5);
+			balls[i] = facade.createNormalBall(center, 700, velocity);
+			alphas[i] = facade.createAlpha(center, 700, velocity);
+		}
+		for (int k = 0; k < links; k++)
+			facade.addLink(balls[random.nextInt(nbBalphas)], alphas[random.nextInt(nbBalphas)]);
+		state = createState();
+	}
+
+	private BreakoutState createState() {
+		return new BreakoutState(alphas, balls, new BlockState[0], BOTTOM_RIGHT,
+				facade.createNormalPaddleState(new Point(25000, 29000)));
+	}
+
+	// The copy BreakoutState used to make: look up the copy of each linked alpha by identity in the array.
+	@Benchmark
+	public Ball[] scanCopy() {
+		Alpha[] alphasCopy = new Alpha[alphas.length];
+		for (int j = 0; j < alphas.length; j++)
+			alphasCopy[j] = alphas[j].clone();
+		Ball[] ballsCopy = new Ball[balls.length];
+		for (int i = 0; i < balls.length; i++) {
+			ballsCopy[i] = balls[i].clone();
+			for (Alpha a : balls[i].getAlphas()) {
+				for (int j = 0; j < alphas.length; j++) {
+					if (a == alphas[j])
+						ballsCopy[i].linkTo(alphasCopy[j]);
+				}
+			}
+		}
+		return ballsCopy;
+	}
+
+	@Benchmark
+	public BreakoutState copy() {
+		return state.copy();
+	}
+
+	@Benchmark
+	public BreakoutState construct() {
+		return createState();
+	}
+
+	@Benchmark
+	public Ball[] getBalls() {
+		return state.getBalls();
+	}
+}
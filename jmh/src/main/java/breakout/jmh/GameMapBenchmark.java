@@ -0,0 +1,46 @@
+package breakout.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import breakout.BreakoutState;
+import breakout.GameMap;
+import breakout.gui.BreakoutApplication;
+
+/**
+ * Measures `GameMap.createStateFromDescription` on the maps of `BreakoutApplication`.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameMapBenchmark {
+
+	@Param({ "initMap", "initMap2" })
+	public String map;
+
+	private String description;
+
+	@Setup
+	public void setUp() {
+		description = map.equals("initMap") ? BreakoutApplication.initMap : BreakoutApplication.initMap2;
+	}
+
+	@Benchmark
+	public BreakoutState createStateFromDescription() {
+		return GameMap.createStateFromDescription(description);
+	}
+}
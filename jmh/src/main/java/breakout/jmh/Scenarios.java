@@ -0,0 +1,90 @@
+package breakout.jmh;
+
+import java.util.Random;
+
+import breakout.BlockState;
+import breakout.BreakoutFacade;
+import breakout.BreakoutState;
+import breakout.radioactivity.Alpha;
+import breakout.radioactivity.Ball;
+import breakout.utils.Point;
+import breakout.utils.Vector;
+
+/**
+ * Builds the game states the benchmarks run on.
+ */
+public final class Scenarios {
+
+	// same block cells as GameMap
+	private static final int CELL_WIDTH = 5000;
+	private static final int CELL_HEIGHT = 3750;
+	private static final int BALL_DIAMETER = 700;
+	private static final int ALPHA_DIAMETER = 500;
+	private static final int SUPERCHARGED_LIFETIME = 10_000;
+	private static final long SEED = 42;
+
+	private static final BreakoutFacade facade = new BreakoutFacade();
+
+	private Scenarios() {
+		throw new AssertionError("This class is not intended to be instantiated");
+	}
+
+	/**
+	 * Return a state with `nbBlocks` blocks laid out like `GameMap` does and `nbBalls` balls and half as
+	 * many alphas flying around in an empty area of the same size below them. Each ball is linked to
+	 * `linksPerBall` alphas, and `superchargedRatio` of the balls are supercharged. The same arguments
+	 * always give the same state.
+	 *
+	 * @pre | nbBalls >= 2 && nbBlocks >= 1
+	 * @pre | 0 <= linksPerBall && linksPerBall <= nbBalls / 2
+	 * @pre | 0 <= superchargedRatio && superchargedRatio <= 1
+	 */
+	public static BreakoutState create(int nbBalls, int nbBlocks, int linksPerBall, double superchargedRatio) {
+		Random random = new Random(SEED);
+		int columns = (int) Math.ceil(Math.sqrt(nbBlocks * 10 / 8.0));
+		int rows = (nbBlocks + columns - 1) / columns;
+		Point bottomRight = new Point(columns * CELL_WIDTH, 2 * rows * CELL_HEIGHT + CELL_HEIGHT);
+		BlockState[] blocks = new BlockState[nbBlocks];
+		for (int i = 0; i < nbBlocks; i++) {
+			Point topLeft = new Point((i % columns) * CELL_WIDTH + 20, (i / columns) * CELL_HEIGHT + 20);
+			Point blockBottomRight = topLeft.plus(new Vector(CELL_WIDTH - 70, CELL_HEIGHT - 70));
+			blocks[i] = switch (i % 8) {
+			case 0 -> facade.createSturdyBlockState(topLeft, blockBottomRight, 3);
+			case 1 -> facade.createReplicatorBlockState(topLeft, blockBottomRight);
+			case 2 -> facade.createPowerupBallBlockState(topLeft, blockBottomRight);
+			default -> facade.createNormalBlockState(topLeft, blockBottomRight);
+			};
+		}
+		Ball[] balls = new Ball[nbBalls];
+		int nbSupercharged = (int) Math.round(nbBalls * superchargedRatio);
+		for (int i = 0; i < nbBalls; i++) {
+			Point center = randomCenter(random, bottomRight, rows);
+			Vector velocity = randomVelocity(random);
+			balls[i] = i < nbSupercharged
+					? facade.createSuperchargedBall(center, BALL_DIAMETER, velocity, SUPERCHARGED_LIFETIME)
+					: facade.createNormalBall(center, BALL_DIAMETER, velocity);
+		}
+		Alpha[] alphas = new Alpha[nbBalls / 2];
+		for (int i = 0; i < alphas.length; i++) {
+			alphas[i] = facade.createAlpha(randomCenter(random, bottomRight, rows), ALPHA_DIAMETER, randomVelocity(random));
+		}
+		for (int i = 0; i < nbBalls; i++) {
+			// consecutive alphas, so that no link is made twice
+			int first = random.nextInt(alphas.length);
+			for (int k = 0; k < linksPerBall; k++) {
+				facade.addLink(balls[i], alphas[(first + k) % alphas.length]);
+			}
+		}
+		return facade.createBreakoutState(alphas, balls, blocks, bottomRight,
+				facade.createNormalPaddleState(new Point(bottomRight.getX() / 2, bottomRight.getY() - CELL_HEIGHT / 2)));
+	}
+
+	private static Point randomCenter(Random random, Point bottomRight, int rows) {
+		return new Point(BALL_DIAMETER + random.nextInt(bottomRight.getX() - 2 * BALL_DIAMETER),
+				rows * CELL_HEIGHT + CELL_HEIGHT / 2 + random.nextInt(rows * CELL_HEIGHT));
+	}
+
+	private static Vector randomVelocity(Random random) {
+		return new Vector(random.nextInt(21) - 10, -1 - random.nextInt(10));
+	}
+}
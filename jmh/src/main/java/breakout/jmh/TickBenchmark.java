@@ -0,0 +1,59 @@
+package breakout.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import breakout.BreakoutState;
+
+/**
+ * Measures `BreakoutState.tick` on `Scenarios` states. Balls get lost as the game goes on, so the state
+ * starts over from a copy of the scenario once half of them are gone.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TickBenchmark {
+
+	@Param({ "10", "100", "1000" })
+	public int balls;
+
+	@Param({ "80", "10000" })
+	public int blocks;
+
+	@Param({ "0", "2" })
+	public int linksPerBall;
+
+	@Param({ "0", "0.5" })
+	public double superchargedRatio;
+
+	private BreakoutState scenario;
+	private BreakoutState state;
+
+	@Setup
+	public void setUp() {
+		scenario = Scenarios.create(balls, blocks, linksPerBall, superchargedRatio);
+		state = scenario.copy();
+	}
+
+	@Benchmark
+	public BreakoutState tick() {
+		if (2 * state.getBallCount() < balls || state.isWon())
+			state = scenario.copy();
+		state.tick(0, 20);
+		return state;
+	}
+}
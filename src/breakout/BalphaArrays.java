@@ -0,0 +1,296 @@
+package breakout;
+
+import java.util.Arrays;
+
+import breakout.utils.Rect;
+import breakout.utils.Vector;
+
+/**
+ * Structure-of-arrays storage for the balls or the alphas of a breakout state.
+ *
+ * Entity `i` is described by `x[i]`, `y[i]` (its center), `diameter[i]`, `vx[i]`, `vy[i]` (its velocity),
+ * `lifetime[i]` (only meaningful for supercharged balls), `charge[i]` (only meaningful for balls)
+ * and `kind[i]`. `id[i]` names the entity for as long as it lives, whatever index it moves to: ids are handed
+ * out in increasing order as entities are added, so they increase with the index. The links themselves live in the state's `LinkStore`; an entity only keeps its first edge
+ * in `firstLink[i]` (-1 without links) and its number of links in `linkCount[i]`.
+ * For balls, `maxDegree[i]` is the largest number of balls linked to one of the ball's alphas (0 without
+ * alphas), and `degreeRoot[i]` names the histogram in `degrees` of how many of its alphas have each number
+ * of balls, so the charge can be kept up to date without looking at all of the ball's alphas on any link
+ * change.
+ *
+ * @invar | 0 <= size && size <= x.length
+ * @invar | y.length == x.length && diameter.length == x.length && vx.length == x.length && vy.length == x.length
+ * @invar | lifetime.length == x.length && charge.length == x.length && kind.length == x.length
+ * @invar | firstLink.length == x.length && linkCount.length == x.length && newIndex.length == x.length
+ * @invar | maxDegree.length == x.length && degreeRoot.length == x.length && id.length == x.length
+ * @invar | IntStream.range(1, size).allMatch(i -> id[i - 1] < id[i])
+ * @invar | size == 0 || id[size - 1] < nextId
+ */
+class BalphaArrays {
+
+	static final byte REMOVED = -1;
+	static final byte NORMAL_BALL = 0;
+	static final byte SUPERCHARGED_BALL = 1;
+	static final byte ALPHA = 2;
+
+	private static final int INITIAL_CAPACITY = 8;
+
+	int size;
+	int[] x;
+	int[] y;
+	int[] diameter;
+	int[] vx;
+	int[] vy;
+	int[] lifetime;
+	int[] charge;
+	byte[] kind;
+	int[] maxDegree;
+	int[] degreeRoot;
+	int[] id;
+	DegreeHistograms degrees;
+	/** The id the next entity added gets. */
+	int nextId;
+
+	int[] firstLink;
+	int[] linkCount;
+
+	/**
+	 * Scratch space for `compact`: the index each entity moved to, or -1 if it was removed.
+	 */
+	int[] newIndex;
+
+	BalphaArrays(int capacity) {
+		capacity = Math.max(capacity, INITIAL_CAPACITY);
+		x = new int[capacity];
+		y = new int[capacity];
+		diameter = new int[capacity];
+		vx = new int[capacity];
+		vy = new int[capacity];
+		lifetime = new int[capacity];
+		charge = new int[capacity];
+		kind = new byte[capacity];
+		maxDegree = new int[capacity];
+		degreeRoot = new int[capacity];
+		id = new int[capacity];
+		degrees = new DegreeHistograms();
+		firstLink = new int[capacity];
+		linkCount = new int[capacity];
+		newIndex = new int[capacity];
+	}
+
+	private BalphaArrays(BalphaArrays other) {
+		size = other.size;
+		x = other.x.clone();
+		y = other.y.clone();
+		diameter = other.diameter.clone();
+		vx = other.vx.clone();
+		vy = other.vy.clone();
+		lifetime = other.lifetime.clone();
+		charge = other.charge.clone();
+		kind = other.kind.clone();
+		maxDegree = other.maxDegree.clone();
+		degreeRoot = other.degreeRoot.clone();
+		id = other.id.clone();
+		degrees = other.degrees.copy();
+		nextId = other.nextId;
+		firstLink = other.firstLink.clone();
+		linkCount = other.linkCount.clone();
+		newIndex = new int[x.length];
+	}
+
+	/**
+	 * Return a copy of this storage; the copy's links only mean something in a copy of the `LinkStore`.
+	 *
+	 * @creates | result
+	 */
+	BalphaArrays copy() {
+		return new BalphaArrays(this);
+	}
+
+	private void grow() {
+		int capacity = x.length * 2;
+		x = Arrays.copyOf(x, capacity);
+		y = Arrays.copyOf(y, capacity);
+		diameter = Arrays.copyOf(diameter, capacity);
+		vx = Arrays.copyOf(vx, capacity);
+		vy = Arrays.copyOf(vy, capacity);
+		lifetime = Arrays.copyOf(lifetime, capacity);
+		charge = Arrays.copyOf(charge, capacity);
+		kind = Arrays.copyOf(kind, capacity);
+		maxDegree = Arrays.copyOf(maxDegree, capacity);
+		degreeRoot = Arrays.copyOf(degreeRoot, capacity);
+		id = Arrays.copyOf(id, capacity);
+		firstLink = Arrays.copyOf(firstLink, capacity);
+		linkCount = Arrays.copyOf(linkCount, capacity);
+		newIndex = Arrays.copyOf(newIndex, capacity);
+	}
+
+	/**
+	 * Make this storage a copy of `other`, reusing its arrays when they are large enough, so that copying
+	 * a state of the same size again allocates nothing. The copy's links only mean something in a copy
+	 * of the `LinkStore`.
+	 *
+	 * @mutates | this
+	 * @post | size == other.size
+	 */
+	void copyFrom(BalphaArrays other) {
+		while (x.length < other.size)
+			grow();
+		size = other.size;
+		System.arraycopy(other.x, 0, x, 0, size);
+		System.arraycopy(other.y, 0, y, 0, size);
+		System.arraycopy(other.diameter, 0, diameter, 0, size);
+		System.arraycopy(other.vx, 0, vx, 0, size);
+		System.arraycopy(other.vy, 0, vy, 0, size);
+		System.arraycopy(other.lifetime, 0, lifetime, 0, size);
+		System.arraycopy(other.charge, 0, charge, 0, size);
+		System.arraycopy(other.kind, 0, kind, 0, size);
+		System.arraycopy(other.maxDegree, 0, maxDegree, 0, size);
+		System.arraycopy(other.degreeRoot, 0, degreeRoot, 0, size);
+		System.arraycopy(other.id, 0, id, 0, size);
+		degrees.copyFrom(other.degrees);
+		nextId = other.nextId;
+		System.arraycopy(other.firstLink, 0, firstLink, 0, size);
+		System.arraycopy(other.linkCount, 0, linkCount, 0, size);
+	}
+
+	/**
+	 * Append an entity without links and return its index.
+	 *
+	 * @mutates | this
+	 * @post | result == old(size)
+	 * @post | size == old(size) + 1
+	 */
+	int add(byte kind, int x, int y, int diameter, int vx, int vy, int lifetime) {
+		if (size == this.x.length)
+			grow();
+		int i = size++;
+		this.x[i] = x;
+		this.y[i] = y;
+		this.diameter[i] = diameter;
+		this.vx[i] = vx;
+		this.vy[i] = vy;
+		this.lifetime[i] = lifetime;
+		this.charge[i] = 1;
+		this.kind[i] = kind;
+		this.maxDegree[i] = 0;
+		this.degreeRoot[i] = -1;
+		this.id[i] = nextId++;
+		this.firstLink[i] = -1;
+		this.linkCount[i] = 0;
+		return i;
+	}
+
+	/**
+	 * Append `n` entities without links, as `add` would, but with all their coordinates, velocities,
+	 * lifetimes and kinds zero: the caller fills those in.
+	 *
+	 * @pre | n >= 0
+	 * @mutates | this
+	 * @post | size == old(size) + n
+	 */
+	void addBlank(int n) {
+		int from = size;
+		while (x.length < from + n)
+			grow();
+		size = from + n;
+		Arrays.fill(x, from, size, 0);
+		Arrays.fill(y, from, size, 0);
+		Arrays.fill(diameter, from, size, 0);
+		Arrays.fill(vx, from, size, 0);
+		Arrays.fill(vy, from, size, 0);
+		Arrays.fill(lifetime, from, size, 0);
+		Arrays.fill(charge, from, size, 1);
+		Arrays.fill(kind, from, size, (byte) 0);
+		Arrays.fill(maxDegree, from, size, 0);
+		Arrays.fill(degreeRoot, from, size, -1);
+		for (int i = from; i < size; i++) {
+			id[i] = nextId++;
+		}
+		Arrays.fill(firstLink, from, size, -1);
+		Arrays.fill(linkCount, from, size, 0);
+	}
+
+	/**
+	 * Forget the links of all entities, along with the charges that follow from them, as if the entities
+	 * had just been added.
+	 *
+	 * @mutates | this
+	 */
+	void clearLinks() {
+		Arrays.fill(charge, 0, size, 1);
+		Arrays.fill(maxDegree, 0, size, 0);
+		Arrays.fill(degreeRoot, 0, size, -1);
+		degrees.clear();
+		Arrays.fill(firstLink, 0, size, -1);
+		Arrays.fill(linkCount, 0, size, 0);
+	}
+
+	/**
+	 * Return whether entity `i` has not been removed.
+	 */
+	boolean isLive(int i) {
+		return kind[i] != REMOVED;
+	}
+
+	/**
+	 * Return whether entity `i` collides with `rect`, in the sense of `Balpha.collidesWith`.
+	 */
+	boolean collidesWith(int i, Rect rect) {
+		Vector dir = rect.collideWith(x[i], y[i], diameter[i]);
+		return dir != null && vx[i] * dir.getX() + vy[i] * dir.getY() > 0;
+	}
+
+	/**
+	 * If entity `i` collides with `rect`, mirror its velocity over the collision direction, like
+	 * `Balpha.bounceOn` does, and return true. Otherwise leave it alone and return false.
+	 *
+	 * @mutates | this
+	 */
+	boolean bounceOn(int i, Rect rect) {
+		Vector dir = rect.collideWith(x[i], y[i], diameter[i]);
+		if (dir == null || vx[i] * dir.getX() + vy[i] * dir.getY() <= 0)
+			return false;
+		long v = Vector.mirrorOver(vx[i], vy[i], dir);
+		vx[i] = Vector.unpackX(v);
+		vy[i] = Vector.unpackY(v);
+		return true;
+	}
+
+	/**
+	 * Drop the removed entities, keeping the order of the others, and record in `newIndex` where each
+	 * entity went. Removed entities must not have links anymore; the caller remaps the `LinkStore`.
+	 * Return whether any entity was dropped.
+	 *
+	 * @mutates | this
+	 */
+	boolean compact() {
+		int n = 0;
+		for (int i = 0; i < size; i++) {
+			if (kind[i] == REMOVED) {
+				newIndex[i] = -1;
+				continue;
+			}
+			newIndex[i] = n;
+			if (n != i) {
+				x[n] = x[i];
+				y[n] = y[i];
+				diameter[n] = diameter[i];
+				vx[n] = vx[i];
+				vy[n] = vy[i];
+				lifetime[n] = lifetime[i];
+				charge[n] = charge[i];
+				kind[n] = kind[i];
+				maxDegree[n] = maxDegree[i];
+				degreeRoot[n] = degreeRoot[i];
+				id[n] = id[i];
+				firstLink[n] = firstLink[i];
+				linkCount[n] = linkCount[i];
+			}
+			n++;
+		}
+		boolean dropped = n != size;
+		size = n;
+		return dropped;
+	}
+}
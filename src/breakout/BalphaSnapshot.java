@@ -0,0 +1,242 @@
+package breakout;
+
+import java.awt.Color;
+import java.util.Arrays;
+
+/**
+ * An immutable picture of the balls, alphas and links of a breakout state at one moment, for clients
+ * that only read them, such as the GUI. Unlike `BreakoutState.getBalls()` and `getAlphas()`, it does not
+ * build any Ball or Alpha objects: it holds the coordinates in flat arrays, and links as pairs of
+ * indices.
+ *
+ * Each ball and alpha has an id that stays the same while it lives, so that a client can tell which
+ * ball in a later snapshot of the same game is which ball in an earlier one. Ids increase with the index.
+ *
+ * @invar | getBallCount() >= 0
+ * @invar | getAlphaCount() >= 0
+ * @invar | getLinkCount() >= 0
+ * @invar | java.util.stream.IntStream.range(0, getLinkCount()).allMatch(k ->
+ *        | 	0 <= getLinkBall(k) && getLinkBall(k) < getBallCount() && 0 <= getLinkAlpha(k) && getLinkAlpha(k) < getAlphaCount())
+ * @invar | java.util.stream.IntStream.range(1, getBallCount()).allMatch(i -> getBallId(i - 1) < getBallId(i))
+ * @invar | java.util.stream.IntStream.range(1, getAlphaCount()).allMatch(i -> getAlphaId(i - 1) < getAlphaId(i))
+ *
+ * @immutable
+ */
+public final class BalphaSnapshot {
+
+	/** The number of colors balls are painted in: the supercharged balls' rainbow and the normal color. */
+	public static final int BALL_COLOR_COUNT = SuperChargedBall.PALETTE_SIZE + 1;
+
+	private final int ballCount;
+	private final int[] ballId;
+	private final int[] ballX;
+	private final int[] ballY;
+	private final int[] ballDiameter;
+	private final int[] ballLifetime;
+	private final byte[] ballKind;
+	private final int alphaCount;
+	private final int[] alphaId;
+	private final int[] alphaX;
+	private final int[] alphaY;
+	private final int[] alphaDiameter;
+	private final int linkCount;
+	private final int[] linkBall;
+	private final int[] linkAlpha;
+
+	/**
+	 * Copy the live entities and links of the given storage.
+	 */
+	BalphaSnapshot(BalphaArrays balls, BalphaArrays alphas, LinkStore links) {
+		ballCount = balls.size;
+		ballId = Arrays.copyOf(balls.id, ballCount);
+		ballX = Arrays.copyOf(balls.x, ballCount);
+		ballY = Arrays.copyOf(balls.y, ballCount);
+		ballDiameter = Arrays.copyOf(balls.diameter, ballCount);
+		ballLifetime = Arrays.copyOf(balls.lifetime, ballCount);
+		ballKind = Arrays.copyOf(balls.kind, ballCount);
+		alphaCount = alphas.size;
+		alphaId = Arrays.copyOf(alphas.id, alphaCount);
+		alphaX = Arrays.copyOf(alphas.x, alphaCount);
+		alphaY = Arrays.copyOf(alphas.y, alphaCount);
+		alphaDiameter = Arrays.copyOf(alphas.diameter, alphaCount);
+		int count = 0;
+		for (int i = 0; i < ballCount; i++) {
+			count += balls.linkCount[i];
+		}
+		linkCount = count;
+		linkBall = new int[count];
+		linkAlpha = new int[count];
+		int k = 0;
+		for (int i = 0; i < ballCount; i++) {
+			for (int e = balls.firstLink[i]; e >= 0; e = links.nextOfBall[e]) {
+				linkBall[k] = i;
+				linkAlpha[k] = links.alpha[e];
+				k++;
+			}
+		}
+	}
+
+	/** Return the number of balls. */
+	public int getBallCount() {
+		return ballCount;
+	}
+
+	/**
+	 * Return the id of ball `i`.
+	 *
+	 * @pre | 0 <= i && i < getBallCount()
+	 */
+	public int getBallId(int i) {
+		return ballId[i];
+	}
+
+	/**
+	 * Return the x coordinate of the center of ball `i`.
+	 *
+	 * @pre | 0 <= i && i < getBallCount()
+	 */
+	public int getBallX(int i) {
+		return ballX[i];
+	}
+
+	/**
+	 * Return the y coordinate of the center of ball `i`.
+	 *
+	 * @pre | 0 <= i && i < getBallCount()
+	 */
+	public int getBallY(int i) {
+		return ballY[i];
+	}
+
+	/**
+	 * Return the diameter of ball `i`.
+	 *
+	 * @pre | 0 <= i && i < getBallCount()
+	 */
+	public int getBallDiameter(int i) {
+		return ballDiameter[i];
+	}
+
+	/**
+	 * Return whether ball `i` is a supercharged ball.
+	 *
+	 * @pre | 0 <= i && i < getBallCount()
+	 */
+	public boolean isSuperCharged(int i) {
+		return ballKind[i] == BalphaArrays.SUPERCHARGED_BALL;
+	}
+
+	/**
+	 * Return the color ball `i` should be painted in, as `Ball.getColor()` would.
+	 *
+	 * @pre | 0 <= i && i < getBallCount()
+	 * @post | result != null
+	 */
+	public Color getBallColor(int i) {
+		if (isSuperCharged(i)) {
+			return SuperChargedBall.colorFor(ballLifetime[i]);
+		}
+		return NormalBall.BALL_COLOR;
+	}
+
+	/**
+	 * Return the index of the color ball `i` should be painted in among the `BALL_COLOR_COUNT` colors
+	 * balls are painted in, so that balls can be grouped by color without comparing colors.
+	 *
+	 * @pre | 0 <= i && i < getBallCount()
+	 * @post | 0 <= result && result < BALL_COLOR_COUNT
+	 * @post | getBallColorByIndex(result) == getBallColor(i)
+	 */
+	public int getBallColorIndex(int i) {
+		if (isSuperCharged(i)) {
+			int index = SuperChargedBall.paletteIndex(ballLifetime[i]);
+			if (index >= 0)
+				return index;
+		}
+		return SuperChargedBall.PALETTE_SIZE;
+	}
+
+	/**
+	 * Return the color with the given index among the colors balls are painted in. Never allocates.
+	 *
+	 * @pre | 0 <= index && index < BALL_COLOR_COUNT
+	 * @post | result != null
+	 */
+	public static Color getBallColorByIndex(int index) {
+		return index == SuperChargedBall.PALETTE_SIZE ? NormalBall.BALL_COLOR : SuperChargedBall.paletteColor(index);
+	}
+
+	/** Return the number of alphas. */
+	public int getAlphaCount() {
+		return alphaCount;
+	}
+
+	/**
+	 * Return the id of alpha `i`.
+	 *
+	 * @pre | 0 <= i && i < getAlphaCount()
+	 */
+	public int getAlphaId(int i) {
+		return alphaId[i];
+	}
+
+	/**
+	 * Return the x coordinate of the center of alpha `i`.
+	 *
+	 * @pre | 0 <= i && i < getAlphaCount()
+	 */
+	public int getAlphaX(int i) {
+		return alphaX[i];
+	}
+
+	/**
+	 * Return the y coordinate of the center of alpha `i`.
+	 *
+	 * @pre | 0 <= i && i < getAlphaCount()
+	 */
+	public int getAlphaY(int i) {
+		return alphaY[i];
+	}
+
+	/**
+	 * Return the diameter of alpha `i`.
+	 *
+	 * @pre | 0 <= i && i < getAlphaCount()
+	 */
+	public int getAlphaDiameter(int i) {
+		return alphaDiameter[i];
+	}
+
+	/**
+	 * Return the color alpha `i` should be painted in, as `Alpha.getColor()` would.
+	 *
+	 * @pre | 0 <= i && i < getAlphaCount()
+	 * @post | result == Color.cyan
+	 */
+	public Color getAlphaColor(int i) {
+		return Color.cyan;
+	}
+
+	/** Return the number of links between balls and alphas. */
+	public int getLinkCount() {
+		return linkCount;
+	}
+
+	/**
+	 * Return the index of the ball of link `k`.
+	 *
+	 * @pre | 0 <= k && k < getLinkCount()
+	 */
+	public int getLinkBall(int k) {
+		return linkBall[k];
+	}
+
+	/**
+	 * Return the index of the alpha of link `k`.
+	 *
+	 * @pre | 0 <= k && k < getLinkCount()
+	 */
+	public int getLinkAlpha(int k) {
+		return linkAlpha[k];
+	}
+}
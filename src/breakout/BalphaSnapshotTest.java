@@ -0,0 +1,107 @@
+package breakout;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import breakout.radioactivity.Alpha;
+import breakout.radioactivity.Ball;
+
+class BalphaSnapshotTest {
+
+	static String describe(Alpha alpha) {
+		return alpha.getLocation().getCenter().getX() + "," + alpha.getLocation().getCenter().getY() + ","
+				+ alpha.getLocation().getDiameter();
+	}
+
+	static void assertSnapshotMatchesCopies(BreakoutState state) {
+		BalphaSnapshot snapshot = state.getSnapshot();
+		Ball[] balls = state.getBalls();
+		Alpha[] alphas = state.getAlphas();
+		assertEquals(balls.length, snapshot.getBallCount());
+		assertEquals(alphas.length, snapshot.getAlphaCount());
+		for (int i = 0; i < balls.length; i++) {
+			assertEquals(balls[i].getCenter().getX(), snapshot.getBallX(i));
+			assertEquals(balls[i].getCenter().getY(), snapshot.getBallY(i));
+			assertEquals(balls[i].getLocation().getDiameter(), snapshot.getBallDiameter(i));
+			assertEquals(balls[i] instanceof SuperChargedBall, snapshot.isSuperCharged(i));
+			assertEquals(balls[i].getColor(), snapshot.getBallColor(i));
+			assertSame(snapshot.getBallColor(i), BalphaSnapshot.getBallColorByIndex(snapshot.getBallColorIndex(i)));
+		}
+		for (int i = 0; i < alphas.length; i++) {
+			assertEquals(alphas[i].getLocation().getCenter().getX(), snapshot.getAlphaX(i));
+			assertEquals(alphas[i].getLocation().getCenter().getY(), snapshot.getAlphaY(i));
+			assertEquals(alphas[i].getLocation().getDiameter(), snapshot.getAlphaDiameter(i));
+			assertEquals(alphas[i].getColor(), snapshot.getAlphaColor(i));
+		}
+		// getBalls() and getAlphas() build separate copies, so identify the linked alphas by location
+		Set<String> expected = new HashSet<>();
+		for (int i = 0; i < balls.length; i++) {
+			for (Alpha alpha : balls[i].getAlphas())
+				expected.add(i + " " + describe(alpha));
+		}
+		Set<String> actual = new HashSet<>();
+		for (int k = 0; k < snapshot.getLinkCount(); k++) {
+			int j = snapshot.getLinkAlpha(k);
+			actual.add(snapshot.getLinkBall(k) + " " + describe(alphas[j]));
+		}
+		assertEquals(snapshot.getLinkCount(), Arrays.stream(balls).mapToInt(b -> b.getAlphas().size()).sum());
+		assertEquals(expected, actual);
+	}
+
+	@Test
+	void testSnapshotMatchesCopies() {
+		for (long seed = 0; seed < 20; seed++) {
+			BreakoutState state = TestStates.randomState(seed);
+			for (int t = 0; t < 100 && !state.isDead(); t++) {
+				assertSnapshotMatchesCopies(state);
+				state.tick(0, 20);
+			}
+		}
+	}
+
+	static Set<Integer> ballIds(BalphaSnapshot snapshot) {
+		Set<Integer> result = new HashSet<>();
+		for (int i = 0; i < snapshot.getBallCount(); i++) {
+			if (i > 0)
+				assertTrue(snapshot.getBallId(i - 1) < snapshot.getBallId(i));
+			result.add(snapshot.getBallId(i));
+		}
+		return result;
+	}
+
+	@Test
+	void testIdsLastAsLongAsTheBalls() {
+		for (long seed = 0; seed < 20; seed++) {
+			BreakoutState state = TestStates.randomState(seed);
+			for (int t = 0; t < 300 && !state.isDead(); t++) {
+				BalphaSnapshot before = state.getSnapshot();
+				Set<Integer> beforeIds = ballIds(before);
+				state.tick(0, 20);
+				BalphaSnapshot after = state.getSnapshot();
+				int newest = before.getBallCount() == 0 ? -1 : before.getBallId(before.getBallCount() - 1);
+				for (int id : ballIds(after)) {
+					// an id is never handed out twice
+					assertTrue(id > newest || beforeIds.contains(id));
+				}
+			}
+		}
+	}
+
+	@Test
+	void testSnapshotIsSharedUntilTick() {
+		BreakoutState state = TestStates.randomState(1);
+		BalphaSnapshot first = state.getSnapshot();
+		assertSame(first, state.getSnapshot());
+		int x = first.getBallX(0);
+		state.tick(0, 20);
+		BalphaSnapshot second = state.getSnapshot();
+		assertNotSame(first, second);
+		// the old snapshot does not change with the state
+		assertEquals(x, first.getBallX(0));
+	}
+}
@@ -0,0 +1,369 @@
+package breakout;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+import breakout.utils.Point;
+import breakout.utils.Rect;
+
+/**
+ * A compact, versioned binary format for checkpointing a `BreakoutState`, with a writer and a reader that go
+ * straight between the state's internal arrays and a `ByteBuffer`, without building Ball or Alpha objects.
+ *
+ * All numbers are little-endian ints. A snapshot consists of:
+ * - the header: `MAGIC`, `VERSION`, and the x and y of the bottom-right corner of the field;
+ * - the paddle: its type (`NORMAL_PADDLE` or `REPLICATING_PADDLE`), the x and y of its center, and its
+ *   count (`ReplicatingPaddleState.getCount()`, or 0);
+ * - the number of blocks, followed by six ints per block: its type, the x and y of its top-left and of its
+ *   bottom-right corner, and its lives (`SturdyBlockState.getLivesLeft()`, or 0). A block of type
+ *   `SAME_BLOCK` is the same object as the earlier block whose index is given as its first number, the
+ *   other numbers being 0;
+ * - the number of balls, followed by columns of that many x, y, diameter, vx, vy, lifetime and kind
+ *   (`BALL` or `SUPERCHARGED_BALL`) values;
+ * - the number of alphas, followed by columns of that many x, y, diameter, vx and vy values;
+ * - the number of links, followed by the number of alphas of each ball, followed by the indices of the
+ *   alphas of each ball in turn, in increasing order.
+ *
+ * The reader checks everything the `BreakoutState` constructor checks, so a corrupt or hostile snapshot
+ * cannot produce an invalid state.
+ */
+public final class BinarySnapshot {
+
+	static final int MAGIC = 0x534B5242; // "BRKS" in little-endian order
+	static final int VERSION = 1;
+
+	static final int NORMAL_PADDLE = 0;
+	static final int REPLICATING_PADDLE = 1;
+
+	static final int NORMAL_BLOCK = 0;
+	static final int STURDY_BLOCK = 1;
+	static final int REPLICATOR_BLOCK = 2;
+	static final int POWERUP_BALL_BLOCK = 3;
+	static final int SAME_BLOCK = 4;
+
+	static final int BALL = BalphaArrays.NORMAL_BALL;
+	static final int SUPERCHARGED_BALL = BalphaArrays.SUPERCHARGED_BALL;
+
+	private static final int HEADER_INTS = 4;
+	private static final int PADDLE_INTS = 4;
+	private static final int BLOCK_INTS = 6;
+	private static final int BALL_COLUMNS = 7;
+	private static final int ALPHA_COLUMNS = 5;
+
+	private BinarySnapshot() {
+		throw new AssertionError("This class is not intended to be instantiated");
+	}
+
+	/**
+	 * Return the number of bytes `write(state, buffer)` writes.
+	 *
+	 * @pre | state != null
+	 * @inspects | state
+	 */
+	public static int size(BreakoutState state) {
+		BalphaArrays balls = state.ballArrays();
+		BalphaArrays alphas = state.alphaArrays();
+		long ints = HEADER_INTS + PADDLE_INTS + 1 + (long) BLOCK_INTS * state.getBlockCount() + 1
+				+ (long) BALL_COLUMNS * balls.size + 1 + (long) ALPHA_COLUMNS * alphas.size + 1 + balls.size
+				+ linkCount(balls);
+		if (ints > Integer.MAX_VALUE / 4)
+			throw new IllegalArgumentException("The state is too large for a snapshot");
+		return (int) ints * 4;
+	}
+
+	private static int linkCount(BalphaArrays balls) {
+		int result = 0;
+		for (int i = 0; i < balls.size; i++) {
+			result += balls.linkCount[i];
+		}
+		return result;
+	}
+
+	static int paddleType(PaddleState paddle) {
+		if (paddle.getClass() == NormalPaddleState.class)
+			return NORMAL_PADDLE;
+		if (paddle.getClass() == ReplicatingPaddleState.class)
+			return REPLICATING_PADDLE;
+		throw new IllegalArgumentException("Unsupported paddle state " + paddle.getClass().getName());
+	}
+
+	static int blockType(BlockState block) {
+		if (block.getClass() == NormalBlockState.class)
+			return NORMAL_BLOCK;
+		if (block.getClass() == SturdyBlockState.class)
+			return STURDY_BLOCK;
+		if (block.getClass() == ReplicatorBlockState.class)
+			return REPLICATOR_BLOCK;
+		if (block.getClass() == PowerupBallBlockState.class)
+			return POWERUP_BALL_BLOCK;
+		throw new IllegalArgumentException("Unsupported block state " + block.getClass().getName());
+	}
+
+	/**
+	 * Return the paddle of the given type, or null if there is no such paddle.
+	 */
+	static PaddleState newPaddle(int type, Point center, int count) {
+		if (type == NORMAL_PADDLE)
+			return new NormalPaddleState(center);
+		if (type == REPLICATING_PADDLE && count >= 1)
+			return new ReplicatingPaddleState(center, count);
+		return null;
+	}
+
+	/**
+	 * Return the block of the given type, or null if there is no such block.
+	 */
+	static BlockState newBlock(int type, Rect location, int lives) {
+		return switch (type) {
+		case NORMAL_BLOCK -> new NormalBlockState(location);
+		case STURDY_BLOCK -> lives >= 1 ? new SturdyBlockState(location, lives) : null;
+		case REPLICATOR_BLOCK -> new ReplicatorBlockState(location);
+		case POWERUP_BALL_BLOCK -> new PowerupBallBlockState(location);
+		default -> null;
+		};
+	}
+
+	/**
+	 * Write a snapshot of `state` into `buffer`, starting at its position, and advance the position past it.
+	 *
+	 * @throws IllegalArgumentException | state == null || buffer == null
+	 * @throws IllegalArgumentException if the paddle or a block is of a type the format does not know
+	 * @throws BufferOverflowException | buffer.remaining() < size(state)
+	 * @inspects | state
+	 * @mutates | buffer
+	 */
+	public static void write(BreakoutState state, ByteBuffer buffer) {
+		if (state == null || buffer == null)
+			throw new IllegalArgumentException("The state and buffer must not be null");
+		int start = buffer.position();
+		IntBuffer ints = buffer.slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+		if (ints.remaining() * 4 < size(state))
+			throw new BufferOverflowException();
+
+		Point bottomRight = state.getBottomRight();
+		ints.put(MAGIC).put(VERSION).put(bottomRight.getX()).put(bottomRight.getY());
+
+		PaddleState paddle = state.getPaddle();
+		ints.put(paddleType(paddle)).put(paddle.getCenter().getX()).put(paddle.getCenter().getY());
+		ints.put(paddle instanceof ReplicatingPaddleState replicating ? replicating.getCount() : 0);
+
+		BlockState[] blocks = state.getBlocks();
+		ints.put(blocks.length);
+		IdentityHashMap<BlockState, Integer> firstIndex = new IdentityHashMap<>();
+		for (int i = 0; i < blocks.length; i++) {
+			BlockState block = blocks[i];
+			Integer first = firstIndex.putIfAbsent(block, i);
+			if (first != null) {
+				ints.put(SAME_BLOCK).put(first).put(0).put(0).put(0).put(0);
+				continue;
+			}
+			Rect location = block.getLocation();
+			ints.put(blockType(block));
+			ints.put(location.getTopLeft().getX()).put(location.getTopLeft().getY());
+			ints.put(location.getBottomRight().getX()).put(location.getBottomRight().getY());
+			ints.put(block instanceof SturdyBlockState sturdy ? sturdy.getLivesLeft() : 0);
+		}
+
+		BalphaArrays balls = state.ballArrays();
+		int b = balls.size;
+		ints.put(b);
+		ints.put(balls.x, 0, b).put(balls.y, 0, b).put(balls.diameter, 0, b);
+		ints.put(balls.vx, 0, b).put(balls.vy, 0, b).put(balls.lifetime, 0, b);
+		for (int i = 0; i < b; i++) {
+			ints.put(balls.kind[i]);
+		}
+
+		BalphaArrays alphas = state.alphaArrays();
+		int a = alphas.size;
+		ints.put(a);
+		ints.put(alphas.x, 0, a).put(alphas.y, 0, a).put(alphas.diameter, 0, a);
+		ints.put(alphas.vx, 0, a).put(alphas.vy, 0, a);
+
+		LinkStore links = state.linkStore();
+		ints.put(linkCount(balls));
+		ints.put(balls.linkCount, 0, b);
+		int[] adjacent = new int[16];
+		for (int i = 0; i < b; i++) {
+			int degree = balls.linkCount[i];
+			if (degree > adjacent.length)
+				adjacent = new int[Math.max(degree, adjacent.length * 2)];
+			int k = 0;
+			for (int e = balls.firstLink[i]; e >= 0; e = links.nextOfBall[e]) {
+				adjacent[k++] = links.alpha[e];
+			}
+			Arrays.sort(adjacent, 0, degree);
+			ints.put(adjacent, 0, degree);
+		}
+		buffer.position(start + ints.position() * 4);
+	}
+
+	/**
+	 * Write a snapshot of `state` to the file at `path`, replacing its contents.
+	 *
+	 * @throws IllegalArgumentException | state == null || path == null
+	 * @throws IllegalArgumentException if the paddle or a block is of a type the format does not know
+	 * @throws IOException if the file cannot be written
+	 * @inspects | state
+	 */
+	public static void write(BreakoutState state, Path path) throws IOException {
+		if (state == null || path == null)
+			throw new IllegalArgumentException("The state and path must not be null");
+		ByteBuffer buffer = ByteBuffer.allocate(size(state));
+		write(state, buffer);
+		buffer.flip();
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		}
+	}
+
+	/**
+	 * Read a snapshot from `buffer`, starting at its position, advance the position past it, and return the
+	 * state it describes.
+	 *
+	 * @throws IllegalArgumentException | buffer == null
+	 * @throws IllegalArgumentException if the buffer does not hold a valid snapshot
+	 * @mutates | buffer
+	 * @creates | result
+	 */
+	public static BreakoutState read(ByteBuffer buffer) {
+		if (buffer == null)
+			throw new IllegalArgumentException("The buffer must not be null");
+		int start = buffer.position();
+		IntBuffer ints = buffer.slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+		try {
+			BreakoutState result = read(ints);
+			buffer.position(start + ints.position() * 4);
+			return result;
+		} catch (BufferUnderflowException e) {
+			throw new IllegalArgumentException("Corrupt snapshot: cut off", e);
+		}
+	}
+
+	/**
+	 * Map the file at `path` into memory, read the snapshot it holds, and return the state it describes.
+	 *
+	 * @throws IllegalArgumentException | path == null
+	 * @throws IllegalArgumentException if the file does not hold a valid snapshot
+	 * @throws IOException if the file cannot be read
+	 * @creates | result
+	 */
+	public static BreakoutState read(Path path) throws IOException {
+		if (path == null)
+			throw new IllegalArgumentException("The path must not be null");
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		}
+	}
+
+	private static void check(boolean condition, String message) {
+		if (!condition)
+			throw new IllegalArgumentException("Corrupt snapshot: " + message);
+	}
+
+	private static int readCount(IntBuffer ints, int intsPerItem, String what) {
+		int count = ints.get();
+		check(count >= 0 && (long) count * intsPerItem <= ints.remaining(), "bad number of " + what);
+		return count;
+	}
+
+	// Same as field.contains(circle), for the field from the origin to (width, height).
+	static boolean fieldContains(int width, int height, int x, int y, int diameter) {
+		int radius = diameter / 2;
+		return diameter >= 0 && diameter <= width && diameter <= height && radius <= x && x <= width - radius
+				&& radius <= y && y <= height - radius;
+	}
+
+	private static BreakoutState read(IntBuffer ints) {
+		check(ints.get() == MAGIC, "not a snapshot");
+		int version = ints.get();
+		check(version == VERSION, "unsupported version " + version);
+		int width = ints.get();
+		int height = ints.get();
+		check(width >= 0 && height >= 0, "bad field");
+		Point bottomRight = new Point(width, height);
+		Rect field = new Rect(Point.ORIGIN, bottomRight);
+
+		int paddleType = ints.get();
+		Point paddleCenter = new Point(ints.get(), ints.get());
+		int count = ints.get();
+		PaddleState paddle = newPaddle(paddleType, paddleCenter, count);
+		check(paddle != null, "bad paddle");
+		check(field.contains(paddle.getLocation()), "paddle outside the field");
+
+		int blockCount = readCount(ints, BLOCK_INTS, "blocks");
+		BlockState[] blocks = new BlockState[blockCount];
+		for (int i = 0; i < blockCount; i++) {
+			int type = ints.get();
+			if (type == SAME_BLOCK) {
+				int first = ints.get();
+				check(0 <= first && first < i, "bad block reference");
+				ints.position(ints.position() + BLOCK_INTS - 2);
+				blocks[i] = blocks[first];
+				continue;
+			}
+			Rect location = new Rect(new Point(ints.get(), ints.get()), new Point(ints.get(), ints.get()));
+			int lives = ints.get();
+			check(location.getTopLeft().isUpAndLeftFrom(location.getBottomRight()), "bad block");
+			check(field.contains(location), "block outside the field");
+			blocks[i] = newBlock(type, location, lives);
+			check(blocks[i] != null, "bad block");
+		}
+
+		int ballCount = readCount(ints, BALL_COLUMNS + 1, "balls");
+		BalphaArrays balls = new BalphaArrays(ballCount);
+		balls.addBlank(ballCount);
+		ints.get(balls.x, 0, ballCount).get(balls.y, 0, ballCount).get(balls.diameter, 0, ballCount);
+		ints.get(balls.vx, 0, ballCount).get(balls.vy, 0, ballCount).get(balls.lifetime, 0, ballCount);
+		for (int i = 0; i < ballCount; i++) {
+			int kind = ints.get();
+			check(kind == BALL || kind == SUPERCHARGED_BALL, "bad ball kind");
+			balls.kind[i] = (byte) kind;
+			check(fieldContains(width, height, balls.x[i], balls.y[i], balls.diameter[i]), "ball outside the field");
+		}
+
+		int alphaCount = readCount(ints, ALPHA_COLUMNS, "alphas");
+		BalphaArrays alphas = new BalphaArrays(alphaCount);
+		alphas.addBlank(alphaCount);
+		ints.get(alphas.x, 0, alphaCount).get(alphas.y, 0, alphaCount).get(alphas.diameter, 0, alphaCount);
+		ints.get(alphas.vx, 0, alphaCount).get(alphas.vy, 0, alphaCount);
+		for (int i = 0; i < alphaCount; i++) {
+			alphas.kind[i] = BalphaArrays.ALPHA;
+			check(fieldContains(width, height, alphas.x[i], alphas.y[i], alphas.diameter[i]), "alpha outside the field");
+		}
+
+		int linkCount = ints.get();
+		check(linkCount >= 0 && (long) ballCount + linkCount <= ints.remaining(), "bad number of links");
+		int[] degrees = new int[ballCount];
+		ints.get(degrees);
+		long total = 0;
+		for (int degree : degrees) {
+			check(degree >= 0, "bad number of alphas of a ball");
+			total += degree;
+		}
+		check(total == linkCount, "numbers of alphas do not add up");
+		LinkStore links = new LinkStore(balls, alphas);
+		for (int i = 0; i < ballCount; i++) {
+			int previous = -1;
+			for (int k = 0; k < degrees[i]; k++) {
+				int alpha = ints.get();
+				// increasing, so no link occurs twice
+				check(previous < alpha && alpha < alphaCount, "bad alpha index");
+				links.add(i, alpha);
+				previous = alpha;
+			}
+		}
+		return BreakoutState.restore(bottomRight, alphas, balls, links, blocks, paddle);
+	}
+}
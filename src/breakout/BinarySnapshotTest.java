@@ -0,0 +1,89 @@
+package breakout;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+import breakout.radioactivity.Alpha;
+import breakout.radioactivity.Ball;
+import breakout.utils.Point;
+import breakout.utils.Rect;
+
+class BinarySnapshotTest {
+
+	static ByteBuffer encode(BreakoutState state) {
+		ByteBuffer buffer = ByteBuffer.allocate(BinarySnapshot.size(state));
+		BinarySnapshot.write(state, buffer);
+		assertFalse(buffer.hasRemaining());
+		return buffer.flip();
+	}
+
+	@Test
+	void testRoundTripPlaysOnLikeTheOriginal() {
+		for (long seed = 0; seed < 20; seed++) {
+			BreakoutState state = TestStates.randomState(seed);
+			state.tick(0, 20);
+			BreakoutState restored = BinarySnapshot.read(encode(state));
+			assertEquals(TestStates.describe(state), TestStates.describe(restored));
+			for (int t = 0; t < 200 && !state.isDead(); t++) {
+				int paddleDir = t / 50 % 3 - 1;
+				state.tick(paddleDir, 20);
+				restored.tick(paddleDir, 20);
+			}
+			assertEquals(TestStates.describe(state), TestStates.describe(restored));
+		}
+	}
+
+	@Test
+	void testSharedBlocksAndReplicatingPaddleSurvive() {
+		Point bottomRight = new Point(50000, 30000);
+		BlockState shared = new SturdyBlockState(new Rect(new Point(1000, 1000), new Point(5000, 3000)), 3);
+		BlockState other = new ReplicatorBlockState(new Rect(new Point(6000, 1000), new Point(10000, 3000)));
+		PaddleState paddle = new ReplicatingPaddleState(new Point(25000, 29000), 3);
+		BreakoutState state = new BreakoutState(new Alpha[0], new Ball[0],
+				new BlockState[] { shared, other, shared }, bottomRight, paddle);
+		BreakoutState restored = BinarySnapshot.read(encode(state));
+		BlockState[] blocks = restored.getBlocks();
+		assertSame(blocks[0], blocks[2]);
+		assertEquals(3, ((SturdyBlockState) blocks[0]).getLivesLeft());
+		assertEquals(paddle.getCenter(), restored.getPaddle().getCenter());
+		assertEquals(3, ((ReplicatingPaddleState) restored.getPaddle()).getCount());
+	}
+
+	@Test
+	void testFileIsMappedBack() throws IOException {
+		BreakoutState state = TestStates.randomState(7);
+		Path path = Files.createTempFile("breakout", ".snapshot");
+		try {
+			BinarySnapshot.write(state, path);
+			assertEquals(BinarySnapshot.size(state), Files.size(path));
+			assertEquals(TestStates.describe(state), TestStates.describe(BinarySnapshot.read(path)));
+		} finally {
+			Files.delete(path);
+		}
+	}
+
+	@Test
+	void testCorruptSnapshotsAreRejected() {
+		ByteBuffer good = encode(TestStates.randomState(2));
+		assertThrows(IllegalArgumentException.class, () -> BinarySnapshot.read(ByteBuffer.wrap("not a snapshot".getBytes())));
+		// cut off anywhere
+		for (int length = 0; length < good.limit(); length += 97) {
+			ByteBuffer cut = good.duplicate().limit(length);
+			assertThrows(IllegalArgumentException.class, () -> BinarySnapshot.read(cut));
+		}
+		// an unsupported version, a negative field height, and a first ball (after 40 blocks) left of the field
+		int[][] corruptions = { { 4, 99 }, { 12, -1 }, { 16 + 16 + 4 + 40 * 24 + 4, -5 } };
+		for (int[] corruption : corruptions) {
+			ByteBuffer bad = ByteBuffer.allocate(good.limit()).put(good.duplicate()).flip().order(ByteOrder.LITTLE_ENDIAN);
+			bad.putInt(corruption[0], corruption[1]);
+			assertThrows(IllegalArgumentException.class, () -> BinarySnapshot.read(bad));
+		}
+	}
+}
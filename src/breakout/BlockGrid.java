@@ -0,0 +1,239 @@
+package breakout;
+
+import java.util.Arrays;
+
+import breakout.utils.Point;
+import breakout.utils.Rect;
+
+/**
+ * A uniform grid over the game field that indexes blocks by the cells their rectangle overlaps.
+ *
+ * Blocks are identified by their slot: their index in the block array the grid was built from.
+ * A slot keeps its number when its block is replaced by a later block state, so the grid only
+ * has to be told about blocks that are removed.
+ *
+ * @invar | getColumns() >= 1
+ * @invar | getRows() >= 1
+ */
+class BlockGrid {
+
+	/**
+	 * Upper bound on the number of columns and rows, so that tiny blocks on a huge field
+	 * do not blow up the number of cells.
+	 */
+	private static final int MAX_CELLS_PER_AXIS = 1024;
+
+	private final int cellWidth;
+	private final int cellHeight;
+	private final int columns;
+	private final int rows;
+
+	/**
+	 * @invar | cells.length == columns * rows
+	 * @invar | cellSizes.length == cells.length
+	 * @invar each cell lists its slots in increasing order
+	 */
+	private final int[][] cells;
+	private final int[] cellSizes;
+
+	/**
+	 * The rectangle of the block in each slot, or null if that block has been removed.
+	 */
+	private final Rect[] locations;
+
+	/**
+	 * Construct a grid over the field with the given bottom-right corner, indexing the given blocks.
+	 *
+	 * @pre | bottomRight != null
+	 * @pre | Point.ORIGIN.isUpAndLeftFrom(bottomRight)
+	 * @pre | blocks != null
+	 * @pre | Arrays.stream(blocks).allMatch(b -> b != null)
+	 */
+	BlockGrid(Point bottomRight, BlockState[] blocks) {
+		int fieldWidth = Math.max(1, bottomRight.getX());
+		int fieldHeight = Math.max(1, bottomRight.getY());
+
+		// Cells about the size of an average block keep both the number of blocks per cell
+		// and the number of cells per ball small.
+		long totalWidth = 0;
+		long totalHeight = 0;
+		for (BlockState block : blocks) {
+			totalWidth += block.getLocation().getWidth();
+			totalHeight += block.getLocation().getHeight();
+		}
+		int avgWidth = blocks.length == 0 ? fieldWidth : (int) (totalWidth / blocks.length);
+		int avgHeight = blocks.length == 0 ? fieldHeight : (int) (totalHeight / blocks.length);
+		int minCellWidth = (fieldWidth + MAX_CELLS_PER_AXIS - 1) / MAX_CELLS_PER_AXIS;
+		int minCellHeight = (fieldHeight + MAX_CELLS_PER_AXIS - 1) / MAX_CELLS_PER_AXIS;
+		this.cellWidth = Math.max(Math.max(1, minCellWidth), avgWidth);
+		this.cellHeight = Math.max(Math.max(1, minCellHeight), avgHeight);
+		this.columns = (fieldWidth + cellWidth - 1) / cellWidth;
+		this.rows = (fieldHeight + cellHeight - 1) / cellHeight;
+
+		this.cells = new int[columns * rows][];
+		this.cellSizes = new int[columns * rows];
+		this.locations = new Rect[blocks.length];
+		for (int slot = 0; slot < blocks.length; slot++) {
+			Rect loc = blocks[slot].getLocation();
+			locations[slot] = loc;
+			int c0 = column(loc.getTopLeft().getX());
+			int c1 = column(loc.getBottomRight().getX());
+			int r0 = row(loc.getTopLeft().getY());
+			int r1 = row(loc.getBottomRight().getY());
+			for (int r = r0; r <= r1; r++) {
+				for (int c = c0; c <= c1; c++) {
+					add(r * columns + c, slot);
+				}
+			}
+		}
+	}
+
+	/** Return the number of columns of this grid. */
+	int getColumns() {
+		return columns;
+	}
+
+	/** Return the number of rows of this grid. */
+	int getRows() {
+		return rows;
+	}
+
+	private int column(long x) {
+		return (int) Math.min(columns - 1, Math.max(0, Math.floorDiv(x, cellWidth)));
+	}
+
+	private int row(long y) {
+		return (int) Math.min(rows - 1, Math.max(0, Math.floorDiv(y, cellHeight)));
+	}
+
+	private void add(int cell, int slot) {
+		int[] slots = cells[cell];
+		if (slots == null) {
+			slots = new int[4];
+			cells[cell] = slots;
+		} else if (cellSizes[cell] == slots.length) {
+			slots = Arrays.copyOf(slots, slots.length * 2);
+			cells[cell] = slots;
+		}
+		slots[cellSizes[cell]++] = slot;
+	}
+
+	/**
+	 * Remove the block in the given slot from this grid.
+	 *
+	 * @pre | 0 <= slot
+	 * @post the block in `slot` is never returned by `firstCollision` again
+	 */
+	void remove(int slot) {
+		Rect loc = locations[slot];
+		if (loc == null)
+			return;
+		locations[slot] = null;
+		int c0 = column(loc.getTopLeft().getX());
+		int c1 = column(loc.getBottomRight().getX());
+		int r0 = row(loc.getTopLeft().getY());
+		int r1 = row(loc.getBottomRight().getY());
+		for (int r = r0; r <= r1; r++) {
+			for (int c = c0; c <= c1; c++) {
+				int cell = r * columns + c;
+				int[] slots = cells[cell];
+				int size = cellSizes[cell];
+				int i = 0;
+				while (i < size && slots[i] != slot)
+					i++;
+				if (i < size) {
+					System.arraycopy(slots, i + 1, slots, i, size - i - 1);
+					cellSizes[cell] = size - 1;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Return the lowest slot holding a block that ball `i` of `balls` collides with, or -1 if there is none.
+	 *
+	 * This is exactly the block a linear scan over the remaining blocks in slot order would find first,
+	 * because every point of a block lies in a cell the block is registered in, and the ball can only
+	 * collide with a rectangle containing one of its outermost points, which lie in the cells under its
+	 * bounding box.
+	 *
+	 * @pre | balls != null
+	 * @pre | 0 <= i && i < balls.size
+	 * @inspects | balls
+	 */
+	int firstCollision(BalphaArrays balls, int i) {
+		int radius = balls.diameter[i] / 2;
+		int c0 = column(balls.x[i] - radius);
+		int c1 = column(balls.x[i] + radius);
+		int r0 = row(balls.y[i] - radius);
+		int r1 = row(balls.y[i] + radius);
+		int best = -1;
+		for (int r = r0; r <= r1; r++) {
+			for (int c = c0; c <= c1; c++) {
+				int cell = r * columns + c;
+				int[] slots = cells[cell];
+				int size = cellSizes[cell];
+				for (int k = 0; k < size; k++) {
+					int slot = slots[k];
+					// slots are sorted per cell, so nothing further in this cell can beat `best`
+					if (best >= 0 && slot >= best)
+						break;
+					if (balls.collidesWith(i, locations[slot])) {
+						best = slot;
+						break;
+					}
+				}
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Return a step no later than the first step, of `period` milliseconds each, after which ball `i` of `balls`
+	 * collides with a block in this grid if it keeps moving in a straight line, or `maxSteps + 1` if it does not
+	 * collide with any block within `maxSteps` steps.
+	 *
+	 * The cells under the path are looked at for doubling numbers of steps, so a ball about to hit a block
+	 * does not pay for the cells further along its path.
+	 *
+	 * @pre | balls != null
+	 * @pre | 0 <= i && i < balls.size
+	 * @pre | period >= 1
+	 * @pre | maxSteps >= 0
+	 * @inspects | balls
+	 * @post | 1 <= result && result <= maxSteps + 1
+	 */
+	int firstSweptCollision(BalphaArrays balls, int i, int period, int maxSteps) {
+		int radius = balls.diameter[i] / 2;
+		long dx = (long) balls.vx[i] * period;
+		long dy = (long) balls.vy[i] * period;
+		int searched = 0;
+		int horizon = 1;
+		while (searched < maxSteps) {
+			horizon = Math.min(horizon, maxSteps);
+			long x0 = balls.x[i] + dx * (searched + 1);
+			long y0 = balls.y[i] + dy * (searched + 1);
+			long x1 = balls.x[i] + dx * horizon;
+			long y1 = balls.y[i] + dy * horizon;
+			int c0 = column(Math.min(x0, x1) - radius);
+			int c1 = column(Math.max(x0, x1) + radius);
+			int r0 = row(Math.min(y0, y1) - radius);
+			int r1 = row(Math.max(y0, y1) + radius);
+			int best = horizon + 1;
+			for (int r = r0; r <= r1; r++) {
+				for (int c = c0; c <= c1; c++) {
+					int cell = r * columns + c;
+					int[] slots = cells[cell];
+					int size = cellSizes[cell];
+					for (int k = 0; k < size; k++)
+						best = TimeOfImpact.firstStepColliding(balls, i, period, locations[slots[k]], best - 1);
+				}
+			}
+			if (best <= horizon)
+				return best;
+			searched = horizon;
+			horizon = horizon > maxSteps / 2 ? maxSteps : horizon * 2;
+		}
+		return maxSteps + 1;
+	}
+}
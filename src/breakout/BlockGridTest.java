@@ -0,0 +1,102 @@
+package breakout;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import breakout.radioactivity.Alpha;
+import breakout.radioactivity.Ball;
+import breakout.utils.Circle;
+import breakout.utils.Point;
+import breakout.utils.Rect;
+import breakout.utils.Vector;
+
+class BlockGridTest {
+	Point bottomRight;
+	Random random;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		bottomRight = new Point(50000, 30000);
+		random = new Random(42);
+	}
+
+	BlockState randomBlock() {
+		int x = random.nextInt(bottomRight.getX() - 3000);
+		int y = random.nextInt(bottomRight.getY() - 2000);
+		Rect loc = new Rect(new Point(x, y), new Point(x + random.nextInt(3000), y + random.nextInt(2000)));
+		return new NormalBlockState(loc);
+	}
+
+	Ball randomBall() {
+		Point center = new Point(random.nextInt(bottomRight.getX() + 2000) - 1000,
+				random.nextInt(bottomRight.getY() + 2000) - 1000);
+		Vector velocity = new Vector(random.nextInt(21) - 10, random.nextInt(21) - 10);
+		return new NormalBall(new Circle(center, random.nextInt(2000)), velocity);
+	}
+
+	BalphaArrays toArrays(Ball ball) {
+		BalphaArrays arrays = new BalphaArrays(1);
+		arrays.add(BalphaArrays.NORMAL_BALL, ball.getCenter().getX(), ball.getCenter().getY(),
+				ball.getLocation().getDiameter(), ball.getVelocity().getX(), ball.getVelocity().getY(), 0);
+		return arrays;
+	}
+
+	int linearFirstCollision(BlockState[] blocks, boolean[] removed, Ball ball) {
+		for (int i = 0; i < blocks.length; i++) {
+			if (!removed[i] && ball.collidesWith(blocks[i].getLocation()))
+				return i;
+		}
+		return -1;
+	}
+
+	@Test
+	void testFirstCollisionMatchesLinearScan() {
+		BlockState[] blocks = new BlockState[2000];
+		for (int i = 0; i < blocks.length; i++)
+			blocks[i] = randomBlock();
+		boolean[] removed = new boolean[blocks.length];
+		BlockGrid grid = new BlockGrid(bottomRight, blocks);
+		int hits = 0;
+		for (int round = 0; round < 20; round++) {
+			for (int i = 0; i < 500; i++) {
+				Ball ball = randomBall();
+				int expected = linearFirstCollision(blocks, removed, ball);
+				assertEquals(expected, grid.firstCollision(toArrays(ball), 0));
+				if (expected >= 0)
+					hits++;
+			}
+			for (int i = 0; i < 50; i++) {
+				int slot = random.nextInt(blocks.length);
+				removed[slot] = true;
+				grid.remove(slot);
+			}
+		}
+		assertTrue(hits > 0);
+	}
+
+	@Test
+	void testEmptyGrid() {
+		BlockGrid grid = new BlockGrid(bottomRight, new BlockState[0]);
+		assertEquals(1, grid.getColumns());
+		assertEquals(1, grid.getRows());
+		assertEquals(-1, grid.firstCollision(toArrays(randomBall()), 0));
+	}
+
+	@Test
+	void testDuplicateBlockHitEverywhere() {
+		BlockState block = new SturdyBlockState(new Rect(new Point(0, 1351), new Point(2000, 1550)), 2);
+		Ball ball = new NormalBall(new Circle(new Point(1000, 1000), 700), new Vector(0, 5));
+		BreakoutState state = new BreakoutState(new Alpha[0], new Ball[] { ball }, new BlockState[] { block, block },
+				new Point(10000, 3000), new NormalPaddleState(new Point(2000, 2100)));
+		state.tick(0, 20);
+		BlockState[] blocks = state.getBlocks();
+		assertEquals(2, blocks.length);
+		assertEquals(1, ((SturdyBlockState) blocks[0]).getLivesLeft());
+		assertEquals(1, ((SturdyBlockState) blocks[1]).getLivesLeft());
+	}
+
+}
@@ -2,6 +2,7 @@ package breakout;
 
 import java.awt.Color;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import breakout.radioactivity.Alpha;
 import breakout.radioactivity.Ball;
@@ -52,6 +53,10 @@ public class BreakoutFacade {
 		return new BreakoutState(alphas, balls, blocks, bottomRight, paddle);
 	}
 
+	public BreakoutState copyState(BreakoutState state) {
+		return state.copy();
+	}
+
 	public BlockState createNormalBlockState(Point topLeft, Point bottomRight) {
 		return new NormalBlockState(new Rect(topLeft, bottomRight));
 	}
@@ -108,6 +113,10 @@ public class BreakoutFacade {
 		return breakoutState.getAlphas();
 	}
 
+	public BalphaSnapshot getSnapshot(BreakoutState breakoutState) {
+		return breakoutState.getSnapshot();
+	}
+
 	public Color getColor(BlockState block) {
 		return block.getColor();
 	}
@@ -212,6 +221,18 @@ public class BreakoutFacade {
 		}
 	}
 	
+	public void setTickPool(BreakoutState state, ForkJoinPool pool) {
+		state.setTickPool(pool);
+	}
+	
+	public void fastForward(BreakoutState state, int elapsedTime) {
+		state.fastForward(elapsedTime);
+	}
+	
+	public void tickSwept(BreakoutState state, int paddleDir, int elapsedTime) {
+		state.tickSwept(paddleDir, elapsedTime);
+	}
+	
 	public boolean isWon(BreakoutState state) {
 		return state.isWon();
 	}
@@ -228,11 +249,19 @@ public class BreakoutFacade {
 	
 	
 	public int getBallsLen(BreakoutState state) {
-		return getBalls(state).length;
+		return state.getBallCount();
+	}
+	
+	public int getAlphasLen(BreakoutState state) {
+		return state.getAlphaCount();
 	}
 	
 	public int getBlocksLen(BreakoutState state) {
-		return getBlocks(state).length;
+		return state.getBlockCount();
+	}
+	
+	public int getBlocksLen(BreakoutState state, Class<? extends BlockState> type) {
+		return state.getBlockCount(type);
 	}
 	
 	/**
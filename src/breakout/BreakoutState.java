@@ -4,14 +4,18 @@ import java.util.stream.IntStream;
 
 import breakout.radioactivity.Alpha;
 import breakout.radioactivity.Ball;
+import breakout.radioactivity.Balpha;
 import breakout.utils.Circle;
 import breakout.utils.Point;
 import breakout.utils.Rect;
 import breakout.utils.Vector;
 
-import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 //import breakout.gui.GameView;
 
@@ -58,11 +62,45 @@ public class BreakoutState {
 		BalphaContainer(Alpha[] alphas, Ball[] balls) { this.alphas = alphas; this.balls = balls; }
 	}
 
+	// A particle as a hash key, compared by `equalsContent`.
+	private static final class ContentKey {
+		private final Balpha balpha;
+
+		ContentKey(Balpha balpha) { this.balpha = balpha; }
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof ContentKey other && balpha.equalsContent(other.balpha);
+		}
+
+		@Override
+		public int hashCode() {
+			return balpha.contentHashCode();
+		}
+	}
+
+	private static Set<ContentKey> contentKeys(Balpha[] balphas) {
+		Set<ContentKey> result = new HashSet<>(balphas.length * 2);
+		for (Balpha balpha : balphas) {
+			result.add(new ContentKey(balpha));
+		}
+		return result;
+	}
+
 	private static final Vector PADDLE_VEL = new Vector(20, 0);
 	public static final int MAX_BALL_REPLICATE = 5;
 	private static final Vector[] BALL_VEL_VARIATIONS = new Vector[] { new Vector(0, 0), new Vector(2, -2),
 			new Vector(-2, 2), new Vector(2, 2), new Vector(-2, -2) };
 	public static int MAX_ELAPSED_TIME = 50;
+	private static final int FAST_FORWARD_PERIOD = 20;
+	/** The number of balls and alphas from which a tick pays off running in parallel. */
+	static final int PARALLEL_THRESHOLD = 4096;
+	private static final int PARALLEL_GRAIN = 1024;
+	/**
+	 * The number of steps ahead collisions are predicted; an entity without a collision in sight gets a
+	 * harmless early event to look again.
+	 */
+	private static final int PREDICTION_HORIZON = 1 << 20;
 
 	/**
 	 * @invar | bottomRight != null
@@ -70,46 +108,118 @@ public class BreakoutState {
 	 */
 	private final Point bottomRight;
 	/**
+	 * The alphas of this state. Their links are kept in `links`.
+	 * 
 	 * @invar | alphas != null
-	 * @invar | Arrays.stream(alphas).allMatch(a -> a != null)
-	 * @invar | Arrays.stream(alphas).allMatch(a -> getFieldInternal().contains(a.getLocation()))
-	 * @invar alpha's exhaustiveness
-	 * 		  | Arrays.stream(balls).allMatch(ball ->
-	 * 		  | 	ball.getAlphas().stream().allMatch(alpha -> Arrays.stream(alphas).anyMatch(a -> a.equalsContent(alpha)))
-	 * 		  | )
-	 * @invar no duplicate references in alphas
-	 * 		  | alphas.length == Set.of(alphas).size()
+	 * @invar | IntStream.range(0, alphas.size).allMatch(i -> alphas.kind[i] == BalphaArrays.ALPHA)
+	 * @invar | IntStream.range(0, alphas.size).allMatch(i -> getFieldInternal().contains(alphaAt(i).getLocation()))
+	 * @invar every link of an alpha is an edge of `links` that ends in that alpha
 	 * 
 	 * @representationObject
-	 * @representationObjects
 	 */
-	private Alpha[] alphas;
+	private final BalphaArrays alphas;
 	/**
+	 * The balls of this state. Their links are kept in `links`.
+	 * 
 	 * @invar | balls != null
-	 * @invar | Arrays.stream(balls).allMatch(b -> b != null)
-	 * @invar | Arrays.stream(balls).allMatch(b -> getFieldInternal().contains(b.getLocation()))
-	 * @invar ball's exhaustiveness
-	 * 		  | Arrays.stream(alphas).allMatch(alpha ->
-	 * 		  | 	alpha.getBalls().stream().allMatch(ball -> Arrays.stream(balls).anyMatch(b -> b.equalsContent(ball)))
-	 * 		  | )
-	 * @invar no duplicate references in balls
-	 * 		  | balls.length == Set.of(balls).size()
+	 * @invar | IntStream.range(0, balls.size).allMatch(i ->
+	 * 		  | 	balls.kind[i] == BalphaArrays.NORMAL_BALL || balls.kind[i] == BalphaArrays.SUPERCHARGED_BALL)
+	 * @invar | IntStream.range(0, balls.size).allMatch(i -> getFieldInternal().contains(ballAt(i).getLocation()))
+	 * @invar every link of a ball is an edge of `links` that starts in that ball
+	 * @invar | IntStream.range(0, balls.size).allMatch(i -> balls.charge[i] == chargeFromLinks(i))
 	 * 
 	 * @representationObject
-	 * @representationObjects
 	 */
-	private Ball[] balls;
+	private final BalphaArrays balls;
 	/**
-	 * @invar | blocks != null
-	 * @invar | Arrays.stream(blocks).allMatch(b -> getFieldInternal().contains(b.getLocation()))
+	 * The links between `balls` and `alphas`. Edge endpoints are indices into `balls` and `alphas`.
+	 *
+	 * @invar | links != null
 	 * @representationObject
 	 */
-	private BlockState[] blocks;
+	private final LinkStore links;
+	/**
+	 * The block in each slot of `blockGrid`, or null if the block in that slot has been destroyed.
+	 * A hit replaces or clears a single slot, so the blocks keep their order without ever being moved.
+	 * 
+	 * @invar | blockSlots != null
+	 * @invar | Arrays.stream(blockSlots).allMatch(b -> b == null || getFieldInternal().contains(b.getLocation()))
+	 * @representationObject
+	 */
+	private final BlockState[] blockSlots;
+	/**
+	 * The slots that still hold a block.
+	 * 
+	 * @invar | aliveBlocks != null
+	 * @invar | IntStream.range(0, blockSlots.length).allMatch(i -> aliveBlocks.get(i) == (blockSlots[i] != null))
+	 */
+	private final BitSet aliveBlocks;
+	/**
+	 * @invar | liveBlockCount == aliveBlocks.cardinality()
+	 */
+	private int liveBlockCount;
+	/**
+	 * The number of times a block was hit, so that clients can tell the blocks did not change without
+	 * looking at them. It wraps around after 2^32 hits.
+	 */
+	private int blockHitCount;
+	/**
+	 * The number of live blocks of each block class that occurred in this state, as one-element arrays so
+	 * a hit can update them in place.
+	 *
+	 * @invar | blockTypeCounts != null
+	 * @invar | blockTypeCounts.entrySet().stream().allMatch(e ->
+	 *        | 	e.getValue()[0] == Arrays.stream(blockSlots).filter(b -> b != null && b.getClass() == e.getKey()).count())
+	 */
+	private final IdentityHashMap<Class<?>, int[]> blockTypeCounts;
+	/**
+	 * Spatial index over `blockSlots`, so a ball only has to be tested against the blocks near it.
+	 * 
+	 * @invar | blockGrid != null
+	 */
+	private final BlockGrid blockGrid;
+	/**
+	 * For blocks that occur more than once in the constructor's block array, the next slot holding the
+	 * same block, forming a ring per block; null if no block occurs twice. A hit applies to every
+	 * occurrence of the block.
+	 */
+	private int[] sameBlockSlots;
 	/**
 	 * @invar | paddle != null
 	 * @invar | getFieldInternal().contains(paddle.getLocation())
 	 */
 	private PaddleState paddle;
+	/**
+	 * The location of `paddle`, kept so the tick does not have to build it for every ball.
+	 * 
+	 * @invar | paddleLocation.equals(paddle.getLocation())
+	 */
+	private Rect paddleLocation;
+	/**
+	 * @invar | field.equals(new Rect(Point.ORIGIN, bottomRight))
+	 */
+	private final Rect field;
+
+	/**
+	 * The predicted collisions of the balls and alphas for `advance`, or null if it has not been used yet.
+	 * Only valid while `collisionsValid` is true: anything but `advance` that moves a ball, alpha or the
+	 * paddle clears it.
+	 */
+	private CollisionQueue collisions;
+	private boolean collisionsValid;
+
+	/**
+	 * The snapshot `getSnapshot` last returned, or null if the balls, alphas or links changed since.
+	 */
+	private BalphaSnapshot snapshot;
+
+	/**
+	 * The pool parallel ticks run on, or null if ticks run sequentially.
+	 */
+	private ForkJoinPool tickPool;
+	// scratch space for parallel ticks
+	private int[] blockCandidates;
+	private byte[] alphaBounces;
 
 	private final Rect topWall;
 	private final Rect rightWall;
@@ -137,6 +247,10 @@ public class BreakoutState {
 	 * @throws IllegalArgumentExeption
 	 * 		  | balls.length != Set.of(balls).size()
 	 * 
+	 * @throws IllegalArgumentException
+	 * 		  | !Arrays.stream(balls).allMatch(b -> b.getClass() == NormalBall.class || b.getClass() == SuperChargedBall.class)
+	 * @throws IllegalArgumentException | !Arrays.stream(alphas).allMatch(a -> a.getClass() == Alpha.class)
+	 * 
 	 * @throws IllegalArgumentException | blocks == null
 	 * @throws IllegalArgumentException | bottomRight == null
 	 * @throws IllegalArgumentException | paddle == null
@@ -176,10 +290,13 @@ public class BreakoutState {
 		if (!Arrays.stream(alphas).allMatch(a -> a != null)) {
 			throw new IllegalArgumentException();
 		}
-		if (!Arrays.stream(balls).allMatch(ball -> ball.getAlphas().stream().allMatch(alpha -> Arrays.stream(alphas).anyMatch(a -> a.equalsContent(alpha))))) {
+		// hash the contents once, rather than comparing every linked particle with every given one
+		Set<ContentKey> alphaKeys = contentKeys(alphas);
+		if (!Arrays.stream(balls).allMatch(ball -> ball.getAlphas().stream().allMatch(alpha -> alphaKeys.contains(new ContentKey(alpha))))) {
 			throw new IllegalArgumentException();
 		}
-		if (!Arrays.stream(alphas).allMatch(alpha -> alpha.getBalls().stream().allMatch(ball -> Arrays.stream(balls).anyMatch(b -> b.equalsContent(ball))))) {
+		Set<ContentKey> ballKeys = contentKeys(balls);
+		if (!Arrays.stream(alphas).allMatch(alpha -> alpha.getBalls().stream().allMatch(ball -> ballKeys.contains(new ContentKey(ball))))) {
 			throw new IllegalArgumentException();
 		}
 		if (alphas.length != Set.of(alphas).size()) {
@@ -188,6 +305,12 @@ public class BreakoutState {
 		if (balls.length != Set.of(balls).size()) {
 			throw new IllegalArgumentException();
 		}
+		if (!Arrays.stream(balls).allMatch(b -> b.getClass() == NormalBall.class || b.getClass() == SuperChargedBall.class)) {
+			throw new IllegalArgumentException();
+		}
+		if (!Arrays.stream(alphas).allMatch(a -> a.getClass() == Alpha.class)) {
+			throw new IllegalArgumentException();
+		}
 
 		if (blocks == null)
 			throw new IllegalArgumentException();
@@ -199,6 +322,7 @@ public class BreakoutState {
 		if (!Point.ORIGIN.isUpAndLeftFrom(bottomRight))
 			throw new IllegalArgumentException();
 		this.bottomRight = bottomRight;
+		this.field = new Rect(Point.ORIGIN, bottomRight);
 		if (!getFieldInternal().contains(paddle.getLocation()))
 			throw new IllegalArgumentException();
 		if (!Arrays.stream(blocks).allMatch(b -> getFieldInternal().contains(b.getLocation())))
@@ -208,12 +332,18 @@ public class BreakoutState {
 		if (!Arrays.stream(alphas).allMatch(a -> getFieldInternal().contains(a.getLocation())))
 			throw new IllegalArgumentException();
 
-		// balls.clone() does a shallow copy by default
-		BalphaContainer copy = fullCopy(alphas, balls);
-		this.alphas = copy.alphas;
-		this.balls = copy.balls;
-		this.blocks = blocks.clone();
-		this.paddle = paddle;
+		this.alphas = new BalphaArrays(alphas.length);
+		this.balls = new BalphaArrays(balls.length);
+		this.links = new LinkStore(this.balls, this.alphas);
+		importBalphas(alphas, balls);
+		this.blockSlots = blocks.clone();
+		this.aliveBlocks = new BitSet(blocks.length);
+		this.aliveBlocks.set(0, blocks.length);
+		this.liveBlockCount = blocks.length;
+		this.blockTypeCounts = countBlockTypes(this.blockSlots);
+		this.blockGrid = new BlockGrid(bottomRight, this.blockSlots);
+		this.sameBlockSlots = linkSameBlockSlots(this.blockSlots);
+		setPaddle(paddle);
 
 		this.topWall = new Rect(new Point(0, -1000), new Point(bottomRight.getX(), 0));
 		this.rightWall = new Rect(new Point(bottomRight.getX(), 0),
@@ -221,21 +351,172 @@ public class BreakoutState {
 		this.leftWall = new Rect(new Point(-1000, 0), new Point(0, bottomRight.getY()));
 		this.walls = new Rect[] { topWall, rightWall, leftWall };
 	}
+
+	// Build a state around the given storage without checking anything: for callers that know it describes
+	// a valid state, charges included.
+	private BreakoutState(Point bottomRight, BalphaArrays alphas, BalphaArrays balls, LinkStore links,
+			BlockState[] blocks, PaddleState paddle) {
+		this.bottomRight = bottomRight;
+		this.field = new Rect(Point.ORIGIN, bottomRight);
+		this.alphas = alphas;
+		this.balls = balls;
+		this.links = links;
+		this.blockSlots = blocks;
+		this.aliveBlocks = new BitSet(blocks.length);
+		this.aliveBlocks.set(0, blocks.length);
+		this.liveBlockCount = blocks.length;
+		this.blockTypeCounts = countBlockTypes(this.blockSlots);
+		this.blockGrid = new BlockGrid(bottomRight, this.blockSlots);
+		this.sameBlockSlots = linkSameBlockSlots(this.blockSlots);
+		setPaddle(paddle);
+
+		this.topWall = new Rect(new Point(0, -1000), new Point(bottomRight.getX(), 0));
+		this.rightWall = new Rect(new Point(bottomRight.getX(), 0),
+				new Point(bottomRight.getX() + 1000, bottomRight.getY()));
+		this.leftWall = new Rect(new Point(-1000, 0), new Point(0, bottomRight.getY()));
+		this.walls = new Rect[] { topWall, rightWall, leftWall };
+	}
+
+	/**
+	 * Return a state with the given balls, alphas and links, computing the charges of the balls. Nothing else
+	 * is checked: the caller, `BinarySnapshot`, has checked everything the public constructor does.
+	 * `links` must belong to `balls` and `alphas`, and `blocks` is taken over by the state.
+	 */
+	static BreakoutState restore(Point bottomRight, BalphaArrays alphas, BalphaArrays balls, LinkStore links,
+			BlockState[] blocks, PaddleState paddle) {
+		BreakoutState result = new BreakoutState(bottomRight, alphas, balls, links, blocks, paddle);
+		result.initCharges();
+		return result;
+	}
+
+	/**
+	 * Return a state around the given copies of a valid state's storage, charges included, without checking
+	 * anything. `links` must belong to `balls` and `alphas`, and `blocks` is taken over by the state.
+	 */
+	static BreakoutState fromCopies(Point bottomRight, BalphaArrays alphas, BalphaArrays balls, LinkStore links,
+			BlockState[] blocks, PaddleState paddle) {
+		return new BreakoutState(bottomRight, alphas, balls, links, blocks, paddle);
+	}
+
+	// For `BinarySnapshot`, `RewindBuffer` and `StreamFrame`, which save the storage as it is.
+	BalphaArrays ballArrays() {
+		return balls;
+	}
+
+	BalphaArrays alphaArrays() {
+		return alphas;
+	}
+
+	LinkStore linkStore() {
+		return links;
+	}
+
+	// The block in each slot, null where it was destroyed; slots keep their index for the whole game.
+	BlockState[] blockSlots() {
+		return blockSlots;
+	}
+
+	/**
+	 * Return a deep copy of this BreakoutState that plays on exactly like this one would. Unlike passing
+	 * `getAlphas()`, `getBalls()` and `getBlocks()` to the constructor, this neither builds Ball and Alpha
+	 * objects nor checks them again. The copy ticks sequentially, whatever pool this state ticks on.
+	 *
+	 * @inspects | this
+	 * @creates | result
+	 * @post | result != null && result != this
+	 * @post | Arrays.equals(result.getBlocks(), getBlocks())
+	 * @post | result.getPaddle() == getPaddle()
+	 * @post | result.getBottomRight().equals(getBottomRight())
+	 * @post | IntStream.range(0, getBalls().length).allMatch(i -> result.getBalls()[i].equalsContent(getBalls()[i]))
+	 * @post | IntStream.range(0, getAlphas().length).allMatch(i -> result.getAlphas()[i].equalsContent(getAlphas()[i]))
+	 */
+	public BreakoutState copy() {
+		// a valid state, so its copy is one too
+		BalphaArrays alphasCopy = alphas.copy();
+		BalphaArrays ballsCopy = balls.copy();
+		return new BreakoutState(bottomRight, alphasCopy, ballsCopy, links.copy(ballsCopy, alphasCopy), getBlocks(),
+				paddle);
+	}
 	
-	private BalphaContainer fullCopy(Alpha[] alphaArray, Ball[] ballArray) {
-		Alpha[] alphasCopy = new Alpha[alphaArray.length];
-		for (int i = 0 ; i < alphaArray.length ; i++) {
-			alphasCopy[i] = alphaArray[i].clone();
+	private void importBalphas(Alpha[] alphaArray, Ball[] ballArray) {
+		// the constructor has checked that the alphas are distinct
+		IdentityHashMap<Alpha, Integer> alphaIndex = new IdentityHashMap<>(alphaArray.length);
+		for (int j = 0 ; j < alphaArray.length ; j++) {
+			alphaIndex.put(alphaArray[j], j);
+		}
+		for (Alpha a : alphaArray) {
+			Point center = a.getLocation().getCenter();
+			alphas.add(BalphaArrays.ALPHA, center.getX(), center.getY(), a.getLocation().getDiameter(),
+					a.getVelocity().getX(), a.getVelocity().getY(), 0);
 		}
-		Ball[] ballsCopy = new Ball[ballArray.length];
 		for (int i = 0 ; i < ballArray.length ; i++) {
-			ballsCopy[i] = ballArray[i].clone();
-			for (Alpha a : ballArray[i].getAlphas()) {
-				for (int j = 0 ; j < alphaArray.length ; j++) {
-					if (a == alphaArray[j]) ballsCopy[i].linkTo(alphasCopy[j]);
+			Ball b = ballArray[i];
+			Point center = b.getLocation().getCenter();
+			if (b instanceof SuperChargedBall superCharged) {
+				balls.add(BalphaArrays.SUPERCHARGED_BALL, center.getX(), center.getY(), b.getLocation().getDiameter(),
+						b.getVelocity().getX(), b.getVelocity().getY(), superCharged.getLifetime());
+			} else {
+				balls.add(BalphaArrays.NORMAL_BALL, center.getX(), center.getY(), b.getLocation().getDiameter(),
+						b.getVelocity().getX(), b.getVelocity().getY(), 0);
+			}
+			for (Alpha a : b.getAlphas()) {
+				Integer j = alphaIndex.get(a);
+				if (j != null) {
+					links.add(i, j);
 				}
 			}
 		}
+		initCharges();
+	}
+
+	// Compute the charges of all balls from their links, once all links have been made.
+	private void initCharges() {
+		for (int i = 0 ; i < balls.size ; i++) {
+			for (int e = balls.firstLink[i] ; e >= 0 ; e = links.nextOfBall[e]) {
+				degreeAdded(i, alphas.linkCount[links.alpha[e]]);
+			}
+			updateEcharge(i);
+		}
+	}
+
+	// Build the ball in slot `i` of `balls`, without links.
+	private Ball ballAt(int i) {
+		Circle location = new Circle(new Point(balls.x[i], balls.y[i]), balls.diameter[i]);
+		Vector velocity = new Vector(balls.vx[i], balls.vy[i]);
+		if (balls.kind[i] == BalphaArrays.SUPERCHARGED_BALL) {
+			return new SuperChargedBall(location, velocity, balls.lifetime[i]);
+		}
+		return new NormalBall(location, velocity);
+	}
+
+	// Build the alpha in slot `i` of `alphas`, without links.
+	private Alpha alphaAt(int i) {
+		return new Alpha(new Circle(new Point(alphas.x[i], alphas.y[i]), alphas.diameter[i]),
+				new Vector(alphas.vx[i], alphas.vy[i]));
+	}
+
+	private BalphaContainer exportBalphas() {
+		Alpha[] alphasCopy = new Alpha[alphas.size];
+		for (int i = 0 ; i < alphas.size ; i++) {
+			alphasCopy[i] = alphaAt(i);
+		}
+		Ball[] ballsCopy = new Ball[balls.size];
+		int linkCount = 0;
+		for (int i = 0 ; i < balls.size ; i++) {
+			ballsCopy[i] = ballAt(i);
+			linkCount += balls.linkCount[i];
+		}
+		int[] linkBalls = new int[linkCount];
+		int[] linkAlphas = new int[linkCount];
+		int k = 0;
+		for (int i = 0 ; i < balls.size ; i++) {
+			for (int e = balls.firstLink[i] ; e >= 0 ; e = links.nextOfBall[e]) {
+				linkBalls[k] = i;
+				linkAlphas[k] = links.alpha[e];
+				k++;
+			}
+		}
+		Ball.linkAll(ballsCopy, alphasCopy, linkBalls, linkAlphas);
 		
 		return new BalphaContainer(alphasCopy, ballsCopy);
 	}
@@ -248,7 +529,7 @@ public class BreakoutState {
      * @creates | ...result
 	 */
 	public Alpha[] getAlphas() {
-		return fullCopy(alphas, balls).alphas;
+		return exportBalphas().alphas;
 	}
 
 	/**
@@ -259,7 +540,24 @@ public class BreakoutState {
      * @creates | ...result
 	 */
 	public Ball[] getBalls() {
-		return fullCopy(alphas, balls).balls;
+		return exportBalphas().balls;
+	}
+
+	/**
+	 * Return an immutable picture of the balls, alphas and links of this BreakoutState. Repeated calls
+	 * between two ticks return the same object, so reading the balls and alphas this way costs nothing
+	 * after the first call.
+	 *
+	 * @inspects | this
+	 * @post | result != null
+	 * @post | result.getBallCount() == getBalls().length
+	 * @post | result.getAlphaCount() == getAlphas().length
+	 */
+	public BalphaSnapshot getSnapshot() {
+		if (snapshot == null) {
+			snapshot = new BalphaSnapshot(balls, alphas, links);
+		}
+		return snapshot;
 	}
 
 	/**
@@ -268,7 +566,28 @@ public class BreakoutState {
 	 * @creates | result
 	 */
 	public BlockState[] getBlocks() {
-		return blocks.clone();
+		BlockState[] result = new BlockState[liveBlockCount];
+		int i = 0;
+		for (int slot = aliveBlocks.nextSetBit(0); slot >= 0; slot = aliveBlocks.nextSetBit(slot + 1)) {
+			result[i++] = blockSlots[slot];
+		}
+		return result;
+	}
+
+	/**
+	 * Store the blocks `getBlocks()` would return into the start of `blocks`, which must be large enough,
+	 * and return their number. Allocates nothing.
+	 *
+	 * @pre | blocks != null && blocks.length >= getBlockCount()
+	 * @mutates | blocks
+	 * @post | result == getBlockCount()
+	 */
+	int copyBlocksInto(BlockState[] blocks) {
+		int i = 0;
+		for (int slot = aliveBlocks.nextSetBit(0); slot >= 0; slot = aliveBlocks.nextSetBit(slot + 1)) {
+			blocks[i++] = blockSlots[slot];
+		}
+		return i;
 	}
 
 	/**
@@ -289,7 +608,18 @@ public class BreakoutState {
 	// internal version of getField which can be invoked in partially inconsistent
 	// states
 	private Rect getFieldInternal() {
-		return new Rect(Point.ORIGIN, bottomRight);
+		return field;
+	}
+
+	private void setPaddle(PaddleState paddle) {
+		if (paddle != this.paddle) {
+			Rect location = paddle.getLocation();
+			if (!location.equals(paddleLocation)) {
+				collisionsValid = false;
+			}
+			this.paddle = paddle;
+			this.paddleLocation = location;
+		}
 	}
 
 	/**
@@ -303,88 +633,230 @@ public class BreakoutState {
 		return getFieldInternal();
 	}
 
-	private void bounceWalls(Ball ball) {
-		for (Rect wall : walls) {
-			if (ball.collidesWith(wall)) {
-				ball.hitWall(wall);
+	/**
+	 * Return the charge of the ball in slot `ball` as `Ball.getEcharge()` defines it, computed from scratch
+	 * from its links: the largest number of balls linked to one of its alphas, or 1 without alphas, negated
+	 * if it has an odd number of alphas. For checking the charges kept up to date in `balls.charge`.
+	 */
+	int chargeFromLinks(int ball) {
+		int max = 1;
+		for (int e = balls.firstLink[ball]; e >= 0; e = links.nextOfBall[e]) {
+			max = Math.max(max, alphas.linkCount[links.alpha[e]]);
+		}
+		return balls.linkCount[ball] % 2 != 0 ? -max : max;
+	}
+
+	private void updateEcharge(int ball) {
+		int charge = Math.max(1, balls.maxDegree[ball]);
+		balls.charge[ball] = balls.linkCount[ball] % 2 != 0 ? -charge : charge;
+	}
+
+	// Ball `ball` got an alpha with `degree` balls, or one of its alphas went up to `degree` balls.
+	private void degreeAdded(int ball, int degree) {
+		balls.degreeRoot[ball] = balls.degrees.add(balls.degreeRoot[ball], degree);
+		if (degree > balls.maxDegree[ball]) {
+			balls.maxDegree[ball] = degree;
+		}
+	}
+
+	// Ball `ball` lost an alpha with `degree` balls, or one of its alphas went down from `degree` balls.
+	private void degreeRemoved(int ball, int degree) {
+		balls.degreeRoot[ball] = balls.degrees.remove(balls.degreeRoot[ball], degree);
+		if (degree == balls.maxDegree[ball]) {
+			// the histogram knows the largest degree left without looking at the ball's alphas
+			balls.maxDegree[ball] = balls.degrees.max(balls.degreeRoot[ball]);
+		}
+	}
+
+	// Same as Ball.linkTo, for the ball in slot `ball` and the alpha in slot `alpha`. Package-private for tests.
+	void link(int ball, int alpha) {
+		if (links.find(ball, alpha) < 0) {
+			int degree = alphas.linkCount[alpha];
+			for (int e = alphas.firstLink[alpha]; e >= 0; e = links.nextOfAlpha[e]) {
+				int b = links.ball[e];
+				degreeAdded(b, degree + 1);
+				degreeRemoved(b, degree);
+				updateEcharge(b);
 			}
+			links.add(ball, alpha);
+			degreeAdded(ball, degree + 1);
+			updateEcharge(ball);
+		}
+	}
+
+	// Same as Ball.unLink, for the ball in slot `ball` and the alpha in slot `alpha`. Package-private for tests.
+	void unLink(int ball, int alpha) {
+		int edge = links.find(ball, alpha);
+		if (edge >= 0) {
+			unLink(edge);
+		}
+	}
+
+	// Remove edge `edge` of `links`, keeping the charges of the balls involved up to date.
+	private void unLink(int edge) {
+		int ball = links.ball[edge];
+		int alpha = links.alpha[edge];
+		int degree = alphas.linkCount[alpha];
+		links.remove(edge);
+		degreeRemoved(ball, degree);
+		updateEcharge(ball);
+		for (int e = alphas.firstLink[alpha]; e >= 0; e = links.nextOfAlpha[e]) {
+			int b = links.ball[e];
+			degreeAdded(b, degree - 1);
+			degreeRemoved(b, degree);
+			updateEcharge(b);
+		}
+	}
+
+	private void bounceWallsBall(int i) {
+		for (Rect wall : walls) {
+			balls.bounceOn(i, wall);
 		}
 	}
 	
-	private void bounceWalls(Alpha alpha) {
+	private void bounceWallsAlpha(int i) {
 		for (Rect wall : walls) {
-			if (alpha.collidesWith(wall)) {
-				alpha.hitWall(wall);
-				for (Ball b : alpha.getBalls()) {
-					b.setVelocity(Vector.magnetSpeed(alpha.getLocation().getCenter(), b.getCenter(), b.getEcharge(), b.getVelocity()));
-				}
+			if (alphas.bounceOn(i, wall)) {
+				pullLinkedBalls(i);
 			}
 		}
 	}
 
-	private Ball removeDead(Ball ball) {
-		if (ball.getLocation().getBottommostPoint().getY() > bottomRight.getY()) {
-			ball.getAlphas().forEach(a -> ball.unLink(a));
-			return null;
+	// Same as bounceWallsAlpha, but leaves pulling the linked balls to the caller: returns how often to do so.
+	private byte countWallBouncesAlpha(int i) {
+		byte bounces = 0;
+		for (Rect wall : walls) {
+			if (alphas.bounceOn(i, wall)) {
+				bounces++;
+			}
 		}
-		else { return ball; }
+		return bounces;
 	}
-	
-	private Alpha removeDead(Alpha alpha) {
-		if (alpha.getLocation().getBottommostPoint().getY() > bottomRight.getY()) { 
-			alpha.getBalls().forEach(b -> b.unLink(alpha));
-			return null; 
+
+	// Alpha.bounceOn: a bouncing alpha changes the speed of its balls with its magnetic pull
+	private void pullLinkedBalls(int i) {
+		for (int e = alphas.firstLink[i]; e >= 0; e = links.nextOfAlpha[e]) {
+			int b = links.ball[e];
+			long v = Vector.magnetSpeed(alphas.x[i], alphas.y[i], balls.x[b], balls.y[b], balls.charge[b],
+					balls.vx[b], balls.vy[b]);
+			balls.vx[b] = Vector.unpackX(v);
+			balls.vy[b] = Vector.unpackY(v);
 		}
-		else { return alpha; }
 	}
 
-	private void clampBall(Ball b) {
-		Circle loc = getFieldInternal().constrain(b.getLocation());
-	    b.move(loc.getCenter().minus(b.getLocation().getCenter()),0);
+	private void removeDeadBall(int i) {
+		if (balls.y[i] + balls.diameter[i] / 2 > bottomRight.getY()) {
+			while (balls.firstLink[i] >= 0) {
+				unLink(balls.firstLink[i]);
+			}
+			balls.kind[i] = BalphaArrays.REMOVED;
+		}
+	}
+	
+	private void removeDeadAlpha(int i) {
+		if (alphas.y[i] + alphas.diameter[i] / 2 > bottomRight.getY()) {
+			while (alphas.firstLink[i] >= 0) {
+				unLink(alphas.firstLink[i]);
+			}
+			alphas.kind[i] = BalphaArrays.REMOVED;
+		}
 	}
 
-	private void clampAlpha(Alpha a) {
-		Circle loc = getFieldInternal().constrain(a.getLocation());
-	    a.move(loc.getCenter().minus(a.getLocation().getCenter()));
+	// Same as getFieldInternal().constrain(circle) followed by a move to the constrained center.
+	private void clamp(BalphaArrays entities, int i) {
+		long center = field.constrain(entities.x[i], entities.y[i], entities.diameter[i] / 2);
+		entities.x[i] = Vector.unpackX(center);
+		entities.y[i] = Vector.unpackY(center);
 	}
 	
-	private Ball collideBallBlocks(Ball ball) {
-		for (BlockState block : blocks) {
-			if (ball.collidesWith(block.getLocation())) {
-				boolean destroyed = hitBlock(block);
-				ball.hitBlock(block.getLocation(), destroyed);
-				paddle = block.paddleStateAfterHit(paddle);
-				Ball newBall = block.ballStateAfterHit(ball);
-				
-				// When ball becomes supercharged, we need to manually update the links
-				if (newBall != ball) {
-					for (Alpha a: ball.getAlphas()) {
-						newBall.linkTo(a);
-						ball.unLink(a);
-					}
+	// `slot` is the first block the ball collided with before any block was hit during this phase
+	private void collideBallBlocks(int i, int slot) {
+		if (slot >= 0 && blockSlots[slot] == null) {
+			// destroyed by an earlier ball: blocks only disappear, so any other candidate lies further on
+			slot = blockGrid.firstCollision(balls, i);
+		}
+		if (slot < 0) {
+			return;
+		}
+		BlockState block = blockSlots[slot];
+		boolean destroyed = hitBlock(slot);
+		// Ball.hitBlock: a supercharged ball with lifetime left goes straight through blocks it destroys
+		if (balls.kind[i] != BalphaArrays.SUPERCHARGED_BALL || balls.lifetime[i] < 0 || !destroyed) {
+			balls.bounceOn(i, block.getLocation());
+		}
+		setPaddle(block.paddleStateAfterHit(paddle));
+		Ball ball = ballAt(i);
+		Ball newBall = block.ballStateAfterHit(ball);
+		
+		// The new ball takes over the links of the old one, so only its own state needs copying
+		if (newBall != ball) {
+			Point center = newBall.getLocation().getCenter();
+			balls.x[i] = center.getX();
+			balls.y[i] = center.getY();
+			balls.diameter[i] = newBall.getLocation().getDiameter();
+			balls.vx[i] = newBall.getVelocity().getX();
+			balls.vy[i] = newBall.getVelocity().getY();
+			if (newBall instanceof SuperChargedBall superCharged) {
+				balls.kind[i] = BalphaArrays.SUPERCHARGED_BALL;
+				balls.lifetime[i] = superCharged.getLifetime();
+			} else {
+				balls.kind[i] = BalphaArrays.NORMAL_BALL;
+			}
+		}
+	}
+
+	private static int[] linkSameBlockSlots(BlockState[] slots) {
+		IdentityHashMap<BlockState, Integer> firstSlot = new IdentityHashMap<>();
+		int[] next = null;
+		for (int slot = 0; slot < slots.length; slot++) {
+			Integer first = firstSlot.putIfAbsent(slots[slot], slot);
+			if (first != null) {
+				if (next == null) {
+					next = IntStream.range(0, slots.length).toArray();
 				}
-				
-				return newBall;
+				next[slot] = next[first];
+				next[first] = slot;
 			}
 		}
-		return ball;
+		return next;
 	}
 
-	private boolean hitBlock(BlockState block) {
+	private static IdentityHashMap<Class<?>, int[]> countBlockTypes(BlockState[] slots) {
+		IdentityHashMap<Class<?>, int[]> result = new IdentityHashMap<>();
+		for (BlockState block : slots) {
+			result.computeIfAbsent(block.getClass(), c -> new int[1])[0]++;
+		}
+		return result;
+	}
+
+	private boolean hitBlock(int slot) {
+		blockHitCount++;
 		boolean destroyed = true;
-		ArrayList<BlockState> nblocks = new ArrayList<BlockState>();
-		for (BlockState b : blocks) {
-			if (b != block) {
-				nblocks.add(b);
-			} else {
-				BlockState nb = block.blockStateAfterHit();
+		int s = slot;
+		do {
+			BlockState ob = blockSlots[s];
+			BlockState nb = ob.blockStateAfterHit();
+			blockSlots[s] = nb;
+			if (nb == null || nb.getClass() != ob.getClass()) {
+				blockTypeCounts.get(ob.getClass())[0]--;
 				if (nb != null) {
-					nblocks.add(nb);
-					destroyed = false;
+					blockTypeCounts.computeIfAbsent(nb.getClass(), c -> new int[1])[0]++;
 				}
 			}
-		}
-		blocks = nblocks.toArray(new BlockState[] {});
+			if (nb == null) {
+				blockGrid.remove(s);
+				aliveBlocks.clear(s);
+				liveBlockCount--;
+			} else {
+				destroyed = false;
+			}
+			int next = sameBlockSlots == null ? s : sameBlockSlots[s];
+			if (sameBlockSlots != null) {
+				// the new block states are distinct objects, so the ring is dissolved
+				sameBlockSlots[s] = s;
+			}
+			s = next;
+		} while (s != slot);
 		return destroyed;
 	}
 
@@ -397,121 +869,367 @@ public class BreakoutState {
 	 * @pre | elapsedTime <= MAX_ELAPSED_TIME
 	 */
 	public void tick(int paddleDir, int elapsedTime) {
+		collisionsValid = false;
+		runTick(paddleDir, elapsedTime);
+	}
+
+	// Return whether any ball or alpha was removed.
+	private boolean runTick(int paddleDir, int elapsedTime) {
+		snapshot = null;
 		stepBallsAndAlphas(elapsedTime);
 		bounceBallsAndAlphasOnWalls();
 		removeDeadBallsAndAlphas();
 		bounceBallsOnBlocks();
 		bounceBallsAndAlphasOnPaddle(paddleDir);
 		clampBallsAndAlphas();
-		balls = Arrays.stream(balls).filter(x -> x != null).toArray(Ball[]::new);
-		alphas = Arrays.stream(alphas).filter(x -> x != null).toArray(Alpha[]::new);
+		return compactBallsAndAlphas();
+	}
+
+	private boolean compactBallsAndAlphas() {
+		boolean ballsDropped = balls.compact();
+		boolean alphasDropped = alphas.compact();
+		if (ballsDropped || alphasDropped) {
+			links.remap(ballsDropped ? balls.newIndex : null, alphasDropped ? alphas.newIndex : null);
+		}
+		return ballsDropped || alphasDropped;
 	}
 
 	private void clampBallsAndAlphas() {
-		for(int i = 0; i < balls.length; ++i) {
-			if(balls[i] != null) {
-				clampBall(balls[i]);
+		if (isParallel()) {
+			ParallelRange.run(tickPool, balls.size, PARALLEL_GRAIN, i -> {
+				if (balls.isLive(i)) {
+					clamp(balls, i);
+				}
+			});
+			ParallelRange.run(tickPool, alphas.size, PARALLEL_GRAIN, i -> {
+				if (alphas.isLive(i)) {
+					clamp(alphas, i);
+				}
+			});
+			return;
+		}
+		for(int i = 0; i < balls.size; ++i) {
+			if(balls.isLive(i)) {
+				clamp(balls, i);
 			}		
 		}
-		for(int i = 0; i < alphas.length; ++i) {
-			if(alphas[i] != null) {
-				clampAlpha(alphas[i]);
+		for(int i = 0; i < alphas.size; ++i) {
+			if(alphas.isLive(i)) {
+				clamp(alphas, i);
 			}		
 		}
 	}
 
-	private void collideBallPaddle(Ball ball, Vector paddleVel) {
-		if (ball.collidesWith(paddle.getLocation())) {
-			ball.hitPaddle(paddle.getLocation(),paddleVel);
+	private void collideBallPaddle(int i, int paddleVelX, int paddleVelY) {
+		if (balls.collidesWith(i, paddleLocation)) {
+			// Ball.hitPaddle
+			balls.bounceOn(i, paddleLocation);
+			balls.vx[i] += paddleVelX / 5;
+			balls.vy[i] += paddleVelY / 5;
 			
-			Alpha newAlpha = new Alpha(ball.getLocation(), ball.getVelocity().plus(BALL_VEL_VARIATIONS[4]));
-			ball.linkTo(newAlpha);
-			Alpha[] newAlphas = new Alpha[alphas.length + 1];
-			for(int i = 0; i < alphas.length; i++) {
-				newAlphas[i] = alphas[i];
-			}
-			newAlphas[alphas.length] = newAlpha;
-			alphas = newAlphas;
+			Vector alphaVel = BALL_VEL_VARIATIONS[4];
+			int newAlpha = alphas.add(BalphaArrays.ALPHA, balls.x[i], balls.y[i], balls.diameter[i],
+					balls.vx[i] + alphaVel.getX(), balls.vy[i] + alphaVel.getY(), 0);
+			link(i, newAlpha);
 			
+			// replicas are unlinked clones of the ball with a slightly different velocity
 			int nrBalls = paddle.numberOfBallsAfterHit();
-			if(nrBalls > 1) {
-				Ball[] curballs = balls;
-				balls = new Ball[curballs.length + nrBalls - 1];
-				for(int i = 0; i < curballs.length; ++i) {
-					balls[i] = curballs[i];
-				}
-				for(int i = 1; i < nrBalls; ++i) {
-					Vector nballVel = ball.getVelocity().plus(BALL_VEL_VARIATIONS[i]);
-					balls[curballs.length + i -1] = ball.cloneWithVelocity(nballVel);					
-				}
+			for(int k = 1; k < nrBalls; ++k) {
+				balls.add(balls.kind[i], balls.x[i], balls.y[i], balls.diameter[i],
+						balls.vx[i] + BALL_VEL_VARIATIONS[k].getX(), balls.vy[i] + BALL_VEL_VARIATIONS[k].getY(),
+						balls.lifetime[i]);
 			}
 
-			paddle = paddle.stateAfterHit();
+			setPaddle(paddle.stateAfterHit());
 		}
 	}
 	
-	private void collideAlphaPaddle(Alpha alpha, Vector paddleVel) {
-		if (alpha.collidesWith(paddle.getLocation())) {
-			alpha.hitPaddle(paddle.getLocation(), paddleVel);
-			Ball newBall = new NormalBall(alpha.getLocation(), alpha.getVelocity().plus(BALL_VEL_VARIATIONS[4]));
-			newBall.linkTo(alpha);
-			Ball[] newBalls = new Ball[balls.length + 1];
-			for(int i = 0; i < balls.length; i++) {
-				newBalls[i] = balls[i];
-			}
-			newBalls[balls.length] = newBall;
-			balls = newBalls;
+	private void collideAlphaPaddle(int i, int paddleVelX, int paddleVelY) {
+		if (alphas.collidesWith(i, paddleLocation)) {
+			// Alpha.hitPaddle
+			alphas.bounceOn(i, paddleLocation);
+			alphas.vx[i] += paddleVelX / 5;
+			alphas.vy[i] += paddleVelY / 5;
+			
+			Vector ballVel = BALL_VEL_VARIATIONS[4];
+			int newBall = balls.add(BalphaArrays.NORMAL_BALL, alphas.x[i], alphas.y[i], alphas.diameter[i],
+					alphas.vx[i] + ballVel.getX(), alphas.vy[i] + ballVel.getY(), 0);
+			link(newBall, i);
 		}
 	}
 
 	private void bounceBallsAndAlphasOnPaddle(int paddleDir) {
-		Vector paddleVel = PADDLE_VEL.scaled(paddleDir);
-		for(int i = 0; i < balls.length; ++i) {
-			if(balls[i] != null) {
-				collideBallPaddle(balls[i], paddleVel);
+		int paddleVelX = PADDLE_VEL.getX() * paddleDir;
+		int paddleVelY = PADDLE_VEL.getY() * paddleDir;
+		// balls and alphas appended during these loops take part as well
+		for(int i = 0; i < balls.size; ++i) {
+			if(balls.isLive(i)) {
+				collideBallPaddle(i, paddleVelX, paddleVelY);
 			}
 		}
-		for(int i = 0; i < alphas.length; ++i) {
-			if(alphas[i] != null) {
-				collideAlphaPaddle(alphas[i], paddleVel);
+		for(int i = 0; i < alphas.size; ++i) {
+			if(alphas.isLive(i)) {
+				collideAlphaPaddle(i, paddleVelX, paddleVelY);
 			}
 		}
 	}
 
 	private void bounceBallsOnBlocks() {
-		for(int i = 0; i < balls.length; ++i) {
-			if(balls[i] != null) {
-				balls[i] = collideBallBlocks(balls[i]);
+		if (isParallel()) {
+			// look up the blocks in parallel, then hit them in ball order
+			if (blockCandidates == null || blockCandidates.length < balls.size) {
+				blockCandidates = new int[balls.x.length];
+			}
+			ParallelRange.run(tickPool, balls.size, PARALLEL_GRAIN,
+					i -> blockCandidates[i] = balls.isLive(i) ? blockGrid.firstCollision(balls, i) : -1);
+			for(int i = 0; i < balls.size; ++i) {
+				if(balls.isLive(i)) {
+					collideBallBlocks(i, blockCandidates[i]);
+				}
+			}
+			return;
+		}
+		for(int i = 0; i < balls.size; ++i) {
+			if(balls.isLive(i)) {
+				collideBallBlocks(i, blockGrid.firstCollision(balls, i));
 			}
 		}
 	}
 
 	private void removeDeadBallsAndAlphas() {
-		for(int i = 0; i < balls.length; ++i) {
-			balls[i] = removeDead(balls[i]);
+		for(int i = 0; i < balls.size; ++i) {
+			removeDeadBall(i);
 		}
-		for(int i = 0; i < alphas.length; ++i) {
-			alphas[i] = removeDead(alphas[i]);
+		for(int i = 0; i < alphas.size; ++i) {
+			removeDeadAlpha(i);
 		}
 	}
 
 	private void bounceBallsAndAlphasOnWalls() {
-		for(int i = 0; i < balls.length; ++i) {
-			bounceWalls(balls[i]);
+		if (isParallel()) {
+			ParallelRange.run(tickPool, balls.size, PARALLEL_GRAIN, this::bounceWallsBall);
+			// the pull of an alpha depends on the speed its balls got from earlier alphas, so it is applied in order
+			if (alphaBounces == null || alphaBounces.length < alphas.size) {
+				alphaBounces = new byte[alphas.x.length];
+			}
+			ParallelRange.run(tickPool, alphas.size, PARALLEL_GRAIN, i -> alphaBounces[i] = countWallBouncesAlpha(i));
+			for(int i = 0; i < alphas.size; ++i) {
+				for (int k = 0; k < alphaBounces[i]; k++) {
+					pullLinkedBalls(i);
+				}
+			}
+			return;
+		}
+		for(int i = 0; i < balls.size; ++i) {
+			bounceWallsBall(i);
 		}
-		for(int i = 0; i < alphas.length; ++i) {
-			bounceWalls(alphas[i]);
+		for(int i = 0; i < alphas.size; ++i) {
+			bounceWallsAlpha(i);
 		}
 	}
 
 	private void stepBallsAndAlphas(int elapsedTime) {
-		for(int i = 0; i < balls.length; ++i) {
-			balls[i].move(balls[i].getVelocity().scaled(elapsedTime), elapsedTime);
+		if (isParallel()) {
+			ParallelRange.run(tickPool, balls.size, PARALLEL_GRAIN, i -> stepBall(i, elapsedTime));
+			ParallelRange.run(tickPool, alphas.size, PARALLEL_GRAIN, i -> stepAlpha(i, elapsedTime));
+			return;
+		}
+		for(int i = 0; i < balls.size; ++i) {
+			stepBall(i, elapsedTime);
+		}
+		for(int i = 0; i < alphas.size; ++i) {
+			stepAlpha(i, elapsedTime);
+		}
+	}
+
+	private void stepBall(int i, int elapsedTime) {
+		balls.x[i] += balls.vx[i] * elapsedTime;
+		balls.y[i] += balls.vy[i] * elapsedTime;
+		// SuperChargedBall.move
+		if (balls.kind[i] == BalphaArrays.SUPERCHARGED_BALL && balls.lifetime[i] >= 0) {
+			balls.lifetime[i] -= elapsedTime;
+		}
+	}
+
+	private void stepAlpha(int i, int elapsedTime) {
+		alphas.x[i] += alphas.vx[i] * elapsedTime;
+		alphas.y[i] += alphas.vy[i] * elapsedTime;
+	}
+
+	/**
+	 * Let the following ticks split their independent work over the workers of `pool`, or switch that off if
+	 * `pool` is null. Only worthwhile for thousands of balls and alphas; ticks with fewer run sequentially
+	 * anyway. The outcome of a tick is exactly the same either way: the parts that depend on the order of
+	 * the balls, like hitting blocks and the paddle, are still done one ball after the other.
+	 *
+	 * @mutates | this
+	 */
+	public void setTickPool(ForkJoinPool pool) {
+		this.tickPool = pool;
+	}
+
+	private boolean isParallel() {
+		return tickPool != null && balls.size + alphas.size >= PARALLEL_THRESHOLD;
+	}
+
+	/**
+	 * Move all moving objects forward by `elapsedTime` milliseconds, one millisecond at a time, without letting
+	 * fast balls or alphas tunnel through blocks, walls or the paddle.
+	 *
+	 * The result is exactly that of `elapsedTime` consecutive calls of `tick(paddleDir, 1)`, but only the
+	 * milliseconds at which a ball or alpha can touch something cost a full tick: in between, the time of
+	 * impact of every ball and alpha is computed from its straight-line path and all of them are moved there
+	 * at once. A catch-up after a long pause therefore costs one call and roughly one tick per collision.
+	 *
+	 * @mutates | this
+	 * @mutates | ...getBalls()
+	 * @pre | elapsedTime >= 0
+	 */
+	public void tickSwept(int paddleDir, int elapsedTime) {
+		advance(paddleDir, elapsedTime, 1);
+	}
+
+	/**
+	 * Do the same as `BreakoutFacade.tickDuring`: ticks of 20 milliseconds with the paddle standing still,
+	 * followed by a single tick for the remaining milliseconds.
+	 *
+	 * Instead of ticking through the 20 millisecond slices one by one, this jumps from one predicted collision
+	 * of a ball or alpha to the next, so only the slices in which something happens cost a tick. The
+	 * predictions are kept between calls for as long as nothing else changes this state.
+	 *
+	 * @mutates | this
+	 * @mutates | ...getBalls()
+	 * @pre | elapsedTime >= 0
+	 */
+	public void fastForward(int elapsedTime) {
+		advance(0, elapsedTime / FAST_FORWARD_PERIOD, FAST_FORWARD_PERIOD);
+		if (elapsedTime % FAST_FORWARD_PERIOD != 0) {
+			tick(0, elapsedTime % FAST_FORWARD_PERIOD);
+		}
+	}
+
+	/**
+	 * Do the same as `steps` consecutive calls of `tick(paddleDir, period)`, skipping over the steps at which
+	 * nothing but the positions and lifetimes of balls and alphas would change.
+	 */
+	void advance(int paddleDir, int steps, int period) {
+		snapshot = null;
+		CollisionQueue queue = collisionQueue(period);
+		long end = queue.now + steps;
+		while (queue.firstStep() <= end) {
+			long step = queue.firstStep();
+			moveBallsAndAlphas((int) (step - 1 - queue.now), period);
+			queue.now = step;
+			boolean dropped = runTick(paddleDir, period);
+			if (dropped || !collisionsValid) {
+				// indices have shifted: predict everything again
+				scheduleAll(queue);
+			} else {
+				rescheduleChanged(queue);
+			}
+		}
+		moveBallsAndAlphas((int) (end - queue.now), period);
+		queue.now = end;
+	}
+
+	private CollisionQueue collisionQueue(int period) {
+		if (collisions == null || collisions.getPeriod() != period) {
+			collisions = new CollisionQueue(period);
+			collisionsValid = false;
+		}
+		if (!collisionsValid) {
+			scheduleAll(collisions);
+		}
+		return collisions;
+	}
+
+	private void scheduleAll(CollisionQueue queue) {
+		long now = queue.now;
+		queue.clear();
+		queue.now = now;
+		for (int i = 0; i < balls.size; i++) {
+			scheduleBall(queue, i);
+		}
+		for (int i = 0; i < alphas.size; i++) {
+			scheduleAlpha(queue, i);
+		}
+		queue.ballCount = balls.size;
+		queue.alphaCount = alphas.size;
+		collisionsValid = true;
+	}
+
+	/*
+	 * A prediction stays good as long as the entity keeps its velocity: the walls and the paddle stay where
+	 * they are during a tick, and blocks only disappear, which can only make a prediction early. Entities that
+	 * had their event now, changed velocity (bounces, magnet speed) or were just added are predicted again.
+	 */
+	private void rescheduleChanged(CollisionQueue queue) {
+		for (int i = 0; i < balls.size; i++) {
+			int id = CollisionQueue.ballId(i);
+			if (i >= queue.ballCount || queue.stepOf(id) == queue.now
+					|| !queue.hasVelocity(id, balls.vx[i], balls.vy[i])) {
+				scheduleBall(queue, i);
+			}
+		}
+		for (int i = 0; i < alphas.size; i++) {
+			int id = CollisionQueue.alphaId(i);
+			if (i >= queue.alphaCount || queue.stepOf(id) == queue.now
+					|| !queue.hasVelocity(id, alphas.vx[i], alphas.vy[i])) {
+				scheduleAlpha(queue, i);
+			}
+		}
+		queue.ballCount = balls.size;
+		queue.alphaCount = alphas.size;
+	}
+
+	private void scheduleBall(CollisionQueue queue, int i) {
+		int steps = stepsUntilBallEvent(i, queue.getPeriod(), PREDICTION_HORIZON);
+		queue.schedule(CollisionQueue.ballId(i), queue.now + steps, balls.vx[i], balls.vy[i]);
+	}
+
+	private void scheduleAlpha(CollisionQueue queue, int i) {
+		int steps = stepsUntilAlphaEvent(i, queue.getPeriod(), PREDICTION_HORIZON);
+		queue.schedule(CollisionQueue.alphaId(i), queue.now + steps, alphas.vx[i], alphas.vy[i]);
+	}
+
+	private int stepsUntilBallEvent(int i, int period, int maxSteps) {
+		int first = stepsUntilBoundaryEvent(balls, i, period, maxSteps);
+		// the walls and the field's bounds keep the path searched for blocks inside the field
+		return blockGrid.firstSweptCollision(balls, i, period, first - 1);
+	}
+
+	private int stepsUntilAlphaEvent(int i, int period, int maxSteps) {
+		return stepsUntilBoundaryEvent(alphas, i, period, maxSteps);
+	}
+
+	// Walls, paddle, falling out at the bottom and clamping to the field.
+	private int stepsUntilBoundaryEvent(BalphaArrays entities, int i, int period, int maxSteps) {
+		int first = TimeOfImpact.firstStepOutside(entities, i, period, field, maxSteps);
+		for (Rect wall : walls) {
+			first = TimeOfImpact.firstStepColliding(entities, i, period, wall, first - 1);
+		}
+		return TimeOfImpact.firstStepColliding(entities, i, period, paddleLocation, first - 1);
+	}
+
+	// Same as `steps` calls of stepBallsAndAlphas(period).
+	private void moveBallsAndAlphas(int steps, int period) {
+		if (steps == 0) {
+			return;
 		}
-		for(int i = 0; i < alphas.length; ++i) {
-			alphas[i].move(alphas[i].getVelocity().scaled(elapsedTime));
+		for(int i = 0; i < balls.size; ++i) {
+			balls.x[i] += balls.vx[i] * period * steps;
+			balls.y[i] += balls.vy[i] * period * steps;
+			// the lifetime keeps running down until the first step that makes it negative
+			if (balls.kind[i] == BalphaArrays.SUPERCHARGED_BALL && balls.lifetime[i] >= 0) {
+				balls.lifetime[i] -= period * (Math.min(steps - 1, balls.lifetime[i] / period) + 1);
+			}
+		}
+		for(int i = 0; i < alphas.size; ++i) {
+			alphas.x[i] += alphas.vx[i] * period * steps;
+			alphas.y[i] += alphas.vy[i] * period * steps;
 		}
 	}
+
 	/**
 	 * Move the paddle right.
 	 * 
@@ -520,7 +1238,7 @@ public class BreakoutState {
 	 * @mutates | this
 	 */
 	public void movePaddleRight(int elapsedTime) {
-		paddle = paddle.move(PADDLE_VEL.scaled(elapsedTime), getField());
+		setPaddle(paddle.move(PADDLE_VEL.scaled(elapsedTime), getField()));
 	}
 
 	/**
@@ -529,7 +1247,59 @@ public class BreakoutState {
 	 * @mutates | this
 	 */
 	public void movePaddleLeft(int elapsedTime) {
-		paddle = paddle.move(PADDLE_VEL.scaled(-elapsedTime), getField());
+		setPaddle(paddle.move(PADDLE_VEL.scaled(-elapsedTime), getField()));
+	}
+
+	/**
+	 * Return the number of balls of this BreakoutState, without copying them.
+	 * 
+	 * @post | result == getBalls().length
+	 * @inspects | this
+	 */
+	public int getBallCount() {
+		return balls.size;
+	}
+
+	/**
+	 * Return the number of alphas of this BreakoutState, without copying them.
+	 * 
+	 * @post | result == getAlphas().length
+	 * @inspects | this
+	 */
+	public int getAlphaCount() {
+		return alphas.size;
+	}
+
+	/**
+	 * Return the number of blocks of this BreakoutState, without copying them.
+	 * 
+	 * @post | result == getBlocks().length
+	 * @inspects | this
+	 */
+	public int getBlockCount() {
+		return liveBlockCount;
+	}
+
+	/**
+	 * Return the number of blocks of this BreakoutState whose class is exactly `type`.
+	 * 
+	 * @pre | type != null
+	 * @post | result == Arrays.stream(getBlocks()).filter(b -> b.getClass() == type).count()
+	 * @inspects | this
+	 */
+	public int getBlockCount(Class<? extends BlockState> type) {
+		int[] count = blockTypeCounts.get(type);
+		return count == null ? 0 : count[0];
+	}
+
+	/**
+	 * Return a number that changes whenever a block of this BreakoutState is hit, so that a client that
+	 * saw the blocks before can tell that `getBlocks()` is still the same without copying them.
+	 * 
+	 * @inspects | this
+	 */
+	public int getBlockHitCount() {
+		return blockHitCount;
 	}
 
 	/**
@@ -539,7 +1309,7 @@ public class BreakoutState {
 	 * @inspects | this
 	 */
 	public boolean isWon() {
-		return getBlocks().length == 0 && !isDead();
+		return getBlockCount() == 0 && !isDead();
 	}
 
 	/**
@@ -549,6 +1319,6 @@ public class BreakoutState {
 	 * @inspects | this
 	 */
 	public boolean isDead() {
-		return getBalls().length == 0;
+		return getBallCount() == 0;
 	}
 }
@@ -0,0 +1,160 @@
+package breakout;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import breakout.gui.BreakoutApplication;
+import breakout.radioactivity.Alpha;
+import breakout.radioactivity.Ball;
+import breakout.utils.Circle;
+import breakout.utils.Point;
+import breakout.utils.Vector;
+
+class BreakoutStateTest {
+	Point bottomRight = new Point(50000, 30000);
+	PaddleState paddle = new NormalPaddleState(new Point(25000, 29000));
+
+	@Test
+	void testCopyPlaysOnLikeTheOriginal() {
+		for (long seed = 0; seed < 20; seed++) {
+			BreakoutState state = TestStates.randomState(seed);
+			state.tick(0, 20);
+			BreakoutState copy = state.copy();
+			assertEquals(TestStates.describe(state), TestStates.describe(copy));
+			for (int t = 0; t < 200 && !state.isDead(); t++) {
+				int paddleDir = t / 50 % 3 - 1;
+				state.tick(paddleDir, 20);
+				copy.tick(paddleDir, 20);
+			}
+			assertEquals(TestStates.describe(state), TestStates.describe(copy));
+		}
+	}
+
+	@Test
+	void testCopyIsIndependent() {
+		BreakoutState state = TestStates.randomState(3);
+		String before = TestStates.describe(state);
+		BreakoutState copy = state.copy();
+		for (int t = 0; t < 100; t++)
+			copy.tick(1, 20);
+		assertEquals(before, TestStates.describe(state));
+	}
+
+	void assertCountsMatchCopies(BreakoutState state) {
+		assertEquals(state.getBalls().length, state.getBallCount());
+		assertEquals(state.getAlphas().length, state.getAlphaCount());
+		BlockState[] blocks = state.getBlocks();
+		assertEquals(blocks.length, state.getBlockCount());
+		for (Class<? extends BlockState> type : List.of(NormalBlockState.class, SturdyBlockState.class,
+				ReplicatorBlockState.class, PowerupBallBlockState.class)) {
+			assertEquals(Arrays.stream(blocks).filter(b -> b.getClass() == type).count(), state.getBlockCount(type));
+		}
+	}
+
+	@Test
+	void testCountersFollowTheGame() {
+		BreakoutFacade facade = new BreakoutFacade();
+		for (String map : List.of(BreakoutApplication.initMap, BreakoutApplication.initMap2)) {
+			BreakoutState state = facade.createStateFromDescription(map);
+			assertCountsMatchCopies(state);
+			for (int t = 0; t < 3000 && !state.isDead() && !state.isWon(); t++) {
+				// follow the first ball with the paddle, so the game lasts and blocks get hit
+				int ballX = state.getSnapshot().getBallX(0);
+				int paddleX = state.getPaddle().getCenter().getX();
+				int paddleDir = Integer.compare(ballX, paddleX);
+				if (paddleDir < 0)
+					state.movePaddleLeft(20);
+				else if (paddleDir > 0)
+					state.movePaddleRight(20);
+				state.tick(paddleDir, 20);
+				if (t % 50 == 0)
+					assertCountsMatchCopies(state);
+			}
+			assertCountsMatchCopies(state);
+			assertTrue(state.getBlockCount() < 40);
+		}
+	}
+
+	@Test
+	void testLinkToUnknownAlphaIsRejected() {
+		Ball ball = new NormalBall(new Circle(new Point(1000, 1000), 700), new Vector(1, 1));
+		Alpha alpha = new Alpha(new Circle(new Point(2000, 1000), 700), new Vector(1, 1));
+		ball.linkTo(alpha);
+		Alpha other = new Alpha(new Circle(new Point(3000, 1000), 700), new Vector(1, 1));
+		assertThrows(IllegalArgumentException.class,
+				() -> new BreakoutState(new Alpha[] { other }, new Ball[] { ball }, new BlockState[0], bottomRight, paddle));
+	}
+
+	@Test
+	void testLinkToAlphaWithSameContentIsAccepted() {
+		Ball ball = new NormalBall(new Circle(new Point(1000, 1000), 700), new Vector(1, 1));
+		Alpha alpha = new Alpha(new Circle(new Point(2000, 1000), 700), new Vector(1, 1));
+		ball.linkTo(alpha);
+		Alpha twin = alpha.clone();
+		BreakoutState state = new BreakoutState(new Alpha[] { twin }, new Ball[] { ball }, new BlockState[0],
+				bottomRight, paddle);
+		// links are only imported to the given alpha objects themselves
+		assertTrue(state.getBalls()[0].getAlphas().isEmpty());
+	}
+
+	@Test
+	void testLargeLinkedStateIsAccepted() {
+		int n = 20_000;
+		Ball[] balls = new Ball[n];
+		Alpha[] alphas = new Alpha[n];
+		for (int i = 0; i < n; i++) {
+			Point center = new Point(1000 + i % 400 * 100, 1000 + i / 400 * 100);
+			balls[i] = new NormalBall(new Circle(center, 100), new Vector(1, 1));
+			alphas[i] = new Alpha(new Circle(center, 100), new Vector(-1, 1));
+		}
+		for (int i = 0; i < n; i++) {
+			balls[i].linkTo(alphas[i]);
+			balls[i].linkTo(alphas[(i + 1) % n]);
+		}
+		BreakoutState state = new BreakoutState(alphas, balls, new BlockState[0], bottomRight, paddle);
+		assertEquals(n, state.getSnapshot().getBallCount());
+		assertEquals(2 * n, state.getSnapshot().getLinkCount());
+		assertEquals(2, state.getBalls()[0].getEcharge());
+	}
+
+	@Test
+	void testRandomLinksKeepCharges() {
+		Random random = new Random(9);
+		Ball[] balls = new Ball[30];
+		Alpha[] alphas = new Alpha[12];
+		for (int i = 0; i < alphas.length; i++)
+			alphas[i] = new Alpha(new Circle(new Point(1000 + i * 1000, 5000), 700), new Vector(1, 1));
+		for (int i = 0; i < balls.length; i++) {
+			balls[i] = new NormalBall(new Circle(new Point(1000 + i * 1000, 1000), 700), new Vector(1, 1));
+			balls[i].linkTo(alphas[random.nextInt(alphas.length)]);
+		}
+		BreakoutState state = new BreakoutState(alphas, balls, new BlockState[0], bottomRight, paddle);
+		for (int step = 0; step < 5000; step++) {
+			int ball = random.nextInt(balls.length);
+			int alpha = random.nextInt(alphas.length);
+			// links are made a bit more often than broken, so alphas get many balls over time
+			if (random.nextInt(5) < 3)
+				state.link(ball, alpha);
+			else
+				state.unLink(ball, alpha);
+			if (step % 1000 == 999)
+				// the copy takes the kept charges and degrees along
+				state = state.copy();
+			BalphaArrays ballArrays = state.ballArrays();
+			BalphaArrays alphaArrays = state.alphaArrays();
+			LinkStore links = state.linkStore();
+			for (int i = 0; i < balls.length; i++) {
+				assertEquals(state.chargeFromLinks(i), ballArrays.charge[i]);
+				int maxDegree = 0;
+				for (int e = ballArrays.firstLink[i]; e >= 0; e = links.nextOfBall[e])
+					maxDegree = Math.max(maxDegree, alphaArrays.linkCount[links.alpha[e]]);
+				assertEquals(maxDegree, ballArrays.maxDegree[i]);
+			}
+		}
+	}
+}
@@ -0,0 +1,169 @@
+package breakout;
+
+import java.util.Arrays;
+
+/**
+ * The predicted collision steps of the balls and alphas of a breakout state, kept in a priority queue.
+ *
+ * Steps are `period` milliseconds long and counted from when the queue was last cleared; `now` is the step
+ * the state's balls and alphas are at. Ball `i` has id `2 * i` and alpha `i` has id `2 * i + 1`. For every
+ * predicted entity the queue also remembers the velocity the prediction was based on, so a change of velocity
+ * can be noticed later on.
+ *
+ * @invar | 0 <= heapSize && heapSize <= heap.length
+ * @invar the heap holds exactly the ids with a prediction, each at its index in `heapIndex`
+ * @invar | IntStream.range(1, heapSize).allMatch(k -> steps[heap[(k - 1) / 2]] <= steps[heap[k]])
+ */
+final class CollisionQueue {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private final int period;
+	long now;
+	int ballCount;
+	int alphaCount;
+
+	private long[] steps;
+	private int[] vx;
+	private int[] vy;
+	private int[] heap;
+	private int[] heapIndex;
+	private int heapSize;
+
+	/**
+	 * @pre | period >= 1
+	 */
+	CollisionQueue(int period) {
+		this.period = period;
+		steps = new long[INITIAL_CAPACITY];
+		vx = new int[INITIAL_CAPACITY];
+		vy = new int[INITIAL_CAPACITY];
+		heap = new int[INITIAL_CAPACITY];
+		heapIndex = new int[INITIAL_CAPACITY];
+		Arrays.fill(heapIndex, -1);
+	}
+
+	/** Return the length in milliseconds of the steps of this queue. */
+	int getPeriod() {
+		return period;
+	}
+
+	static int ballId(int i) {
+		return 2 * i;
+	}
+
+	static int alphaId(int i) {
+		return 2 * i + 1;
+	}
+
+	/**
+	 * Forget all predictions and start counting steps from zero.
+	 *
+	 * @mutates | this
+	 */
+	void clear() {
+		for (int k = 0; k < heapSize; k++)
+			heapIndex[heap[k]] = -1;
+		heapSize = 0;
+		now = 0;
+		ballCount = 0;
+		alphaCount = 0;
+	}
+
+	private void ensureCapacity(int id) {
+		if (id < steps.length)
+			return;
+		int capacity = Math.max(steps.length * 2, id + 1);
+		steps = Arrays.copyOf(steps, capacity);
+		vx = Arrays.copyOf(vx, capacity);
+		vy = Arrays.copyOf(vy, capacity);
+		heap = Arrays.copyOf(heap, capacity);
+		int old = heapIndex.length;
+		heapIndex = Arrays.copyOf(heapIndex, capacity);
+		Arrays.fill(heapIndex, old, capacity, -1);
+	}
+
+	/**
+	 * Return the predicted step of entity `id`, which must have a prediction.
+	 */
+	long stepOf(int id) {
+		return steps[id];
+	}
+
+	/**
+	 * Return whether entity `id` has a prediction that was based on the given velocity.
+	 */
+	boolean hasVelocity(int id, int vx, int vy) {
+		return id < steps.length && heapIndex[id] >= 0 && this.vx[id] == vx && this.vy[id] == vy;
+	}
+
+	/**
+	 * Set the prediction of entity `id` to `step`, made for velocity (`vx`, `vy`).
+	 *
+	 * @pre | id >= 0
+	 * @mutates | this
+	 */
+	void schedule(int id, long step, int vx, int vy) {
+		ensureCapacity(id);
+		this.vx[id] = vx;
+		this.vy[id] = vy;
+		int k = heapIndex[id];
+		if (k < 0) {
+			k = heapSize++;
+			heap[k] = id;
+			heapIndex[id] = k;
+			steps[id] = step;
+			siftUp(k);
+		} else {
+			long old = steps[id];
+			steps[id] = step;
+			if (step < old)
+				siftUp(k);
+			else
+				siftDown(k);
+		}
+	}
+
+	/**
+	 * Return the earliest predicted step, or `Long.MAX_VALUE` if there are no predictions.
+	 */
+	long firstStep() {
+		return heapSize == 0 ? Long.MAX_VALUE : steps[heap[0]];
+	}
+
+	private void siftUp(int k) {
+		int id = heap[k];
+		long step = steps[id];
+		while (k > 0) {
+			int parent = (k - 1) / 2;
+			int parentId = heap[parent];
+			if (steps[parentId] <= step)
+				break;
+			heap[k] = parentId;
+			heapIndex[parentId] = k;
+			k = parent;
+		}
+		heap[k] = id;
+		heapIndex[id] = k;
+	}
+
+	private void siftDown(int k) {
+		int id = heap[k];
+		long step = steps[id];
+		while (true) {
+			int child = 2 * k + 1;
+			if (child >= heapSize)
+				break;
+			if (child + 1 < heapSize && steps[heap[child + 1]] < steps[heap[child]])
+				child++;
+			int childId = heap[child];
+			if (steps[childId] >= step)
+				break;
+			heap[k] = childId;
+			heapIndex[childId] = k;
+			k = child;
+		}
+		heap[k] = id;
+		heapIndex[id] = k;
+	}
+}
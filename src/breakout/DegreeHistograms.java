@@ -0,0 +1,190 @@
+package breakout;
+
+import java.util.Arrays;
+
+/**
+ * For each ball of a breakout state, how many of its alphas have each number of linked balls, so that the
+ * largest such number, which determines the ball's charge, is known again in logarithmic time when the
+ * alpha that had it loses a ball or is unlinked.
+ *
+ * A ball's histogram is a treap of nodes holding a degree and the number of the ball's alphas with that
+ * degree, ordered by degree, with heap priorities derived from the node index. The nodes of all balls
+ * share one pool; a ball's histogram is named by the index of its root node, -1 when it is empty. Freed
+ * nodes are kept on a free list and reused, so a steady number of links allocates nothing.
+ *
+ * @invar | 0 <= used && used <= degree.length
+ */
+final class DegreeHistograms {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private int[] degree;
+	private int[] count;
+	// the free list is chained through `left`
+	private int[] left;
+	private int[] right;
+
+	/** The number of nodes ever handed out; the ones below it that are free are chained through `left`. */
+	private int used;
+	private int firstFree = -1;
+
+	DegreeHistograms() {
+		degree = new int[INITIAL_CAPACITY];
+		count = new int[INITIAL_CAPACITY];
+		left = new int[INITIAL_CAPACITY];
+		right = new int[INITIAL_CAPACITY];
+	}
+
+	private DegreeHistograms(DegreeHistograms other) {
+		degree = other.degree.clone();
+		count = other.count.clone();
+		left = other.left.clone();
+		right = other.right.clone();
+		used = other.used;
+		firstFree = other.firstFree;
+	}
+
+	/**
+	 * Return a copy of these histograms, in which the roots of these histograms name the same histograms.
+	 *
+	 * @creates | result
+	 */
+	DegreeHistograms copy() {
+		return new DegreeHistograms(this);
+	}
+
+	/**
+	 * Make these histograms a copy of `other`, reusing the arrays when they are large enough.
+	 *
+	 * @mutates | this
+	 */
+	void copyFrom(DegreeHistograms other) {
+		while (degree.length < other.used)
+			grow();
+		used = other.used;
+		firstFree = other.firstFree;
+		System.arraycopy(other.degree, 0, degree, 0, used);
+		System.arraycopy(other.count, 0, count, 0, used);
+		System.arraycopy(other.left, 0, left, 0, used);
+		System.arraycopy(other.right, 0, right, 0, used);
+	}
+
+	/**
+	 * Forget all histograms.
+	 *
+	 * @mutates | this
+	 */
+	void clear() {
+		used = 0;
+		firstFree = -1;
+	}
+
+	private void grow() {
+		int capacity = degree.length * 2;
+		degree = Arrays.copyOf(degree, capacity);
+		count = Arrays.copyOf(count, capacity);
+		left = Arrays.copyOf(left, capacity);
+		right = Arrays.copyOf(right, capacity);
+	}
+
+	// A fixed pseudo-random priority per node index, which keeps the treaps balanced in expectation.
+	private static int priority(int node) {
+		int h = node * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * Return the largest degree in the histogram with root `root`, or 0 if it is empty.
+	 */
+	int max(int root) {
+		if (root < 0)
+			return 0;
+		while (right[root] >= 0)
+			root = right[root];
+		return degree[root];
+	}
+
+	/**
+	 * Count one more alpha with `d` balls in the histogram with root `root`, and return the histogram's new
+	 * root.
+	 *
+	 * @mutates | this
+	 */
+	int add(int root, int d) {
+		if (root < 0)
+			return newNode(d);
+		if (d == degree[root]) {
+			count[root]++;
+		} else if (d < degree[root]) {
+			int child = add(left[root], d);
+			left[root] = child;
+			if (priority(child) > priority(root)) {
+				left[root] = right[child];
+				right[child] = root;
+				return child;
+			}
+		} else {
+			int child = add(right[root], d);
+			right[root] = child;
+			if (priority(child) > priority(root)) {
+				right[root] = left[child];
+				left[child] = root;
+				return child;
+			}
+		}
+		return root;
+	}
+
+	/**
+	 * Count one alpha with `d` balls less in the histogram with root `root`, which counts at least one, and
+	 * return the histogram's new root, -1 if it is now empty.
+	 *
+	 * @mutates | this
+	 */
+	int remove(int root, int d) {
+		if (root < 0)
+			throw new AssertionError("No alpha with " + d + " balls to remove");
+		if (d < degree[root]) {
+			left[root] = remove(left[root], d);
+		} else if (d > degree[root]) {
+			right[root] = remove(right[root], d);
+		} else if (--count[root] == 0) {
+			int merged = merge(left[root], right[root]);
+			left[root] = firstFree;
+			firstFree = root;
+			return merged;
+		}
+		return root;
+	}
+
+	// Merge two treaps, all of whose degrees in `a` are smaller than those in `b`.
+	private int merge(int a, int b) {
+		if (a < 0)
+			return b;
+		if (b < 0)
+			return a;
+		if (priority(a) > priority(b)) {
+			right[a] = merge(right[a], b);
+			return a;
+		}
+		left[b] = merge(a, left[b]);
+		return b;
+	}
+
+	private int newNode(int d) {
+		int node;
+		if (firstFree >= 0) {
+			node = firstFree;
+			firstFree = left[node];
+		} else {
+			if (used == degree.length)
+				grow();
+			node = used++;
+		}
+		degree[node] = d;
+		count[node] = 1;
+		left[node] = -1;
+		right[node] = -1;
+		return node;
+	}
+}
@@ -0,0 +1,51 @@
+package breakout;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+class DegreeHistogramsTest {
+
+	@Test
+	void testRandomDegreesMatchReference() {
+		Random random = new Random(5);
+		DegreeHistograms histograms = new DegreeHistograms();
+		int[] roots = { -1, -1, -1 };
+		@SuppressWarnings("unchecked")
+		TreeMap<Integer, Integer>[] expected = new TreeMap[roots.length];
+		for (int h = 0; h < roots.length; h++)
+			expected[h] = new TreeMap<>();
+		for (int step = 0; step < 20_000; step++) {
+			int h = random.nextInt(roots.length);
+			if (expected[h].isEmpty() || random.nextInt(5) < 3) {
+				int degree = 1 + random.nextInt(40);
+				roots[h] = histograms.add(roots[h], degree);
+				expected[h].merge(degree, 1, Integer::sum);
+			} else {
+				// remove a degree that is there, often the largest one
+				int degree = random.nextBoolean() ? expected[h].lastKey()
+						: expected[h].ceilingKey(1 + random.nextInt(expected[h].lastKey()));
+				roots[h] = histograms.remove(roots[h], degree);
+				if (expected[h].merge(degree, -1, Integer::sum) == 0)
+					expected[h].remove(degree);
+			}
+			for (int k = 0; k < roots.length; k++) {
+				assertEquals(expected[k].isEmpty() ? 0 : expected[k].lastKey(), histograms.max(roots[k]));
+				assertEquals(expected[k].isEmpty(), roots[k] < 0);
+			}
+		}
+	}
+
+	@Test
+	void testCopyIsIndependent() {
+		DegreeHistograms histograms = new DegreeHistograms();
+		int root = histograms.add(histograms.add(-1, 3), 7);
+		DegreeHistograms copy = histograms.copy();
+		int copyRoot = copy.remove(root, 7);
+		assertEquals(3, copy.max(copyRoot));
+		assertEquals(7, histograms.max(root));
+	}
+}
@@ -0,0 +1,60 @@
+package breakout;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import breakout.gui.BreakoutApplication;
+
+class FastForwardTest {
+	BreakoutFacade facade = new BreakoutFacade();
+
+	@Test
+	void testFastForwardMatchesTickDuring() {
+		for (long seed = 0; seed < 20; seed++) {
+			BreakoutState forwarded = TestStates.randomState(seed);
+			BreakoutState ticked = TestStates.randomState(seed);
+			forwarded.fastForward(30007);
+			facade.tickDuring(ticked, 30007);
+			assertEquals(TestStates.describe(ticked), TestStates.describe(forwarded));
+		}
+	}
+
+	@Test
+	void testFastForwardInterleavedWithOtherMoves() {
+		// the predictions kept between calls must not survive ticks and paddle moves in between
+		for (long seed = 0; seed < 10; seed++) {
+			BreakoutState forwarded = TestStates.randomState(seed);
+			BreakoutState ticked = TestStates.randomState(seed);
+			for (int round = 0; round < 30; round++) {
+				int elapsedTime = 37 * round + (int) seed;
+				forwarded.fastForward(elapsedTime);
+				facade.tickDuring(ticked, elapsedTime);
+				switch (round % 3) {
+				case 0 -> {
+					forwarded.movePaddleLeft(10);
+					ticked.movePaddleLeft(10);
+				}
+				case 1 -> {
+					forwarded.tick(1, 15);
+					ticked.tick(1, 15);
+				}
+				default -> {
+				}
+				}
+				assertEquals(TestStates.describe(ticked), TestStates.describe(forwarded));
+			}
+		}
+	}
+
+	@Test
+	void testFastForwardLevel() {
+		BreakoutState forwarded = facade.createStateFromDescription(BreakoutApplication.initMap2);
+		BreakoutState ticked = facade.createStateFromDescription(BreakoutApplication.initMap2);
+		for (int i = 0; i < 60; i++) {
+			facade.fastForward(forwarded, 1000);
+			facade.tickDuring(ticked, 1000);
+			assertEquals(TestStates.describe(ticked), TestStates.describe(forwarded));
+		}
+	}
+}
@@ -0,0 +1,203 @@
+package breakout;
+
+import java.util.Arrays;
+
+/**
+ * The links between the balls and the alphas of a breakout state, as one edge list.
+ *
+ * Edge `e` links ball `ball[e]` to alpha `alpha[e]`. The edges of a ball form a doubly linked list through
+ * `nextOfBall` and `prevOfBall` that starts at `balls.firstLink[b]`, and likewise for alphas, so the links of
+ * an entity can be walked, and a link removed, without allocating. Removed edges are kept on a free list and
+ * reused by later links.
+ *
+ * @invar | balls != null && alphas != null
+ * @invar | 0 <= used && used <= ball.length
+ * @invar every edge below `used` is either on the free list, with `ball[e] == -1`, or on the lists of its
+ *        ball and its alpha
+ */
+final class LinkStore {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private final BalphaArrays balls;
+	private final BalphaArrays alphas;
+
+	int[] ball;
+	int[] alpha;
+	int[] nextOfBall;
+	int[] prevOfBall;
+	int[] nextOfAlpha;
+	int[] prevOfAlpha;
+
+	/** The number of edges ever handed out; the ones below it that are free are chained through `nextOfBall`. */
+	private int used;
+	private int firstFree = -1;
+
+	LinkStore(BalphaArrays balls, BalphaArrays alphas) {
+		this.balls = balls;
+		this.alphas = alphas;
+		ball = new int[INITIAL_CAPACITY];
+		alpha = new int[INITIAL_CAPACITY];
+		nextOfBall = new int[INITIAL_CAPACITY];
+		prevOfBall = new int[INITIAL_CAPACITY];
+		nextOfAlpha = new int[INITIAL_CAPACITY];
+		prevOfAlpha = new int[INITIAL_CAPACITY];
+	}
+
+	private LinkStore(LinkStore other, BalphaArrays balls, BalphaArrays alphas) {
+		this.balls = balls;
+		this.alphas = alphas;
+		ball = other.ball.clone();
+		alpha = other.alpha.clone();
+		nextOfBall = other.nextOfBall.clone();
+		prevOfBall = other.prevOfBall.clone();
+		nextOfAlpha = other.nextOfAlpha.clone();
+		prevOfAlpha = other.prevOfAlpha.clone();
+		used = other.used;
+		firstFree = other.firstFree;
+	}
+
+	/**
+	 * Return a copy of this store for the given copies of its balls and alphas.
+	 *
+	 * @creates | result
+	 */
+	LinkStore copy(BalphaArrays balls, BalphaArrays alphas) {
+		return new LinkStore(this, balls, alphas);
+	}
+
+	/**
+	 * Make this store a copy of `other`, reusing its arrays when they are large enough. This store's balls
+	 * and alphas must be copies of those of `other`.
+	 *
+	 * @mutates | this
+	 */
+	void copyFrom(LinkStore other) {
+		while (ball.length < other.used)
+			grow();
+		used = other.used;
+		firstFree = other.firstFree;
+		System.arraycopy(other.ball, 0, ball, 0, used);
+		System.arraycopy(other.alpha, 0, alpha, 0, used);
+		System.arraycopy(other.nextOfBall, 0, nextOfBall, 0, used);
+		System.arraycopy(other.prevOfBall, 0, prevOfBall, 0, used);
+		System.arraycopy(other.nextOfAlpha, 0, nextOfAlpha, 0, used);
+		System.arraycopy(other.prevOfAlpha, 0, prevOfAlpha, 0, used);
+	}
+
+	private void grow() {
+		int capacity = ball.length * 2;
+		ball = Arrays.copyOf(ball, capacity);
+		alpha = Arrays.copyOf(alpha, capacity);
+		nextOfBall = Arrays.copyOf(nextOfBall, capacity);
+		prevOfBall = Arrays.copyOf(prevOfBall, capacity);
+		nextOfAlpha = Arrays.copyOf(nextOfAlpha, capacity);
+		prevOfAlpha = Arrays.copyOf(prevOfAlpha, capacity);
+	}
+
+	/**
+	 * Return the edge linking ball `b` to alpha `a`, or -1 if they are not linked.
+	 * Walks the shorter of the two lists.
+	 */
+	int find(int b, int a) {
+		if (balls.linkCount[b] <= alphas.linkCount[a]) {
+			for (int e = balls.firstLink[b]; e >= 0; e = nextOfBall[e]) {
+				if (alpha[e] == a)
+					return e;
+			}
+		} else {
+			for (int e = alphas.firstLink[a]; e >= 0; e = nextOfAlpha[e]) {
+				if (ball[e] == b)
+					return e;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Link ball `b` to alpha `a`, which must not be linked yet, and return the new edge.
+	 *
+	 * @mutates | this, balls, alphas
+	 */
+	int add(int b, int a) {
+		int e;
+		if (firstFree >= 0) {
+			e = firstFree;
+			firstFree = nextOfBall[e];
+		} else {
+			if (used == ball.length)
+				grow();
+			e = used++;
+		}
+		ball[e] = b;
+		alpha[e] = a;
+
+		int next = balls.firstLink[b];
+		nextOfBall[e] = next;
+		prevOfBall[e] = -1;
+		if (next >= 0)
+			prevOfBall[next] = e;
+		balls.firstLink[b] = e;
+		balls.linkCount[b]++;
+
+		next = alphas.firstLink[a];
+		nextOfAlpha[e] = next;
+		prevOfAlpha[e] = -1;
+		if (next >= 0)
+			prevOfAlpha[next] = e;
+		alphas.firstLink[a] = e;
+		alphas.linkCount[a]++;
+		return e;
+	}
+
+	/**
+	 * Remove edge `e` from the lists of its ball and alpha and put it on the free list.
+	 *
+	 * @mutates | this, balls, alphas
+	 */
+	void remove(int e) {
+		int b = ball[e];
+		int a = alpha[e];
+
+		int prev = prevOfBall[e];
+		int next = nextOfBall[e];
+		if (prev >= 0)
+			nextOfBall[prev] = next;
+		else
+			balls.firstLink[b] = next;
+		if (next >= 0)
+			prevOfBall[next] = prev;
+		balls.linkCount[b]--;
+
+		prev = prevOfAlpha[e];
+		next = nextOfAlpha[e];
+		if (prev >= 0)
+			nextOfAlpha[prev] = next;
+		else
+			alphas.firstLink[a] = next;
+		if (next >= 0)
+			prevOfAlpha[next] = prev;
+		alphas.linkCount[a]--;
+
+		ball[e] = -1;
+		nextOfBall[e] = firstFree;
+		firstFree = e;
+	}
+
+	/**
+	 * Rewrite the endpoints of every edge after the balls and/or the alphas have been compacted.
+	 * A null array means that side did not move.
+	 *
+	 * @mutates | this
+	 */
+	void remap(int[] ballNewIndex, int[] alphaNewIndex) {
+		for (int e = 0; e < used; e++) {
+			if (ball[e] < 0)
+				continue;
+			if (ballNewIndex != null)
+				ball[e] = ballNewIndex[ball[e]];
+			if (alphaNewIndex != null)
+				alpha[e] = alphaNewIndex[alpha[e]];
+		}
+	}
+}
@@ -0,0 +1,125 @@
+package breakout;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LinkStoreTest {
+	Random random;
+	BalphaArrays balls;
+	BalphaArrays alphas;
+	LinkStore links;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		random = new Random(42);
+		balls = new BalphaArrays(1);
+		alphas = new BalphaArrays(1);
+		links = new LinkStore(balls, alphas);
+	}
+
+	static long pair(int ball, int alpha) {
+		return (long) ball << 32 | alpha;
+	}
+
+	void assertLinksMatch(Set<Long> expected) {
+		Set<Long> fromBalls = new HashSet<>();
+		for (int b = 0; b < balls.size; b++) {
+			int count = 0;
+			for (int e = balls.firstLink[b]; e >= 0; e = links.nextOfBall[e]) {
+				assertEquals(b, links.ball[e]);
+				fromBalls.add(pair(b, links.alpha[e]));
+				count++;
+			}
+			assertEquals(count, balls.linkCount[b]);
+		}
+		Set<Long> fromAlphas = new HashSet<>();
+		for (int a = 0; a < alphas.size; a++) {
+			int count = 0;
+			for (int e = alphas.firstLink[a]; e >= 0; e = links.nextOfAlpha[e]) {
+				assertEquals(a, links.alpha[e]);
+				fromAlphas.add(pair(links.ball[e], a));
+				count++;
+			}
+			assertEquals(count, alphas.linkCount[a]);
+		}
+		assertEquals(expected, fromBalls);
+		assertEquals(expected, fromAlphas);
+	}
+
+	@Test
+	void testRandomLinksMatchReference() {
+		for (int i = 0; i < 50; i++) {
+			balls.add(BalphaArrays.NORMAL_BALL, 0, 0, 100, 0, 0, 0);
+			alphas.add(BalphaArrays.ALPHA, 0, 0, 100, 0, 0, 0);
+		}
+		Set<Long> expected = new HashSet<>();
+		for (int step = 0; step < 20_000; step++) {
+			int b = random.nextInt(balls.size);
+			int a = random.nextInt(alphas.size);
+			int e = links.find(b, a);
+			assertEquals(expected.contains(pair(b, a)), e >= 0);
+			if (e >= 0) {
+				links.remove(e);
+				expected.remove(pair(b, a));
+			} else {
+				links.add(b, a);
+				expected.add(pair(b, a));
+			}
+		}
+		assertLinksMatch(expected);
+	}
+
+	@Test
+	void testRemapAfterCompact() {
+		for (int i = 0; i < 40; i++) {
+			balls.add(BalphaArrays.NORMAL_BALL, i, 0, 100, 0, 0, 0);
+			alphas.add(BalphaArrays.ALPHA, i, 0, 100, 0, 0, 0);
+		}
+		for (int step = 0; step < 400; step++) {
+			int b = random.nextInt(balls.size);
+			int a = random.nextInt(alphas.size);
+			if (links.find(b, a) < 0)
+				links.add(b, a);
+		}
+		// drop every third ball and every fourth alpha, after unlinking them
+		for (int b = 0; b < balls.size; b += 3) {
+			while (balls.firstLink[b] >= 0)
+				links.remove(balls.firstLink[b]);
+			balls.kind[b] = BalphaArrays.REMOVED;
+		}
+		for (int a = 0; a < alphas.size; a += 4) {
+			while (alphas.firstLink[a] >= 0)
+				links.remove(alphas.firstLink[a]);
+			alphas.kind[a] = BalphaArrays.REMOVED;
+		}
+		// the x coordinates remember the original indices
+		Set<Long> expected = new HashSet<>();
+		for (int b = 0; b < balls.size; b++) {
+			for (int e = balls.firstLink[b]; e >= 0; e = links.nextOfBall[e])
+				expected.add(pair(balls.x[b], alphas.x[links.alpha[e]]));
+		}
+		assertTrue(balls.compact());
+		assertTrue(alphas.compact());
+		links.remap(balls.newIndex, alphas.newIndex);
+
+		Set<Long> actual = new HashSet<>();
+		for (int b = 0; b < balls.size; b++) {
+			for (int e = balls.firstLink[b]; e >= 0; e = links.nextOfBall[e])
+				actual.add(pair(balls.x[b], alphas.x[links.alpha[e]]));
+		}
+		assertEquals(expected, actual);
+
+		Set<Long> remapped = new HashSet<>();
+		for (int b = 0; b < balls.size; b++) {
+			for (int e = balls.firstLink[b]; e >= 0; e = links.nextOfBall[e])
+				remapped.add(pair(b, links.alpha[e]));
+		}
+		assertLinksMatch(remapped);
+	}
+}
@@ -10,7 +10,7 @@ import breakout.utils.Vector;
 
 public class NormalBall extends Ball {
 
-	private static final Color BALL_COLOR = Color.yellow;
+	static final Color BALL_COLOR = Color.yellow;
 
 	public NormalBall(Circle location, Vector velocity) {
 		super(location, velocity);
@@ -3,6 +3,8 @@ package breakout;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.awt.Color;
+import java.util.Random;
+import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -59,6 +61,67 @@ class NormalBallTest {
 		b1.unLink(a);
 		assertEquals(b2.getEcharge(), -1);
 	}
+	
+	// The charge as the Ball invariant defines it, computed from scratch.
+	static int recomputedEcharge(Ball ball) {
+		Set<Alpha> alphas = ball.getAlphas();
+		int charge = alphas.stream().mapToInt(a -> a.getBalls().size()).max().orElse(1);
+		return alphas.size() % 2 == 0 ? charge : -charge;
+	}
+	
+	@Test
+	void testRandomLinksKeepEcharge() {
+		Random random = new Random(3);
+		Ball[] balls = new Ball[30];
+		for (int i = 0; i < balls.length; i++)
+			balls[i] = i % 2 == 0 ? b1.clone() : new SuperChargedBall(c389, v1010, 100);
+		Alpha[] alphas = new Alpha[12];
+		for (int i = 0; i < alphas.length; i++)
+			alphas[i] = new Alpha(c052, v1010);
+		for (int step = 0; step < 5000; step++) {
+			Ball ball = balls[random.nextInt(balls.length)];
+			Alpha alpha = alphas[random.nextInt(alphas.length)];
+			// links are made a bit more often than broken, so alphas get many balls over time
+			if (random.nextInt(5) < 3)
+				ball.linkTo(alpha);
+			else
+				ball.unLink(alpha);
+			for (Ball b : balls)
+				assertEquals(recomputedEcharge(b), b.getEcharge());
+		}
+	}
+
+	@Test
+	void testLinkAllMatchesLinkTo() {
+		Random random = new Random(4);
+		Ball[] balls = new Ball[30];
+		Ball[] expected = new Ball[balls.length];
+		for (int i = 0; i < balls.length; i++) {
+			balls[i] = b1.clone();
+			expected[i] = b1.clone();
+		}
+		Alpha[] alphas = new Alpha[12];
+		Alpha[] expectedAlphas = new Alpha[alphas.length];
+		for (int i = 0; i < alphas.length; i++) {
+			alphas[i] = new Alpha(c052, v1010);
+			expectedAlphas[i] = new Alpha(c052, v1010);
+		}
+		// repeated pairs are allowed, as with linkTo
+		int[] ballIndices = new int[200];
+		int[] alphaIndices = new int[ballIndices.length];
+		for (int k = 0; k < ballIndices.length; k++) {
+			ballIndices[k] = random.nextInt(balls.length);
+			alphaIndices[k] = random.nextInt(alphas.length);
+			expected[ballIndices[k]].linkTo(expectedAlphas[alphaIndices[k]]);
+		}
+		Ball.linkAll(balls, alphas, ballIndices, alphaIndices);
+		for (int i = 0; i < balls.length; i++) {
+			assertEquals(expected[i].getEcharge(), balls[i].getEcharge());
+			assertEquals(expected[i].getAlphas().size(), balls[i].getAlphas().size());
+		}
+		for (int j = 0; j < alphas.length; j++)
+			assertEquals(expectedAlphas[j].getBalls().size(), alphas[j].getBalls().size());
+	}
 
 	@Test
 	void testBounceOn() {
@@ -0,0 +1,50 @@
+package breakout;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Runs a body for every index of a range on a `ForkJoinPool`, splitting the range in halves down to
+ * chunks of at most `grain` indices. The body must not touch state that the body for another index
+ * touches; when `run` returns, all its effects are visible to the caller.
+ */
+@SuppressWarnings("serial")
+final class ParallelRange extends RecursiveAction {
+
+	private final IntConsumer body;
+	private final int from;
+	private final int to;
+	private final int grain;
+
+	private ParallelRange(IntConsumer body, int from, int to, int grain) {
+		this.body = body;
+		this.from = from;
+		this.to = to;
+		this.grain = grain;
+	}
+
+	/**
+	 * Call `body` for every index in `0 .. size - 1`, in parallel on `pool`.
+	 *
+	 * @pre | pool != null
+	 * @pre | body != null
+	 * @pre | size >= 0
+	 * @pre | grain >= 1
+	 */
+	static void run(ForkJoinPool pool, int size, int grain, IntConsumer body) {
+		pool.invoke(new ParallelRange(body, 0, size, grain));
+	}
+
+	@Override
+	protected void compute() {
+		if (to - from <= grain) {
+			for (int i = from; i < to; i++) {
+				body.accept(i);
+			}
+		} else {
+			int middle = (from + to) >>> 1;
+			invokeAll(new ParallelRange(body, from, middle, grain), new ParallelRange(body, middle, to, grain));
+		}
+	}
+}
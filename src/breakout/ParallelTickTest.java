@@ -0,0 +1,55 @@
+package breakout;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ParallelTickTest {
+	static final int BALLS = BreakoutState.PARALLEL_THRESHOLD + 1000;
+
+	ForkJoinPool pool;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		pool = new ForkJoinPool(4);
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		pool.shutdown();
+	}
+
+	@Test
+	void testParallelTickMatchesSequentialTick() {
+		for (long seed = 0; seed < 3; seed++) {
+			BreakoutState sequential = TestStates.crowdedState(seed, BALLS);
+			BreakoutState parallel = TestStates.crowdedState(seed, BALLS);
+			parallel.setTickPool(pool);
+			for (int i = 0; i < 40; i++) {
+				int paddleDir = i % 3 - 1;
+				sequential.tick(paddleDir, 20);
+				parallel.tick(paddleDir, 20);
+			}
+			assertTrue(sequential.getBlocks().length < 300);
+			assertEquals(TestStates.describe(sequential), TestStates.describe(parallel));
+		}
+	}
+
+	@Test
+	void testSwitchingBackToSequential() {
+		BreakoutState sequential = TestStates.crowdedState(5, BALLS);
+		BreakoutState switched = TestStates.crowdedState(5, BALLS);
+		switched.setTickPool(pool);
+		for (int i = 0; i < 20; i++) {
+			if (i == 10)
+				switched.setTickPool(null);
+			sequential.tick(0, 20);
+			switched.tick(0, 20);
+		}
+		assertEquals(TestStates.describe(sequential), TestStates.describe(switched));
+	}
+}
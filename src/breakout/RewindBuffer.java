@@ -0,0 +1,195 @@
+package breakout;
+
+import java.util.Arrays;
+
+import breakout.utils.Point;
+
+/**
+ * Checkpoints of the states of a game at its most recent ticks, so that a game whose input for an earlier
+ * tick turns out to be wrong, as happens in rollback-based online play when a remote player's input
+ * arrives late, can go back to that tick and play the ticks since again with the corrected input.
+ *
+ * The checkpoint of tick `t` is the state before the frame of tick `t` is played. Checkpoints are kept
+ * in a ring of `getCapacity()` slots whose storage is allocated once and reused, so saving a checkpoint of
+ * a state that does not grow allocates nothing. Each frame is played the way `GameView` plays it: first
+ * the paddle is moved, then the state is ticked with the same paddle direction.
+ *
+ * @invar | getCapacity() >= 1
+ * @invar | 0 <= getSize() && getSize() <= getCapacity()
+ * @invar | getSize() == 0 || getNewestTick() - getOldestTick() == getSize() - 1
+ */
+public final class RewindBuffer {
+
+	private static final class Checkpoint {
+		final BalphaArrays balls = new BalphaArrays(0);
+		final BalphaArrays alphas = new BalphaArrays(0);
+		final LinkStore links = new LinkStore(balls, alphas);
+		BlockState[] blocks = new BlockState[0];
+		int blockCount;
+		Point bottomRight;
+		PaddleState paddle;
+
+		void save(BreakoutState state) {
+			balls.copyFrom(state.ballArrays());
+			alphas.copyFrom(state.alphaArrays());
+			links.copyFrom(state.linkStore());
+			if (blocks.length < state.getBlockCount())
+				blocks = new BlockState[state.getBlockCount()];
+			int oldBlockCount = blockCount;
+			blockCount = state.copyBlocksInto(blocks);
+			// let go of the blocks of the earlier checkpoint, so they can be collected
+			if (blockCount < oldBlockCount)
+				Arrays.fill(blocks, blockCount, oldBlockCount, null);
+			bottomRight = state.getBottomRight();
+			paddle = state.getPaddle();
+		}
+
+		BreakoutState restore() {
+			BalphaArrays ballsCopy = balls.copy();
+			BalphaArrays alphasCopy = alphas.copy();
+			return BreakoutState.fromCopies(bottomRight, alphasCopy, ballsCopy, links.copy(ballsCopy, alphasCopy),
+					Arrays.copyOf(blocks, blockCount), paddle);
+		}
+	}
+
+	/**
+	 * @invar | checkpoints != null && checkpoints.length >= 1
+	 * @representationObject
+	 */
+	private final Checkpoint[] checkpoints;
+	/**
+	 * The tick of the newest checkpoint, which is kept in slot `newestTick % checkpoints.length`.
+	 */
+	private long newestTick = -1;
+	private int size;
+
+	/**
+	 * Initialize this buffer to keep the checkpoints of the last `capacity` ticks.
+	 *
+	 * @throws IllegalArgumentException | capacity < 1
+	 * @post | getCapacity() == capacity
+	 * @post | getSize() == 0
+	 */
+	public RewindBuffer(int capacity) {
+		if (capacity < 1)
+			throw new IllegalArgumentException("The capacity must be at least 1");
+		checkpoints = new Checkpoint[capacity];
+		for (int i = 0; i < capacity; i++) {
+			checkpoints[i] = new Checkpoint();
+		}
+	}
+
+	/** Return the number of checkpoints this buffer can keep. */
+	public int getCapacity() {
+		return checkpoints.length;
+	}
+
+	/** Return the number of checkpoints this buffer keeps. */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Return the tick of the newest checkpoint.
+	 *
+	 * @throws IllegalStateException | getSize() == 0
+	 */
+	public long getNewestTick() {
+		if (size == 0)
+			throw new IllegalStateException("The buffer is empty");
+		return newestTick;
+	}
+
+	/**
+	 * Return the tick of the oldest checkpoint, the earliest tick that can be rolled back to.
+	 *
+	 * @throws IllegalStateException | getSize() == 0
+	 */
+	public long getOldestTick() {
+		if (size == 0)
+			throw new IllegalStateException("The buffer is empty");
+		return newestTick - size + 1;
+	}
+
+	private Checkpoint slot(long tick) {
+		return checkpoints[(int) (tick % checkpoints.length)];
+	}
+
+	/**
+	 * Save a checkpoint of `state` as the state before the frame of tick `tick` is played, dropping the
+	 * oldest checkpoint if the buffer is full.
+	 *
+	 * @throws IllegalArgumentException | state == null
+	 * @throws IllegalArgumentException | tick < 0
+	 * @throws IllegalArgumentException | getSize() > 0 && tick != getNewestTick() + 1
+	 * @inspects | state
+	 * @mutates | this
+	 * @post | getNewestTick() == tick
+	 * @post | getSize() == Math.min(old(getSize()) + 1, getCapacity())
+	 */
+	public void save(long tick, BreakoutState state) {
+		if (state == null)
+			throw new IllegalArgumentException("The state must not be null");
+		if (tick < 0)
+			throw new IllegalArgumentException("Ticks must not be negative");
+		if (size > 0 && tick != newestTick + 1)
+			throw new IllegalArgumentException("Checkpoints must be saved for consecutive ticks");
+		slot(tick).save(state);
+		newestTick = tick;
+		if (size < checkpoints.length)
+			size++;
+	}
+
+	/**
+	 * Return a new state equal to the checkpoint of tick `tick`, and drop the checkpoints of the later
+	 * ticks, which no longer hold once the game goes on from there. The checkpoint of `tick` itself is kept.
+	 * The returned state ticks sequentially.
+	 *
+	 * @throws IllegalArgumentException | getSize() == 0 || tick < getOldestTick() || getNewestTick() < tick
+	 * @mutates | this
+	 * @creates | result
+	 * @post | getNewestTick() == tick
+	 */
+	public BreakoutState rollbackTo(long tick) {
+		if (size == 0 || tick < newestTick - size + 1 || newestTick < tick)
+			throw new IllegalArgumentException("No checkpoint for tick " + tick);
+		size -= (int) (newestTick - tick);
+		newestTick = tick;
+		return slot(tick).restore();
+	}
+
+	/**
+	 * Roll back to tick `tick`, play the given frames from there, saving a checkpoint before each of them
+	 * but the first, and return the resulting state, which is the state before the frame of tick
+	 * `tick + paddleDirs.length` is played. All frames are played, even if the game is won or lost on the
+	 * way, so the checkpoints keep following the ticks.
+	 *
+	 * @throws IllegalArgumentException | getSize() == 0 || tick < getOldestTick() || getNewestTick() < tick
+	 * @throws IllegalArgumentException | paddleDirs == null || elapsedTimes == null
+	 * @throws IllegalArgumentException | paddleDirs.length != elapsedTimes.length
+	 * @pre | Arrays.stream(paddleDirs).allMatch(d -> -1 <= d && d <= 1)
+	 * @pre | Arrays.stream(elapsedTimes).allMatch(t -> 0 <= t && t <= BreakoutState.MAX_ELAPSED_TIME)
+	 * @mutates | this
+	 * @creates | result
+	 * @post | getNewestTick() == tick + Math.max(paddleDirs.length - 1, 0)
+	 */
+	public BreakoutState resimulate(long tick, int[] paddleDirs, int[] elapsedTimes) {
+		if (paddleDirs == null || elapsedTimes == null)
+			throw new IllegalArgumentException("The inputs must not be null");
+		if (paddleDirs.length != elapsedTimes.length)
+			throw new IllegalArgumentException("There must be as many paddle directions as elapsed times");
+		BreakoutState state = rollbackTo(tick);
+		for (int i = 0; i < paddleDirs.length; i++) {
+			if (i > 0)
+				save(tick + i, state);
+			int paddleDir = paddleDirs[i];
+			if (paddleDir < 0) {
+				state.movePaddleLeft(elapsedTimes[i]);
+			} else if (paddleDir > 0) {
+				state.movePaddleRight(elapsedTimes[i]);
+			}
+			state.tick(paddleDir, elapsedTimes[i]);
+		}
+		return state;
+	}
+}
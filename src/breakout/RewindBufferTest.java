@@ -0,0 +1,97 @@
+package breakout;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class RewindBufferTest {
+
+	@Test
+	void testRollbackRestoresEachCheckpoint() {
+		BreakoutState state = TestStates.randomState(4);
+		RewindBuffer buffer = new RewindBuffer(16);
+		List<String> described = new ArrayList<>();
+		Random random = new Random(4);
+		for (int t = 0; t < 100; t++) {
+			buffer.save(t, state);
+			described.add(TestStates.describe(state));
+			TestStates.play(state, random.nextInt(3) - 1, 20);
+		}
+		assertEquals(16, buffer.getSize());
+		assertEquals(84, buffer.getOldestTick());
+		assertEquals(99, buffer.getNewestTick());
+		for (int t = 99; t >= 84; t -= 5) {
+			assertEquals(described.get(t), TestStates.describe(buffer.rollbackTo(t)));
+			assertEquals(t, buffer.getNewestTick());
+		}
+		assertThrows(IllegalArgumentException.class, () -> buffer.rollbackTo(83));
+		assertThrows(IllegalArgumentException.class, () -> buffer.rollbackTo(90));
+	}
+
+	@Test
+	void testResimulateMatchesPlayingTheCorrectedInput() {
+		for (long seed = 0; seed < 10; seed++) {
+			Random random = new Random(seed);
+			BreakoutState state = TestStates.randomState(seed);
+			BreakoutState corrected = state.copy();
+			RewindBuffer buffer = new RewindBuffer(8);
+			int[] paddleDirs = new int[8];
+			int[] elapsedTimes = new int[8];
+			for (int t = 0; t < 40; t++) {
+				int paddleDir = random.nextInt(3) - 1;
+				int elapsedTime = 10 + random.nextInt(30);
+				buffer.save(t, state);
+				// the input for the last eight ticks arrives late: meanwhile, the paddle is guessed to stand still
+				TestStates.play(state, t < 32 ? paddleDir : 0, elapsedTime);
+				TestStates.play(corrected, paddleDir, elapsedTime);
+				if (t >= 32) {
+					paddleDirs[t - 32] = paddleDir;
+					elapsedTimes[t - 32] = elapsedTime;
+				}
+			}
+			state = buffer.resimulate(32, paddleDirs, elapsedTimes);
+			assertEquals(TestStates.describe(corrected), TestStates.describe(state));
+			assertEquals(39, buffer.getNewestTick());
+			buffer.save(40, state);
+		}
+	}
+
+	@Test
+	void testSavingAllocatesNothing() throws Exception {
+		TickAllocationTest steady = new TickAllocationTest();
+		steady.setUp();
+		BreakoutState state = steady.state;
+		RewindBuffer buffer = new RewindBuffer(8);
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long thread = Thread.currentThread().getId();
+		int t = 0;
+		for (; t < 20000; t++) {
+			buffer.save(t, state);
+			state.tick(0, 20);
+		}
+		threads.getThreadAllocatedBytes(thread);
+		long before = threads.getThreadAllocatedBytes(thread);
+		for (; t < 30000; t++) {
+			buffer.save(t, state);
+			state.tick(0, 20);
+		}
+		assertEquals(0, threads.getThreadAllocatedBytes(thread) - before);
+	}
+
+	@Test
+	void testBadArguments() {
+		assertThrows(IllegalArgumentException.class, () -> new RewindBuffer(0));
+		RewindBuffer buffer = new RewindBuffer(4);
+		assertThrows(IllegalStateException.class, () -> buffer.getNewestTick());
+		assertThrows(IllegalArgumentException.class, () -> buffer.rollbackTo(0));
+		BreakoutState state = TestStates.randomState(1);
+		buffer.save(5, state);
+		assertThrows(IllegalArgumentException.class, () -> buffer.save(7, state));
+		assertThrows(IllegalArgumentException.class, () -> buffer.resimulate(5, new int[1], new int[2]));
+	}
+}
@@ -0,0 +1,261 @@
+package breakout;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import breakout.utils.Point;
+import breakout.utils.Rect;
+
+/**
+ * Follows the states of a game from the frames a `StateDeltaEncoder` wrote for them. Decoding starts at
+ * the first keyframe; a decoder that joins a stream late skips the delta frames before it.
+ *
+ * The decoder checks each frame as it applies it, so a corrupt or hostile stream cannot make it describe
+ * an invalid state.
+ */
+public final class StateDeltaDecoder {
+
+	private StreamFrame previous = new StreamFrame();
+	private StreamFrame current = new StreamFrame();
+	private boolean[] removed = new boolean[16];
+	private boolean started;
+
+	/**
+	 * Return whether a keyframe has been decoded, so that the decoder knows the state of the game.
+	 */
+	public boolean hasState() {
+		return started;
+	}
+
+	/**
+	 * Read a frame from `in`, starting at its position, and advance the position past it. Return false if
+	 * the frame was skipped because it is a delta frame and no keyframe has been decoded yet.
+	 *
+	 * @throws IllegalArgumentException | in == null
+	 * @throws IllegalArgumentException if the buffer does not hold a valid frame for the frames decoded
+	 *         before; the decoder then waits for the next keyframe
+	 * @mutates | this, in
+	 */
+	public boolean decode(ByteBuffer in) {
+		if (in == null)
+			throw new IllegalArgumentException("The buffer must not be null");
+		try {
+			int type = in.get();
+			if (type == StateDeltaEncoder.KEYFRAME) {
+				Point bottomRight = new Point(StreamFrame.getVarInt(in), StreamFrame.getVarInt(in));
+				int blockSlots = StreamFrame.getVarInt(in);
+				check(bottomRight.getX() >= 0 && bottomRight.getY() >= 0, "bad field");
+				check(blockSlots >= 0 && blockSlots <= in.remaining(), "bad number of block slots");
+				previous.clear(bottomRight, blockSlots);
+			} else {
+				check(type == StateDeltaEncoder.DELTA, "bad frame type");
+				if (!started)
+					return false;
+			}
+			readFrame(in, type == StateDeltaEncoder.KEYFRAME);
+		} catch (IllegalArgumentException | BufferUnderflowException e) {
+			started = false;
+			if (e instanceof BufferUnderflowException)
+				throw new IllegalArgumentException("Corrupt frame: cut off", e);
+			throw e;
+		}
+		StreamFrame swap = previous;
+		previous = current;
+		current = swap;
+		started = true;
+		return true;
+	}
+
+	private static void check(boolean condition, String message) {
+		if (!condition)
+			throw new IllegalArgumentException("Corrupt frame: " + message);
+	}
+
+	private void readFrame(ByteBuffer in, boolean keyframe) {
+		StreamFrame prev = previous;
+		StreamFrame cur = current;
+		int width = prev.bottomRight.getX();
+		int height = prev.bottomRight.getY();
+		cur.bottomRight = prev.bottomRight;
+		Rect field = new Rect(Point.ORIGIN, prev.bottomRight);
+
+		if (in.get() != 0) {
+			int type = in.get();
+			int x = (prev.paddle == null ? 0 : prev.paddle.getCenter().getX()) + StreamFrame.getSignedVarInt(in);
+			int y = (prev.paddle == null ? 0 : prev.paddle.getCenter().getY()) + StreamFrame.getSignedVarInt(in);
+			cur.paddle = BinarySnapshot.newPaddle(type, new Point(x, y), StreamFrame.getVarInt(in));
+			check(cur.paddle != null, "bad paddle");
+			check(field.contains(cur.paddle.getLocation()), "paddle outside the field");
+		} else {
+			check(!keyframe, "keyframe without a paddle");
+			cur.paddle = prev.paddle;
+		}
+
+		if (cur.blocks.length != prev.blocks.length)
+			cur.blocks = new BlockState[prev.blocks.length];
+		System.arraycopy(prev.blocks, 0, cur.blocks, 0, prev.blocks.length);
+		int slot = -1;
+		for (int gap = StreamFrame.getVarInt(in); gap != 0; gap = StreamFrame.getVarInt(in)) {
+			check(gap > 0 && gap < cur.blocks.length - slot, "bad block slot");
+			slot += gap;
+			int type = in.get();
+			if (type == 0) {
+				cur.blocks[slot] = null;
+				continue;
+			}
+			Point topLeft = new Point(StreamFrame.getVarInt(in), StreamFrame.getVarInt(in));
+			Point bottomRight = new Point(StreamFrame.getVarInt(in), StreamFrame.getVarInt(in));
+			int lives = StreamFrame.getVarInt(in);
+			check(topLeft.isUpAndLeftFrom(bottomRight), "bad block");
+			Rect location = new Rect(topLeft, bottomRight);
+			check(field.contains(location), "block outside the field");
+			cur.blocks[slot] = BinarySnapshot.newBlock(type - 1, location, lives);
+			check(cur.blocks[slot] != null, "bad block");
+		}
+
+		readEntities(in, prev, prev.alphas, cur, cur.alphas, width, height);
+		readEntities(in, prev, prev.balls, cur, cur.balls, width, height);
+	}
+
+	private void readEntities(ByteBuffer in, StreamFrame prevFrame, BalphaArrays p, StreamFrame curFrame,
+			BalphaArrays c, int width, int height) {
+		boolean balls = p == prevFrame.balls;
+		if (removed.length < p.size)
+			removed = new boolean[Math.max(p.size, removed.length * 2)];
+		Arrays.fill(removed, 0, p.size, false);
+		int removedCount = 0;
+		int index = -1;
+		for (int gap = StreamFrame.getVarInt(in); gap != 0; gap = StreamFrame.getVarInt(in)) {
+			check(gap > 0 && gap < p.size - index, "bad removed index");
+			index += gap;
+			removed[index] = true;
+			removedCount++;
+		}
+
+		c.size = 0;
+		int links = 0;
+		if (balls) {
+			curFrame.ensureLinkCapacity(p.size - removedCount, 0);
+			curFrame.linkStart[0] = 0;
+		}
+		for (int i = 0; i < p.size; i++) {
+			if (removed[i])
+				continue;
+			int flags = in.get();
+			check((flags & ~(balls ? 0x3F : 0x07)) == 0, "bad flags");
+			int x = p.x[i];
+			int y = p.y[i];
+			int vx = p.vx[i];
+			int vy = p.vy[i];
+			int diameter = p.diameter[i];
+			int lifetime = p.lifetime[i];
+			byte kind = p.kind[i];
+			if ((flags & StateDeltaEncoder.MOVED) != 0) {
+				x += StreamFrame.getSignedVarInt(in);
+				y += StreamFrame.getSignedVarInt(in);
+			}
+			if ((flags & StateDeltaEncoder.VELOCITY) != 0) {
+				vx += StreamFrame.getSignedVarInt(in);
+				vy += StreamFrame.getSignedVarInt(in);
+			}
+			if ((flags & StateDeltaEncoder.DIAMETER) != 0)
+				diameter += StreamFrame.getSignedVarInt(in);
+			if ((flags & StateDeltaEncoder.LIFETIME) != 0)
+				lifetime += StreamFrame.getSignedVarInt(in);
+			if ((flags & StateDeltaEncoder.KIND) != 0)
+				kind = in.get();
+			int j = add(c, p.id[i], kind, x, y, diameter, vx, vy, lifetime, balls, width, height);
+			if (balls) {
+				if ((flags & StateDeltaEncoder.LINKS) != 0) {
+					links = readLinks(in, curFrame, j, links);
+				} else {
+					int start = prevFrame.linkStart[i];
+					int length = prevFrame.linkStart[i + 1] - start;
+					curFrame.ensureLinkCapacity(j + 1, links + length);
+					for (int k = start; k < start + length; k++) {
+						// the links are kept, so their alphas must have been kept as well
+						check(Arrays.binarySearch(curFrame.alphas.id, 0, curFrame.alphas.size, prevFrame.linkAlpha[k]) >= 0,
+								"link to a removed alpha");
+					}
+					System.arraycopy(prevFrame.linkAlpha, start, curFrame.linkAlpha, links, length);
+					links += length;
+					curFrame.linkStart[j + 1] = links;
+				}
+			}
+		}
+
+		int count = StreamFrame.getVarInt(in);
+		check(count >= 0 && count <= in.remaining(), "bad number of new entities");
+		long id = p.size == 0 ? -1 : p.id[p.size - 1];
+		for (int k = 0; k < count; k++) {
+			int gap = StreamFrame.getVarInt(in);
+			id += gap;
+			check(gap > 0 && id <= Integer.MAX_VALUE, "bad id");
+			int x = StreamFrame.getVarInt(in);
+			int y = StreamFrame.getVarInt(in);
+			int diameter = StreamFrame.getVarInt(in);
+			int vx = StreamFrame.getSignedVarInt(in);
+			int vy = StreamFrame.getSignedVarInt(in);
+			int lifetime = balls ? StreamFrame.getSignedVarInt(in) : 0;
+			byte kind = balls ? in.get() : BalphaArrays.ALPHA;
+			int j = add(c, (int) id, kind, x, y, diameter, vx, vy, lifetime, balls, width, height);
+			if (balls)
+				links = readLinks(in, curFrame, j, links);
+		}
+	}
+
+	private static int add(BalphaArrays c, int id, byte kind, int x, int y, int diameter, int vx, int vy,
+			int lifetime, boolean balls, int width, int height) {
+		check(balls ? kind == BalphaArrays.NORMAL_BALL || kind == BalphaArrays.SUPERCHARGED_BALL
+				: kind == BalphaArrays.ALPHA, "bad kind");
+		check(BinarySnapshot.fieldContains(width, height, x, y, diameter), "ball or alpha outside the field");
+		int j = c.add(kind, x, y, diameter, vx, vy, lifetime);
+		c.id[j] = id;
+		return j;
+	}
+
+	// Read the links of ball `ball`, whose alphas are to start at `linkAlpha[links]`, and return where the
+	// alphas of the next ball start.
+	private int readLinks(ByteBuffer in, StreamFrame frame, int ball, int links) {
+		int length = StreamFrame.getVarInt(in);
+		check(length >= 0 && length <= in.remaining(), "bad number of links");
+		frame.ensureLinkCapacity(ball + 1, links + length);
+		BalphaArrays alphas = frame.alphas;
+		long id = -1;
+		for (int k = 0; k < length; k++) {
+			int gap = StreamFrame.getVarInt(in);
+			id += gap;
+			check(gap > 0 && id <= Integer.MAX_VALUE, "bad alpha id");
+			check(Arrays.binarySearch(alphas.id, 0, alphas.size, (int) id) >= 0, "link to an unknown alpha");
+			frame.linkAlpha[links++] = (int) id;
+		}
+		frame.linkStart[ball + 1] = links;
+		return links;
+	}
+
+	/**
+	 * Return a new state equal to the state of the last frame decoded, with its balls and alphas in the
+	 * same order. Blocks that occurred more than once in the encoded state are separate blocks here.
+	 *
+	 * @throws IllegalStateException | !hasState()
+	 * @creates | result
+	 */
+	public BreakoutState toState() {
+		if (!started)
+			throw new IllegalStateException("No keyframe has been decoded yet");
+		StreamFrame frame = previous;
+		BalphaArrays balls = frame.balls.copy();
+		BalphaArrays alphas = frame.alphas.copy();
+		balls.clearLinks();
+		alphas.clearLinks();
+		LinkStore links = new LinkStore(balls, alphas);
+		for (int i = 0; i < balls.size; i++) {
+			for (int k = frame.linkStart[i]; k < frame.linkStart[i + 1]; k++) {
+				links.add(i, Arrays.binarySearch(alphas.id, 0, alphas.size, frame.linkAlpha[k]));
+			}
+		}
+		BlockState[] blocks = Arrays.stream(frame.blocks).filter(b -> b != null).toArray(BlockState[]::new);
+		return BreakoutState.restore(frame.bottomRight, alphas, balls, links, blocks, frame.paddle);
+	}
+}
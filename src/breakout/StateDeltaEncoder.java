@@ -0,0 +1,285 @@
+package breakout;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Describes the successive states of a game as a stream of frames, each frame but a keyframe describing
+ * the state by how it differs from the state of the frame before, for a `StateDeltaDecoder` at the other
+ * end. Between two ticks, most blocks stay as they are and the balls and alphas move a little, so a frame
+ * usually takes a few bytes per ball and alpha.
+ *
+ * A frame starts with `DELTA` or `KEYFRAME`. A keyframe continues with the x and y of the bottom-right
+ * corner of the field and the number of block slots, and is described relative to an empty game on that
+ * field. All numbers are variable-length ints, zigzag-encoded where they can be negative; the frame then
+ * describes:
+ * - the paddle: 0 if it did not change, or 1 followed by its type as in `BinarySnapshot`, the change of the
+ *   x and y of its center, and its count;
+ * - the block slots that changed, each as the distance from the slot before (from -1 for the first),
+ *   followed by 0 if the block was destroyed, or by its type as in `BinarySnapshot` plus one, its
+ *   corners and its lives; then 0;
+ * - the alphas, then the balls, each as: the indices of the removed ones in the previous frame, each as
+ *   the distance from the one before (from -1 for the first), then 0; then, for each of the others in
+ *   order, a byte of `MOVED`, `VELOCITY`, `DIAMETER`, `LIFETIME`, `KIND` and `LINKS` flags followed by the
+ *   changes they flag; then the number of new ones, followed by each new one's id, as the distance from
+ *   the previous largest id, and all of its values.
+ * A ball's links are given as the number of its alphas followed by their ids, each as the distance from
+ * the one before (from -1 for the first).
+ *
+ * Balls and alphas are told apart by their ids, which stay the same while they live. Encoding allocates
+ * nothing once the encoder has seen a state as large.
+ *
+ * @invar | getKeyframeInterval() >= 1
+ */
+public final class StateDeltaEncoder {
+
+	static final int DELTA = 0;
+	static final int KEYFRAME = 1;
+
+	static final int MOVED = 1;
+	static final int VELOCITY = 2;
+	static final int DIAMETER = 4;
+	static final int LIFETIME = 8;
+	static final int KIND = 16;
+	static final int LINKS = 32;
+
+	private static final int MAX_VAR_INT_BYTES = 5;
+
+	private final int keyframeInterval;
+	private StreamFrame previous = new StreamFrame();
+	private StreamFrame current = new StreamFrame();
+	private final StreamFrame empty = new StreamFrame();
+	private int framesSinceKeyframe;
+	private boolean keyframeRequested = true;
+
+	/**
+	 * Initialize this encoder to make every `keyframeInterval`th frame a keyframe, starting with the first.
+	 *
+	 * @throws IllegalArgumentException | keyframeInterval < 1
+	 * @post | getKeyframeInterval() == keyframeInterval
+	 */
+	public StateDeltaEncoder(int keyframeInterval) {
+		if (keyframeInterval < 1)
+			throw new IllegalArgumentException("The keyframe interval must be at least 1");
+		this.keyframeInterval = keyframeInterval;
+	}
+
+	/** Return the number of frames from one keyframe to the next. */
+	public int getKeyframeInterval() {
+		return keyframeInterval;
+	}
+
+	/**
+	 * Make the next frame a keyframe, for instance because a client joined that has not seen the frames
+	 * before.
+	 *
+	 * @mutates | this
+	 */
+	public void requestKeyframe() {
+		keyframeRequested = true;
+	}
+
+	/**
+	 * Return the largest number of bytes a keyframe of `state` can take. A delta frame can only take more
+	 * if more balls and alphas were removed than there are left.
+	 *
+	 * @pre | state != null
+	 * @inspects | state
+	 */
+	public static int maxKeyframeSize(BreakoutState state) {
+		BalphaArrays balls = state.ballArrays();
+		int links = 0;
+		for (int i = 0; i < balls.size; i++) {
+			links += balls.linkCount[i];
+		}
+		long ints = 16 + 7L * state.blockSlots().length + 6L * state.alphaArrays().size + 9L * balls.size + links;
+		if (ints * MAX_VAR_INT_BYTES > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("The state is too large for a frame");
+		return (int) ints * MAX_VAR_INT_BYTES;
+	}
+
+	/**
+	 * Write a frame describing `state` into `out`, starting at its position, and advance the position past
+	 * it. The frame is a keyframe if this is the first frame, if a keyframe was requested or is due, if a
+	 * delta frame does not fit in `out`, or if `state` is not a later state of the game of the previous
+	 * frame. Return whether the frame is a keyframe.
+	 *
+	 * @throws IllegalArgumentException | state == null || out == null
+	 * @throws IllegalArgumentException if the paddle or a block is of a type `BinarySnapshot` does not know
+	 * @throws BufferOverflowException | out.remaining() < maxKeyframeSize(state)
+	 * @inspects | state
+	 * @mutates | this, out
+	 */
+	public boolean encode(BreakoutState state, ByteBuffer out) {
+		if (state == null || out == null)
+			throw new IllegalArgumentException("The state and buffer must not be null");
+		current.capture(state);
+		boolean keyframe = keyframeRequested || framesSinceKeyframe + 1 >= keyframeInterval;
+		if (!keyframe) {
+			int start = out.position();
+			try {
+				keyframe = !writeFrame(previous, current, out, false);
+			} catch (BufferOverflowException e) {
+				keyframe = true;
+			}
+			if (keyframe)
+				out.position(start);
+		}
+		if (keyframe) {
+			empty.clear(current.bottomRight, current.blocks.length);
+			writeFrame(empty, current, out, true);
+			keyframeRequested = false;
+			framesSinceKeyframe = 0;
+		} else {
+			framesSinceKeyframe++;
+		}
+		StreamFrame swap = previous;
+		previous = current;
+		current = swap;
+		return keyframe;
+	}
+
+	// Return false if `cur` cannot be described relative to `prev`.
+	private static boolean writeFrame(StreamFrame prev, StreamFrame cur, ByteBuffer out, boolean keyframe) {
+		out.put((byte) (keyframe ? KEYFRAME : DELTA));
+		if (keyframe) {
+			StreamFrame.putVarInt(out, cur.bottomRight.getX());
+			StreamFrame.putVarInt(out, cur.bottomRight.getY());
+			StreamFrame.putVarInt(out, cur.blocks.length);
+		} else if (!prev.bottomRight.equals(cur.bottomRight) || prev.blocks.length != cur.blocks.length) {
+			return false;
+		}
+		writePaddle(prev.paddle, cur.paddle, out);
+		writeBlocks(prev.blocks, cur.blocks, out);
+		return writeEntities(prev, prev.alphas, cur, cur.alphas, out)
+				&& writeEntities(prev, prev.balls, cur, cur.balls, out);
+	}
+
+	private static void writePaddle(PaddleState prev, PaddleState cur, ByteBuffer out) {
+		int type = BinarySnapshot.paddleType(cur);
+		int count = cur instanceof ReplicatingPaddleState replicating ? replicating.getCount() : 0;
+		if (prev != null && prev.getClass() == cur.getClass() && prev.getCenter().equals(cur.getCenter())
+				&& (!(prev instanceof ReplicatingPaddleState replicating) || replicating.getCount() == count)) {
+			out.put((byte) 0);
+			return;
+		}
+		out.put((byte) 1);
+		out.put((byte) type);
+		StreamFrame.putSignedVarInt(out, cur.getCenter().getX() - (prev == null ? 0 : prev.getCenter().getX()));
+		StreamFrame.putSignedVarInt(out, cur.getCenter().getY() - (prev == null ? 0 : prev.getCenter().getY()));
+		StreamFrame.putVarInt(out, count);
+	}
+
+	private static void writeBlocks(BlockState[] prev, BlockState[] cur, ByteBuffer out) {
+		int last = -1;
+		for (int slot = 0; slot < cur.length; slot++) {
+			BlockState block = cur[slot];
+			if (block == prev[slot])
+				continue;
+			StreamFrame.putVarInt(out, slot - last);
+			last = slot;
+			if (block == null) {
+				out.put((byte) 0);
+				continue;
+			}
+			out.put((byte) (BinarySnapshot.blockType(block) + 1));
+			StreamFrame.putVarInt(out, block.getLocation().getTopLeft().getX());
+			StreamFrame.putVarInt(out, block.getLocation().getTopLeft().getY());
+			StreamFrame.putVarInt(out, block.getLocation().getBottomRight().getX());
+			StreamFrame.putVarInt(out, block.getLocation().getBottomRight().getY());
+			StreamFrame.putVarInt(out, block instanceof SturdyBlockState sturdy ? sturdy.getLivesLeft() : 0);
+		}
+		StreamFrame.putVarInt(out, 0);
+	}
+
+	// Return false if `c` has a new entity before one it kept from `p`.
+	private static boolean writeEntities(StreamFrame prevFrame, BalphaArrays p, StreamFrame curFrame, BalphaArrays c,
+			ByteBuffer out) {
+		boolean balls = p == prevFrame.balls;
+		// the removed ones
+		int j = 0;
+		int last = -1;
+		for (int i = 0; i < p.size; i++) {
+			if (j < c.size && c.id[j] == p.id[i]) {
+				j++;
+			} else if (j < c.size && c.id[j] < p.id[i]) {
+				return false;
+			} else {
+				StreamFrame.putVarInt(out, i - last);
+				last = i;
+			}
+		}
+		StreamFrame.putVarInt(out, 0);
+		int kept = j;
+
+		// the kept ones
+		j = 0;
+		for (int i = 0; i < p.size && j < kept; i++) {
+			if (c.id[j] != p.id[i])
+				continue;
+			int flags = 0;
+			if (c.x[j] != p.x[i] || c.y[j] != p.y[i])
+				flags |= MOVED;
+			if (c.vx[j] != p.vx[i] || c.vy[j] != p.vy[i])
+				flags |= VELOCITY;
+			if (c.diameter[j] != p.diameter[i])
+				flags |= DIAMETER;
+			if (balls) {
+				if (c.lifetime[j] != p.lifetime[i])
+					flags |= LIFETIME;
+				if (c.kind[j] != p.kind[i])
+					flags |= KIND;
+				if (!curFrame.sameLinks(j, prevFrame, i))
+					flags |= LINKS;
+			}
+			out.put((byte) flags);
+			if ((flags & MOVED) != 0) {
+				StreamFrame.putSignedVarInt(out, c.x[j] - p.x[i]);
+				StreamFrame.putSignedVarInt(out, c.y[j] - p.y[i]);
+			}
+			if ((flags & VELOCITY) != 0) {
+				StreamFrame.putSignedVarInt(out, c.vx[j] - p.vx[i]);
+				StreamFrame.putSignedVarInt(out, c.vy[j] - p.vy[i]);
+			}
+			if ((flags & DIAMETER) != 0)
+				StreamFrame.putSignedVarInt(out, c.diameter[j] - p.diameter[i]);
+			if ((flags & LIFETIME) != 0)
+				StreamFrame.putSignedVarInt(out, c.lifetime[j] - p.lifetime[i]);
+			if ((flags & KIND) != 0)
+				out.put(c.kind[j]);
+			if ((flags & LINKS) != 0)
+				writeLinks(curFrame, j, out);
+			j++;
+		}
+
+		// the new ones, whose ids are larger than all ids of `p`
+		StreamFrame.putVarInt(out, c.size - kept);
+		int lastId = p.size == 0 ? -1 : p.id[p.size - 1];
+		for (j = kept; j < c.size; j++) {
+			StreamFrame.putVarInt(out, c.id[j] - lastId);
+			lastId = c.id[j];
+			StreamFrame.putVarInt(out, c.x[j]);
+			StreamFrame.putVarInt(out, c.y[j]);
+			StreamFrame.putVarInt(out, c.diameter[j]);
+			StreamFrame.putSignedVarInt(out, c.vx[j]);
+			StreamFrame.putSignedVarInt(out, c.vy[j]);
+			if (balls) {
+				StreamFrame.putSignedVarInt(out, c.lifetime[j]);
+				out.put(c.kind[j]);
+				writeLinks(curFrame, j, out);
+			}
+		}
+		return true;
+	}
+
+	private static void writeLinks(StreamFrame frame, int ball, ByteBuffer out) {
+		int start = frame.linkStart[ball];
+		int end = frame.linkStart[ball + 1];
+		StreamFrame.putVarInt(out, end - start);
+		int last = -1;
+		for (int k = start; k < end; k++) {
+			StreamFrame.putVarInt(out, frame.linkAlpha[k] - last);
+			last = frame.linkAlpha[k];
+		}
+	}
+}
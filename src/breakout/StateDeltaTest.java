@@ -0,0 +1,143 @@
+package breakout;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import breakout.gui.BreakoutApplication;
+import breakout.radioactivity.Alpha;
+import breakout.radioactivity.Ball;
+import breakout.utils.Circle;
+import breakout.utils.Point;
+import breakout.utils.Vector;
+
+class StateDeltaTest {
+
+	static final int KEYFRAME_INTERVAL = 50;
+
+	static void play(BreakoutState state, Random random) {
+		int paddleDir = random.nextInt(3) - 1;
+		TestStates.play(state, paddleDir, 20);
+	}
+
+	@Test
+	void testDecodedStatesMatchTheGame() {
+		for (long seed = 0; seed < 10; seed++) {
+			Random random = new Random(seed);
+			BreakoutState state = TestStates.randomState(seed);
+			StateDeltaEncoder encoder = new StateDeltaEncoder(KEYFRAME_INTERVAL);
+			StateDeltaDecoder decoder = new StateDeltaDecoder();
+			ByteBuffer frame = ByteBuffer.allocate(1 << 16);
+			for (int t = 0; t < 300; t++) {
+				frame.clear();
+				boolean keyframe = encoder.encode(state, frame);
+				assertEquals(t % KEYFRAME_INTERVAL == 0, keyframe);
+				frame.flip();
+				assertTrue(decoder.decode(frame));
+				assertFalse(frame.hasRemaining());
+				assertEquals(TestStates.describe(state), TestStates.describe(decoder.toState()));
+				play(state, random);
+			}
+		}
+	}
+
+	@Test
+	void testDeltasAreAnOrderOfMagnitudeSmallerThanSnapshots() {
+		Random random = new Random(1);
+		BreakoutState state = new BreakoutFacade().createStateFromDescription(BreakoutApplication.initMap);
+		StateDeltaEncoder encoder = new StateDeltaEncoder(KEYFRAME_INTERVAL);
+		ByteBuffer frame = ByteBuffer.allocate(1 << 16);
+		long deltaBytes = 0;
+		long snapshotBytes = 0;
+		for (int t = 0; t < 500 && !state.isDead(); t++) {
+			frame.clear();
+			encoder.encode(state, frame);
+			deltaBytes += frame.position();
+			snapshotBytes += BinarySnapshot.size(state);
+			play(state, random);
+		}
+		assertTrue(deltaBytes * 10 < snapshotBytes, deltaBytes + " bytes of deltas for " + snapshotBytes);
+	}
+
+	@Test
+	void testLateJoinerStartsAtTheNextKeyframe() {
+		Random random = new Random(2);
+		BreakoutState state = TestStates.randomState(2);
+		StateDeltaEncoder encoder = new StateDeltaEncoder(KEYFRAME_INTERVAL);
+		StateDeltaDecoder decoder = new StateDeltaDecoder();
+		ByteBuffer frame = ByteBuffer.allocate(1 << 16);
+		for (int t = 0; t < 20; t++) {
+			frame.clear();
+			encoder.encode(state, frame);
+			play(state, random);
+		}
+		frame.clear();
+		encoder.encode(state, frame);
+		assertFalse(decoder.decode(frame.flip()));
+		assertFalse(decoder.hasState());
+		encoder.requestKeyframe();
+		frame.clear();
+		assertTrue(encoder.encode(state, frame));
+		assertTrue(decoder.decode(frame.flip()));
+		assertEquals(TestStates.describe(state), TestStates.describe(decoder.toState()));
+	}
+
+	@Test
+	void testCorruptFrameIsRejected() {
+		BreakoutState state = TestStates.randomState(3);
+		ByteBuffer frame = ByteBuffer.allocate(1 << 16);
+		new StateDeltaEncoder(KEYFRAME_INTERVAL).encode(state, frame);
+		StateDeltaDecoder decoder = new StateDeltaDecoder();
+		ByteBuffer cut = frame.flip().duplicate().limit(frame.limit() / 2);
+		assertThrows(IllegalArgumentException.class, () -> decoder.decode(cut));
+		assertFalse(decoder.hasState());
+		ByteBuffer bad = ByteBuffer.wrap(new byte[] { 7 });
+		assertThrows(IllegalArgumentException.class, () -> decoder.decode(bad));
+
+		// a ball kept with its links while the alpha it is linked to is removed
+		Ball ball = new NormalBall(new Circle(new Point(1000, 1000), 700), new Vector(1, 1));
+		Alpha alpha = new Alpha(new Circle(new Point(2000, 1000), 700), new Vector(1, 1));
+		ball.linkTo(alpha);
+		BreakoutState linked = new BreakoutState(new Alpha[] { alpha }, new Ball[] { ball }, new BlockState[0],
+				new Point(50000, 30000), new NormalPaddleState(new Point(25000, 29000)));
+		ByteBuffer keyframe = ByteBuffer.allocate(1 << 12);
+		new StateDeltaEncoder(KEYFRAME_INTERVAL).encode(linked, keyframe);
+		assertTrue(decoder.decode(keyframe.flip()));
+		// a delta that removes the alpha but keeps the ball's links as they were: no paddle, no blocks,
+		// alpha 0 removed and no new alphas, no balls removed, the ball unchanged and no new balls
+		ByteBuffer hostile = ByteBuffer.wrap(new byte[] { StateDeltaEncoder.DELTA, 0, 0, 1, 0, 0, 0, 0, 0 });
+		assertThrows(IllegalArgumentException.class, () -> decoder.decode(hostile));
+		assertFalse(decoder.hasState());
+	}
+
+	@Test
+	void testEncodingAllocatesNothing() throws Exception {
+		BreakoutState state = TestStates.steadyState();
+		StateDeltaEncoder encoder = new StateDeltaEncoder(KEYFRAME_INTERVAL);
+		ByteBuffer frame = ByteBuffer.allocateDirect(1 << 12);
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long thread = Thread.currentThread().getId();
+		for (int t = 0; t < 20000; t++) {
+			frame.clear();
+			encoder.encode(state, frame);
+			state.tick(0, 20);
+		}
+		threads.getThreadAllocatedBytes(thread);
+		// a late recompilation can allocate a few bytes once, so take the best of a few rounds
+		long allocated = Long.MAX_VALUE;
+		for (int round = 0; round < 3 && allocated != 0; round++) {
+			long before = threads.getThreadAllocatedBytes(thread);
+			for (int t = 0; t < 10000; t++) {
+				frame.clear();
+				encoder.encode(state, frame);
+				state.tick(0, 20);
+			}
+			allocated = threads.getThreadAllocatedBytes(thread) - before;
+		}
+		assertEquals(0, allocated);
+	}
+}
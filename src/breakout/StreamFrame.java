@@ -0,0 +1,136 @@
+package breakout;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import breakout.utils.Point;
+
+/**
+ * The state of a game as `StateDeltaEncoder` and `StateDeltaDecoder` see it: what a frame describes, kept
+ * so the next frame can be described relative to it.
+ *
+ * The balls and alphas keep their ids; the charges and link fields of `balls` and `alphas` mean nothing
+ * here. The links are kept as, for each ball `i`, the ids of its alphas in increasing order at
+ * `linkAlpha[linkStart[i]]` up to `linkAlpha[linkStart[i + 1]]`. A frame without a paddle is the empty
+ * frame a keyframe is described relative to.
+ *
+ * @invar | linkStart.length > balls.size
+ */
+final class StreamFrame {
+
+	Point bottomRight = Point.ORIGIN;
+	PaddleState paddle;
+	/** The block in each slot of the state, or null where it was destroyed. */
+	BlockState[] blocks = new BlockState[0];
+	final BalphaArrays balls = new BalphaArrays(0);
+	final BalphaArrays alphas = new BalphaArrays(0);
+	int[] linkStart = new int[1];
+	int[] linkAlpha = new int[16];
+
+	/**
+	 * Make this frame the empty frame of a game on the given field with the given number of block slots.
+	 */
+	void clear(Point bottomRight, int blockSlots) {
+		this.bottomRight = bottomRight;
+		paddle = null;
+		if (blocks.length != blockSlots)
+			blocks = new BlockState[blockSlots];
+		else
+			Arrays.fill(blocks, null);
+		balls.size = 0;
+		alphas.size = 0;
+		linkStart[0] = 0;
+	}
+
+	/**
+	 * Make this frame describe `state`. Allocates nothing once the frame has seen a state as large.
+	 */
+	void capture(BreakoutState state) {
+		bottomRight = state.getBottomRight();
+		paddle = state.getPaddle();
+		BlockState[] slots = state.blockSlots();
+		if (blocks.length != slots.length)
+			blocks = new BlockState[slots.length];
+		System.arraycopy(slots, 0, blocks, 0, slots.length);
+		balls.copyFrom(state.ballArrays());
+		alphas.copyFrom(state.alphaArrays());
+
+		LinkStore links = state.linkStore();
+		int linkCount = 0;
+		for (int i = 0; i < balls.size; i++) {
+			linkCount += balls.linkCount[i];
+		}
+		ensureLinkCapacity(balls.size, linkCount);
+		int k = 0;
+		for (int i = 0; i < balls.size; i++) {
+			int start = k;
+			linkStart[i] = start;
+			for (int e = balls.firstLink[i]; e >= 0; e = links.nextOfBall[e]) {
+				// insertion sort: balls have few alphas
+				int alpha = links.alpha[e];
+				int m = k++;
+				while (m > start && linkAlpha[m - 1] > alpha) {
+					linkAlpha[m] = linkAlpha[m - 1];
+					m--;
+				}
+				linkAlpha[m] = alpha;
+			}
+			// ids increase with the index, so the ids are in increasing order as well
+			for (int m = start; m < k; m++) {
+				linkAlpha[m] = alphas.id[linkAlpha[m]];
+			}
+		}
+		linkStart[balls.size] = k;
+	}
+
+	void ensureLinkCapacity(int ballCount, int linkCount) {
+		if (linkStart.length <= ballCount)
+			linkStart = Arrays.copyOf(linkStart, Math.max(ballCount + 1, linkStart.length * 2));
+		if (linkAlpha.length < linkCount)
+			linkAlpha = Arrays.copyOf(linkAlpha, Math.max(linkCount, linkAlpha.length * 2));
+	}
+
+	/**
+	 * Return whether ball `i` of `this` and ball `j` of `other` have alphas with the same ids.
+	 */
+	boolean sameLinks(int i, StreamFrame other, int j) {
+		int start = linkStart[i];
+		int length = linkStart[i + 1] - start;
+		int otherStart = other.linkStart[j];
+		if (other.linkStart[j + 1] - otherStart != length)
+			return false;
+		for (int k = 0; k < length; k++) {
+			if (linkAlpha[start + k] != other.linkAlpha[otherStart + k])
+				return false;
+		}
+		return true;
+	}
+
+	static void putVarInt(ByteBuffer out, int value) {
+		while ((value & ~0x7F) != 0) {
+			out.put((byte) (value & 0x7F | 0x80));
+			value >>>= 7;
+		}
+		out.put((byte) value);
+	}
+
+	static void putSignedVarInt(ByteBuffer out, int value) {
+		putVarInt(out, value << 1 ^ value >> 31);
+	}
+
+	static int getVarInt(ByteBuffer in) {
+		int result = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			int b = in.get();
+			result |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+				return result;
+		}
+		throw new IllegalArgumentException("Corrupt frame: number too long");
+	}
+
+	static int getSignedVarInt(ByteBuffer in) {
+		int value = getVarInt(in);
+		return value >>> 1 ^ -(value & 1);
+	}
+}
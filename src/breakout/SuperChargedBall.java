@@ -10,6 +10,16 @@ import breakout.utils.Vector;
 
 public class SuperChargedBall extends NormalBall {
 
+	/** The number of colors a supercharged ball cycles through, one per millisecond of its lifetime. */
+	static final int PALETTE_SIZE = 2500;
+	// the rainbow a supercharged ball is painted in, computed once rather than for every ball in every frame
+	private static final Color[] PALETTE = new Color[PALETTE_SIZE];
+	static {
+		for (int i = 0; i < PALETTE_SIZE; i++) {
+			PALETTE[i] = new Color(Color.HSBtoRGB((float) (i / (double) PALETTE_SIZE), 1, 1));
+		}
+	}
+
 	private int lifetime;
 	private static Color COLOR = Color.red;
 
@@ -46,15 +56,30 @@ public class SuperChargedBall extends NormalBall {
 
 	@Override
 	public Color getColor() {
+		return colorFor(lifetime);
+	}
+
+	// The color of a supercharged ball with the given lifetime: a rainbow while it lasts, then a normal ball's.
+	// Always one of a fixed set of colors, so callers may compare them by identity.
+	static Color colorFor(int lifetime) {
 		if (lifetime >= 0) {
-			float hue = (float) ((getLifetime() % 2500) / 2500.0);
-			int rgb = Color.HSBtoRGB(hue, 1, 1);
-			return new Color(rgb);
+			return PALETTE[lifetime % PALETTE_SIZE];
 		} else {
-			return super.getColor();
+			return BALL_COLOR;
 		}
 	}
 
+	// The index in the rainbow of the color of a supercharged ball with the given lifetime, or -1 if it is a
+	// normal ball's color.
+	static int paletteIndex(int lifetime) {
+		return lifetime >= 0 ? lifetime % PALETTE_SIZE : -1;
+	}
+
+	// The color at the given index in the rainbow.
+	static Color paletteColor(int index) {
+		return PALETTE[index];
+	}
+
 	public int getLifetime() {
 		return lifetime;
 	}
@@ -116,4 +116,14 @@ class SuperChargedBallTest {
 		assertEquals(new Color(Color.HSBtoRGB((float)0.4, 1, 1)), b1.getColor());
 	}
 
+	@Test
+	void testColorForComesFromThePalette() {
+		for (int lifetime : new int[] { 0, 1, 1249, 2499, 2500, 3750, 10000 }) {
+			float hue = (float) ((lifetime % 2500) / 2500.0);
+			assertEquals(new Color(Color.HSBtoRGB(hue, 1, 1)), SuperChargedBall.colorFor(lifetime));
+		}
+		assertSame(SuperChargedBall.colorFor(100), SuperChargedBall.colorFor(2600));
+		assertEquals(NormalBall.BALL_COLOR, SuperChargedBall.colorFor(-1));
+	}
+
 }
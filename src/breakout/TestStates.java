@@ -0,0 +1,165 @@
+package breakout;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import breakout.radioactivity.Alpha;
+import breakout.radioactivity.Ball;
+import breakout.utils.Circle;
+import breakout.utils.Point;
+import breakout.utils.Rect;
+import breakout.utils.Vector;
+
+/**
+ * States for tests to play, and a description of a state that tells two states apart if they would play
+ * on differently, for tests that compare two ways of getting to the same state.
+ */
+public class TestStates {
+
+	private TestStates() {}
+
+	/**
+	 * A small field of random blocks of every kind, four balls, one of them supercharged, and two alphas
+	 * linked to two balls each.
+	 */
+	public static BreakoutState randomState(long seed) {
+		Random random = new Random(seed);
+		BlockState[] blocks = new BlockState[40];
+		for (int i = 0; i < blocks.length; i++) {
+			int x = random.nextInt(45000);
+			int y = random.nextInt(12000);
+			Rect loc = new Rect(new Point(x, y), new Point(x + 300 + random.nextInt(2000), y + 300 + random.nextInt(1000)));
+			blocks[i] = switch (i % 4) {
+			case 0 -> new NormalBlockState(loc);
+			case 1 -> new SturdyBlockState(loc, 2);
+			case 2 -> new ReplicatorBlockState(loc);
+			default -> new PowerupBallBlockState(loc);
+			};
+		}
+		Ball[] balls = new Ball[4];
+		for (int i = 0; i < balls.length; i++) {
+			Circle loc = new Circle(new Point(2000 + random.nextInt(46000), 15000 + random.nextInt(10000)), 600);
+			Vector velocity = new Vector(random.nextInt(21) - 10, random.nextInt(21) - 10);
+			balls[i] = i == 0 ? new SuperChargedBall(loc, velocity, 3000) : new NormalBall(loc, velocity);
+		}
+		Alpha[] alphas = new Alpha[2];
+		for (int i = 0; i < alphas.length; i++) {
+			alphas[i] = new Alpha(new Circle(new Point(2000 + random.nextInt(46000), 15000 + random.nextInt(10000)), 500),
+					new Vector(random.nextInt(21) - 10, random.nextInt(21) - 10));
+			balls[i].linkTo(alphas[i]);
+			balls[i + 1].linkTo(alphas[i]);
+		}
+		return new BreakoutState(alphas, balls, blocks, new Point(50000, 30000),
+				new NormalPaddleState(new Point(25000, 29000)));
+	}
+
+	/**
+	 * A crowded field of `ballCount` balls: many balls hitting the same blocks in one tick, alphas bouncing
+	 * on the walls and pulling shared balls, and a replicating paddle.
+	 */
+	public static BreakoutState crowdedState(long seed, int ballCount) {
+		Random random = new Random(seed);
+		BlockState[] blocks = new BlockState[300];
+		for (int i = 0; i < blocks.length; i++) {
+			Point topLeft = new Point((i % 30) * 1600 + 500, (i / 30) * 1000 + 100);
+			Rect loc = new Rect(topLeft, topLeft.plus(new Vector(1500, 900)));
+			blocks[i] = switch (i % 4) {
+			case 0 -> new NormalBlockState(loc);
+			case 1 -> new SturdyBlockState(loc, 3);
+			case 2 -> new ReplicatorBlockState(loc);
+			default -> new PowerupBallBlockState(loc);
+			};
+		}
+		Ball[] balls = new Ball[ballCount];
+		for (int i = 0; i < balls.length; i++) {
+			Circle loc = new Circle(new Point(500 + random.nextInt(49000), 11000 + random.nextInt(18000)), 400);
+			Vector velocity = new Vector(random.nextInt(41) - 20, random.nextInt(41) - 20);
+			balls[i] = i % 7 == 0 ? new SuperChargedBall(loc, velocity, random.nextInt(5000))
+					: new NormalBall(loc, velocity);
+		}
+		Alpha[] alphas = new Alpha[500];
+		for (int i = 0; i < alphas.length; i++) {
+			alphas[i] = new Alpha(new Circle(new Point(500 + random.nextInt(49000), 11000 + random.nextInt(18000)), 400),
+					new Vector(random.nextInt(41) - 20, random.nextInt(41) - 20));
+			for (int k = 0; k < 3; k++)
+				balls[random.nextInt(balls.length)].linkTo(alphas[i]);
+		}
+		return new BreakoutState(alphas, balls, blocks, new Point(50000, 30000),
+				new ReplicatingPaddleState(new Point(25000, 29000), 4));
+	}
+
+	/**
+	 * A state in which everything moves horizontally on one line, so balls and alphas only ever bounce
+	 * between the side walls (and alphas pull their balls along that line): a steady state without block
+	 * or paddle hits.
+	 */
+	public static BreakoutState steadyState() {
+		int y = 15000;
+		Ball[] balls = new Ball[] {
+				new NormalBall(new Circle(new Point(5000, y), 700), new Vector(7, 0)),
+				new NormalBall(new Circle(new Point(20000, y), 500), new Vector(-5, 0)),
+				new SuperChargedBall(new Circle(new Point(30000, y), 700), new Vector(3, 0), 100000000) };
+		Alpha[] alphas = new Alpha[] {
+				new Alpha(new Circle(new Point(10000, y), 700), new Vector(-6, 0)),
+				new Alpha(new Circle(new Point(40000, y), 700), new Vector(9, 0)) };
+		balls[0].linkTo(alphas[0]);
+		balls[1].linkTo(alphas[0]);
+		balls[1].linkTo(alphas[1]);
+		balls[2].linkTo(alphas[1]);
+		BlockState[] blocks = new BlockState[] {
+				new NormalBlockState(new Rect(new Point(0, 0), new Point(4000, 3000))),
+				new SturdyBlockState(new Rect(new Point(20000, 0), new Point(24000, 3000)), 3) };
+		return new BreakoutState(alphas, balls, blocks, new Point(50000, 30000),
+				new NormalPaddleState(new Point(25000, 29000)));
+	}
+
+	/** Play a tick the way `GameView` does: move the paddle, then tick. */
+	public static void play(BreakoutState state, int paddleDir, int elapsedTime) {
+		if (paddleDir < 0)
+			state.movePaddleLeft(elapsedTime);
+		else if (paddleDir > 0)
+			state.movePaddleRight(elapsedTime);
+		state.tick(paddleDir, elapsedTime);
+	}
+
+	/**
+	 * Describe everything about `state` that matters for how it plays on: each ball with its kind, place,
+	 * velocity, charge, lifetime and the indices of the alphas it is linked to, each alpha, each block
+	 * with its kind, location and lives, and the paddle.
+	 */
+	public static String describe(BreakoutState state) {
+		StringBuilder result = new StringBuilder();
+		BalphaSnapshot snapshot = state.getSnapshot();
+		// the alphas each ball is linked to, as indices into the state's alphas, in increasing order
+		int[][] linked = new int[snapshot.getBallCount()][0];
+		for (int k = 0; k < snapshot.getLinkCount(); k++) {
+			int ball = snapshot.getLinkBall(k);
+			linked[ball] = Arrays.copyOf(linked[ball], linked[ball].length + 1);
+			linked[ball][linked[ball].length - 1] = snapshot.getLinkAlpha(k);
+		}
+		Ball[] balls = state.getBalls();
+		for (int i = 0; i < balls.length; i++) {
+			Ball ball = balls[i];
+			result.append(ball.getClass().getSimpleName()).append(ball.getLocation().getCenter())
+					.append(ball.getLocation().getDiameter()).append(ball.getVelocity()).append(ball.getEcharge());
+			if (ball instanceof SuperChargedBall superCharged)
+				result.append(" lifetime ").append(superCharged.getLifetime());
+			Arrays.sort(linked[i]);
+			for (int alpha : linked[i])
+				result.append(" alpha ").append(alpha);
+			result.append('\n');
+		}
+		for (Alpha alpha : state.getAlphas())
+			result.append("alpha").append(alpha.getLocation().getCenter()).append(alpha.getLocation().getDiameter())
+					.append(alpha.getVelocity()).append('\n');
+		for (BlockState block : state.getBlocks()) {
+			result.append(block.getClass().getSimpleName()).append(block.getLocation().getTopLeft())
+					.append(block.getLocation().getBottomRight());
+			if (block instanceof SturdyBlockState sturdy)
+				result.append(" lives ").append(sturdy.getLivesLeft());
+			result.append('\n');
+		}
+		result.append(state.getPaddle().getClass().getSimpleName()).append(state.getPaddle().getCenter());
+		return result.toString();
+	}
+}
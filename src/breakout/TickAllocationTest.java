@@ -0,0 +1,38 @@
+package breakout;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TickAllocationTest {
+	BreakoutState state;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		state = TestStates.steadyState();
+	}
+
+	@Test
+	void testSteadyStateTickAllocatesNothing() {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long thread = Thread.currentThread().getId();
+		// warm up, so class loading and compilation are out of the way
+		for (int i = 0; i < 20000; i++) {
+			state.tick(i % 3 - 1, 20);
+		}
+		threads.getThreadAllocatedBytes(thread);
+		long before = threads.getThreadAllocatedBytes(thread);
+		for (int i = 0; i < 10000; i++) {
+			state.tick(i % 3 - 1, 20);
+		}
+		long after = threads.getThreadAllocatedBytes(thread);
+		assertEquals(0, after - before);
+		assertEquals(3, state.getBalls().length);
+		assertEquals(2, state.getAlphas().length);
+		assertEquals(2, state.getBlocks().length);
+	}
+
+}
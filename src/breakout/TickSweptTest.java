@@ -0,0 +1,69 @@
+package breakout;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import breakout.radioactivity.Alpha;
+import breakout.radioactivity.Ball;
+import breakout.utils.Circle;
+import breakout.utils.Point;
+import breakout.utils.Rect;
+import breakout.utils.Vector;
+
+class TickSweptTest {
+
+	BreakoutState thinBlockState() {
+		Ball ball = new NormalBall(new Circle(new Point(5000, 19600), 400), new Vector(0, -10));
+		BlockState block = new NormalBlockState(new Rect(new Point(4900, 19000), new Point(5100, 19100)));
+		return new BreakoutState(new Alpha[0], new Ball[] { ball }, new BlockState[] { block },
+				new Point(10000, 30000), new NormalPaddleState(new Point(5000, 29000)));
+	}
+
+	void assertSweptMatchesMillisecondTicks(Supplier<BreakoutState> states, int paddleDir, int elapsedTime) {
+		BreakoutState swept = states.get();
+		BreakoutState stepped = states.get();
+		swept.tickSwept(paddleDir, elapsedTime);
+		for (int i = 0; i < elapsedTime; i++)
+			stepped.tick(paddleDir, 1);
+		assertEquals(TestStates.describe(stepped), TestStates.describe(swept));
+	}
+
+	@Test
+	void testFastBallDoesNotTunnel() {
+		// one tick of 50ms moves the ball 500 units, clean over the 100 units thick block
+		BreakoutState ticked = thinBlockState();
+		ticked.tick(0, 50);
+		assertEquals(1, ticked.getBlocks().length);
+
+		BreakoutState swept = thinBlockState();
+		swept.tickSwept(0, 50);
+		assertEquals(0, swept.getBlocks().length);
+		assertEquals(new Vector(0, 10), swept.getBalls()[0].getVelocity());
+	}
+
+	@Test
+	void testZeroElapsedTime() {
+		assertSweptMatchesMillisecondTicks(this::thinBlockState, 0, 0);
+	}
+
+	@Test
+	void testSweptMatchesMillisecondTicks() {
+		for (long seed = 0; seed < 20; seed++) {
+			long s = seed;
+			assertSweptMatchesMillisecondTicks(() -> TestStates.randomState(s), (int) (s % 3) - 1, 4000);
+		}
+	}
+
+	@Test
+	void testLongCatchUpInOneCall() {
+		// no ball touches anything for a long time: a single catch-up call moves it all the way
+		Ball ball = new NormalBall(new Circle(new Point(5000, 25000), 400), new Vector(0, -1));
+		BreakoutState state = new BreakoutState(new Alpha[0], new Ball[] { ball }, new BlockState[0],
+				new Point(10000, 30000), new NormalPaddleState(new Point(5000, 29000)));
+		state.tickSwept(0, 20000);
+		assertEquals(new Point(5000, 5000), state.getBalls()[0].getCenter());
+	}
+}
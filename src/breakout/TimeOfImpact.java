@@ -0,0 +1,109 @@
+package breakout;
+
+import breakout.utils.Rect;
+import breakout.utils.Vector;
+
+/**
+ * Predicts after how many steps of a fixed length a ball or alpha moving in a straight line first
+ * touches a rectangle or leaves an area, using the same integer geometry as a tick.
+ *
+ * A step is what `BreakoutState.tick` does to a position: after `m` steps of `period` milliseconds
+ * an entity at `x` with velocity `vx` is at `x + vx * period * m`. All methods return the first
+ * step in `1 .. maxSteps` at which the condition holds, or `maxSteps + 1` if there is none.
+ */
+final class TimeOfImpact {
+
+	static final long NO_LIMIT = Long.MAX_VALUE / 4;
+
+	private TimeOfImpact() {
+		throw new AssertionError("This class is not intended to be instantiated");
+	}
+
+	private static long ceilDiv(long a, long b) {
+		return -Math.floorDiv(-a, b);
+	}
+
+	/**
+	 * Return the first step at which the point starting at (`x`, `y`) and moving `dx`, `dy` per step
+	 * lies inside the box `left <= x <= right`, `top <= y <= bottom`.
+	 *
+	 * @pre | maxSteps >= 0
+	 * @post | 1 <= result && result <= maxSteps + 1
+	 */
+	static int firstStepInBox(long x, long y, long dx, long dy, long left, long top, long right, long bottom,
+			int maxSteps) {
+		long first = 1;
+		long last = maxSteps;
+		if (dx == 0) {
+			if (x < left || x > right)
+				return maxSteps + 1;
+		} else if (dx > 0) {
+			first = Math.max(first, ceilDiv(left - x, dx));
+			last = Math.min(last, Math.floorDiv(right - x, dx));
+		} else {
+			first = Math.max(first, ceilDiv(x - right, -dx));
+			last = Math.min(last, Math.floorDiv(x - left, -dx));
+		}
+		if (dy == 0) {
+			if (y < top || y > bottom)
+				return maxSteps + 1;
+		} else if (dy > 0) {
+			first = Math.max(first, ceilDiv(top - y, dy));
+			last = Math.min(last, Math.floorDiv(bottom - y, dy));
+		} else {
+			first = Math.max(first, ceilDiv(y - bottom, -dy));
+			last = Math.min(last, Math.floorDiv(y - top, -dy));
+		}
+		return first <= last ? (int) first : maxSteps + 1;
+	}
+
+	/**
+	 * Return a step no later than the first step at which entity `i` collides with `rect` in the sense of
+	 * `Balpha.collidesWith`. The result is exact unless two outermost points of the entity are inside the
+	 * rectangle at once, in which case it may be early.
+	 *
+	 * @pre | period >= 1
+	 * @pre | maxSteps >= 0
+	 * @post | 1 <= result && result <= maxSteps + 1
+	 */
+	static int firstStepColliding(BalphaArrays entities, int i, int period, Rect rect, int maxSteps) {
+		int radius = entities.diameter[i] / 2;
+		long dx = (long) entities.vx[i] * period;
+		long dy = (long) entities.vy[i] * period;
+		int best = maxSteps + 1;
+		for (Vector dir : Rect.COLLISSION_DIRS) {
+			if (entities.vx[i] * dir.getX() + entities.vy[i] * dir.getY() <= 0)
+				continue;
+			best = firstStepInBox(entities.x[i] + dir.getX() * radius, entities.y[i] + dir.getY() * radius, dx, dy,
+					rect.getTopLeft().getX(), rect.getTopLeft().getY(),
+					rect.getBottomRight().getX(), rect.getBottomRight().getY(), best - 1);
+		}
+		return best;
+	}
+
+	/**
+	 * Return a step no later than the first step at which clamping entity `i` to `field` would move it, which
+	 * includes the steps at which it falls out at the bottom.
+	 *
+	 * @pre | period >= 1
+	 * @pre | maxSteps >= 0
+	 * @post | 1 <= result && result <= maxSteps + 1
+	 */
+	static int firstStepOutside(BalphaArrays entities, int i, int period, Rect field, int maxSteps) {
+		int radius = entities.diameter[i] / 2;
+		long x = entities.x[i];
+		long y = entities.y[i];
+		long dx = (long) entities.vx[i] * period;
+		long dy = (long) entities.vy[i] * period;
+		long left = field.getTopLeft().getX() + radius;
+		long top = field.getTopLeft().getY() + radius;
+		long right = field.getBottomRight().getX() - radius;
+		long bottom = field.getBottomRight().getY() - radius;
+		int best = maxSteps + 1;
+		best = firstStepInBox(x, y, dx, dy, -NO_LIMIT, -NO_LIMIT, left - 1, NO_LIMIT, best - 1);
+		best = firstStepInBox(x, y, dx, dy, right + 1, -NO_LIMIT, NO_LIMIT, NO_LIMIT, best - 1);
+		best = firstStepInBox(x, y, dx, dy, -NO_LIMIT, -NO_LIMIT, NO_LIMIT, top - 1, best - 1);
+		best = firstStepInBox(x, y, dx, dy, -NO_LIMIT, bottom + 1, NO_LIMIT, NO_LIMIT, best - 1);
+		return best;
+	}
+}
@@ -0,0 +1,176 @@
+package breakout.batch;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import breakout.BreakoutFacade;
+import breakout.BreakoutState;
+
+/**
+ * Plays many independent games without a GUI, spread over the worker threads of a `ForkJoinPool`.
+ *
+ * The games are split in halves until single games are left, so idle workers steal the remaining games
+ * of busy ones and a few long games do not hold up the others. A game is played the way `GameView`
+ * plays it: each tick first moves the paddle, then ticks the state with the same paddle direction.
+ *
+ * @invar | getPool() != null
+ */
+public class BatchSimulator {
+
+	private static final BreakoutFacade facade = new BreakoutFacade();
+
+	private final ForkJoinPool pool;
+
+	/**
+	 * Initialize this simulator to play games on the given pool.
+	 *
+	 * @throws IllegalArgumentException | pool == null
+	 * @post | getPool() == pool
+	 */
+	public BatchSimulator(ForkJoinPool pool) {
+		if (pool == null)
+			throw new IllegalArgumentException("The pool must not be null");
+		this.pool = pool;
+	}
+
+	/**
+	 * Initialize this simulator to play games on the common pool.
+	 *
+	 * @post | getPool() == ForkJoinPool.commonPool()
+	 */
+	public BatchSimulator() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/** Return the pool the games are played on. */
+	public ForkJoinPool getPool() {
+		return pool;
+	}
+
+	/**
+	 * Play the game in `state` with the given script until it is won or lost, or until `maxGameTime`
+	 * milliseconds of game time have been played, and return the outcome.
+	 *
+	 * @pre | state != null
+	 * @pre | script != null
+	 * @pre | maxGameTime >= 0
+	 * @mutates | state
+	 * @post | result.isWon() == state.isWon()
+	 * @post | result.isDead() == state.isDead()
+	 * @post | result.getBlocksLeft() == state.getBlocks().length
+	 * @post | result.getGameTime() < maxGameTime + BreakoutState.MAX_ELAPSED_TIME
+	 */
+	public static GameResult play(BreakoutState state, InputScript script, long maxGameTime) {
+		int ticks = 0;
+		long gameTime = 0;
+		boolean won = facade.isWon(state);
+		boolean dead = facade.isDead(state);
+		while (!won && !dead && gameTime < maxGameTime) {
+			int paddleDir = script.getPaddleDir(ticks);
+			int elapsedTime = script.getElapsedTime(ticks);
+			if (paddleDir < 0) {
+				facade.movePaddleLeft(state, elapsedTime);
+			} else if (paddleDir > 0) {
+				facade.movePaddleRight(state, elapsedTime);
+			}
+			facade.tick(state, paddleDir, elapsedTime);
+			ticks++;
+			// a script of zero-length ticks would never run out of time
+			gameTime += Math.max(1, elapsedTime);
+			won = facade.isWon(state);
+			dead = facade.isDead(state);
+		}
+		return new GameResult(won, dead, ticks, gameTime, facade.getBlocksLen(state));
+	}
+
+	/**
+	 * Play game `i` of `states` with script `i` of `scripts` until it is won or lost, or until
+	 * `maxGameTime` milliseconds of game time have been played, all games in parallel, and return
+	 * the outcome of each game at its index.
+	 *
+	 * The states must be distinct objects, as each one is played by its own worker.
+	 *
+	 * @throws IllegalArgumentException | states == null || scripts == null
+	 * @throws IllegalArgumentException | states.length != scripts.length
+	 * @throws IllegalArgumentException | Arrays.stream(states).anyMatch(s -> s == null)
+	 * @throws IllegalArgumentException | Arrays.stream(scripts).anyMatch(s -> s == null)
+	 * @throws IllegalArgumentException | states.length != Set.of(states).size()
+	 * @throws IllegalArgumentException | maxGameTime < 0
+	 * @mutates | ...states
+	 * @post | result.length == states.length
+	 * @post | Arrays.stream(result).allMatch(r -> r != null)
+	 */
+	public GameResult[] run(BreakoutState[] states, InputScript[] scripts, long maxGameTime) {
+		if (states == null || scripts == null)
+			throw new IllegalArgumentException("The states and scripts must not be null");
+		if (states.length != scripts.length)
+			throw new IllegalArgumentException("There must be a script for every state");
+		if (Arrays.stream(states).anyMatch(s -> s == null) || Arrays.stream(scripts).anyMatch(s -> s == null))
+			throw new IllegalArgumentException("The states and scripts must not contain null");
+		Set<BreakoutState> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+		if (!distinct.addAll(Arrays.asList(states)) || distinct.size() != states.length)
+			throw new IllegalArgumentException("The states must be distinct objects");
+		if (maxGameTime < 0)
+			throw new IllegalArgumentException("The maximum game time must not be negative");
+		GameResult[] results = new GameResult[states.length];
+		pool.invoke(new PlayGames(states, scripts, maxGameTime, results, 0, states.length));
+		return results;
+	}
+
+	/**
+	 * Play every script from its own copy of `start`, all games in parallel, and return the outcome of
+	 * the game with script `i` at index `i`. `start` itself is left alone.
+	 *
+	 * @throws IllegalArgumentException | start == null || scripts == null
+	 * @throws IllegalArgumentException | Arrays.stream(scripts).anyMatch(s -> s == null)
+	 * @throws IllegalArgumentException | maxGameTime < 0
+	 * @inspects | start
+	 * @post | result.length == scripts.length
+	 * @post | Arrays.stream(result).allMatch(r -> r != null)
+	 */
+	public GameResult[] run(BreakoutState start, InputScript[] scripts, long maxGameTime) {
+		if (start == null || scripts == null)
+			throw new IllegalArgumentException("The start state and scripts must not be null");
+		BreakoutState[] states = new BreakoutState[scripts.length];
+		for (int i = 0; i < states.length; i++) {
+			// copying skips the checks a state built from its balls and alphas would go through
+			states[i] = facade.copyState(start);
+		}
+		return run(states, scripts, maxGameTime);
+	}
+
+	@SuppressWarnings("serial")
+	private static class PlayGames extends RecursiveAction {
+		private final BreakoutState[] states;
+		private final InputScript[] scripts;
+		private final long maxGameTime;
+		private final GameResult[] results;
+		private final int from;
+		private final int to;
+
+		PlayGames(BreakoutState[] states, InputScript[] scripts, long maxGameTime, GameResult[] results,
+				int from, int to) {
+			this.states = states;
+			this.scripts = scripts;
+			this.maxGameTime = maxGameTime;
+			this.results = results;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from == 1) {
+				results[from] = play(states[from], scripts[from], maxGameTime);
+			} else if (to > from) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new PlayGames(states, scripts, maxGameTime, results, from, middle),
+						new PlayGames(states, scripts, maxGameTime, results, middle, to));
+			}
+		}
+	}
+}
@@ -0,0 +1,108 @@
+package breakout.batch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import breakout.BreakoutFacade;
+import breakout.BreakoutState;
+import breakout.gui.BreakoutApplication;
+
+class BatchSimulatorTest {
+	BreakoutFacade facade = new BreakoutFacade();
+	ForkJoinPool pool;
+	BatchSimulator simulator;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		pool = new ForkJoinPool(4);
+		simulator = new BatchSimulator(pool);
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		pool.shutdown();
+	}
+
+	InputScript randomScript(Random random, int length) {
+		int[] paddleDirs = new int[length];
+		int[] elapsedTimes = new int[length];
+		for (int i = 0; i < length; i++) {
+			paddleDirs[i] = random.nextInt(3) - 1;
+			elapsedTimes[i] = 1 + random.nextInt(BreakoutState.MAX_ELAPSED_TIME);
+		}
+		return new InputScript(paddleDirs, elapsedTimes);
+	}
+
+	BreakoutState level(int i) {
+		return facade.createStateFromDescription(i % 2 == 0 ? BreakoutApplication.initMap : BreakoutApplication.initMap2);
+	}
+
+	@Test
+	void testIdleGameIsLost() {
+		GameResult result = BatchSimulator.play(level(0), InputScript.idle(), 600_000);
+		assertTrue(result.isDead());
+		assertFalse(result.isWon());
+		assertEquals(40, result.getBlocksLeft());
+		assertEquals(result.getTicks() * (long) InputScript.IDLE_ELAPSED_TIME, result.getGameTime());
+	}
+
+	@Test
+	void testTimeBudget() {
+		GameResult result = BatchSimulator.play(level(0), InputScript.idle(), 100);
+		assertTrue(result.isUnfinished());
+		assertEquals(5, result.getTicks());
+		assertEquals(100, result.getGameTime());
+	}
+
+	@Test
+	void testParallelRunMatchesSequentialPlay() {
+		Random random = new Random(7);
+		int games = 64;
+		BreakoutState[] states = new BreakoutState[games];
+		InputScript[] scripts = new InputScript[games];
+		GameResult[] expected = new GameResult[games];
+		for (int i = 0; i < games; i++) {
+			scripts[i] = randomScript(random, 200 + random.nextInt(2000));
+			states[i] = level(i);
+			expected[i] = BatchSimulator.play(level(i), scripts[i], 60_000);
+		}
+		assertArrayEquals(expected, simulator.run(states, scripts, 60_000));
+	}
+
+	@Test
+	void testRunFromStartMatchesFreshStates() {
+		Random random = new Random(8);
+		int games = 16;
+		InputScript[] scripts = new InputScript[games];
+		GameResult[] expected = new GameResult[games];
+		for (int i = 0; i < games; i++) {
+			scripts[i] = randomScript(random, 200 + random.nextInt(2000));
+			expected[i] = BatchSimulator.play(level(0), scripts[i], 60_000);
+		}
+		BreakoutState start = level(0);
+		assertArrayEquals(expected, simulator.run(start, scripts, 60_000));
+		assertEquals(40, facade.getBlocksLen(start));
+	}
+
+	@Test
+	void testRunRejectsSharedStates() {
+		BreakoutState state = level(0);
+		assertThrows(IllegalArgumentException.class, () -> simulator.run(new BreakoutState[] { state, state },
+				new InputScript[] { InputScript.idle(), InputScript.idle() }, 1000));
+		assertThrows(IllegalArgumentException.class, () -> simulator.run(new BreakoutState[] { state },
+				new InputScript[0], 1000));
+	}
+
+	@Test
+	void testInputScriptRejectsBadInput() {
+		assertThrows(IllegalArgumentException.class, () -> new InputScript(new int[] { 2 }, new int[] { 20 }));
+		assertThrows(IllegalArgumentException.class, () -> new InputScript(new int[] { 0 }, new int[] { -1 }));
+		assertThrows(IllegalArgumentException.class, () -> new InputScript(new int[] { 0 }, new int[0]));
+	}
+}
@@ -0,0 +1,92 @@
+package breakout.batch;
+
+import java.util.Objects;
+
+/**
+ * The outcome of a game played by a `BatchSimulator`.
+ * 
+ * @immutable
+ * @invar | !(isWon() && isDead())
+ * @invar | getTicks() >= 0
+ * @invar | getGameTime() >= 0
+ * @invar | getBlocksLeft() >= 0
+ */
+public class GameResult {
+
+	private final boolean won;
+	private final boolean dead;
+	private final int ticks;
+	private final long gameTime;
+	private final int blocksLeft;
+
+	/**
+	 * @pre | !(won && dead)
+	 * @pre | ticks >= 0
+	 * @pre | gameTime >= 0
+	 * @pre | blocksLeft >= 0
+	 * @post | isWon() == won
+	 * @post | isDead() == dead
+	 * @post | getTicks() == ticks
+	 * @post | getGameTime() == gameTime
+	 * @post | getBlocksLeft() == blocksLeft
+	 */
+	public GameResult(boolean won, boolean dead, int ticks, long gameTime, int blocksLeft) {
+		this.won = won;
+		this.dead = dead;
+		this.ticks = ticks;
+		this.gameTime = gameTime;
+		this.blocksLeft = blocksLeft;
+	}
+
+	/** Return whether the game was won. */
+	public boolean isWon() {
+		return won;
+	}
+
+	/** Return whether the game was lost. */
+	public boolean isDead() {
+		return dead;
+	}
+
+	/** Return whether the game ran out of time before it was won or lost. */
+	public boolean isUnfinished() {
+		return !won && !dead;
+	}
+
+	/** Return the number of ticks that were played. */
+	public int getTicks() {
+		return ticks;
+	}
+
+	/** Return the number of milliseconds of game time that were played. */
+	public long getGameTime() {
+		return gameTime;
+	}
+
+	/** Return the number of blocks left at the end of the game. */
+	public int getBlocksLeft() {
+		return blocksLeft;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(won, dead, ticks, gameTime, blocksLeft);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null || getClass() != obj.getClass())
+			return false;
+		GameResult other = (GameResult) obj;
+		return won == other.won && dead == other.dead && ticks == other.ticks && gameTime == other.gameTime
+				&& blocksLeft == other.blocksLeft;
+	}
+
+	@Override
+	public String toString() {
+		return "GameResult[won=" + won + ", dead=" + dead + ", ticks=" + ticks + ", gameTime=" + gameTime
+				+ ", blocksLeft=" + blocksLeft + "]";
+	}
+}
@@ -0,0 +1,100 @@
+package breakout.batch;
+
+import java.util.Arrays;
+
+import breakout.BreakoutState;
+
+/**
+ * The input of a game played without a GUI: for each tick, the direction the paddle is moved in
+ * (-1, 0 or 1) and the number of milliseconds that elapse.
+ * 
+ * After the last tick of the script the paddle stands still and ticks last `IDLE_ELAPSED_TIME` milliseconds,
+ * so every script can be played for as long as needed.
+ * 
+ * @immutable
+ * @invar | getLength() >= 0
+ * @invar | IntStream.range(0, getLength()).allMatch(i -> -1 <= getPaddleDir(i) && getPaddleDir(i) <= 1)
+ * @invar | IntStream.range(0, getLength()).allMatch(i ->
+ *        | 	0 <= getElapsedTime(i) && getElapsedTime(i) <= BreakoutState.MAX_ELAPSED_TIME)
+ */
+public class InputScript {
+
+	/** The length of a tick after the end of a script: the delay of the GUI's timer. */
+	public static final int IDLE_ELAPSED_TIME = 20;
+
+	private static final InputScript IDLE = new InputScript(new int[0], new int[0]);
+
+	/**
+	 * @invar | paddleDirs != null && elapsedTimes != null
+	 * @invar | paddleDirs.length == elapsedTimes.length
+	 * @representationObject
+	 */
+	private final int[] paddleDirs;
+	/**
+	 * @representationObject
+	 */
+	private final int[] elapsedTimes;
+
+	/**
+	 * Return a script in which the paddle never moves.
+	 * 
+	 * @post | result.getLength() == 0
+	 */
+	public static InputScript idle() {
+		return IDLE;
+	}
+
+	/**
+	 * Initialize this script with the given paddle directions and elapsed times, one of each per tick.
+	 * 
+	 * @throws IllegalArgumentException | paddleDirs == null
+	 * @throws IllegalArgumentException | elapsedTimes == null
+	 * @throws IllegalArgumentException | paddleDirs.length != elapsedTimes.length
+	 * @throws IllegalArgumentException | !Arrays.stream(paddleDirs).allMatch(d -> -1 <= d && d <= 1)
+	 * @throws IllegalArgumentException
+	 *         | !Arrays.stream(elapsedTimes).allMatch(t -> 0 <= t && t <= BreakoutState.MAX_ELAPSED_TIME)
+	 * @inspects | paddleDirs, elapsedTimes
+	 * @post | getLength() == paddleDirs.length
+	 * @post | IntStream.range(0, getLength()).allMatch(i -> getPaddleDir(i) == paddleDirs[i])
+	 * @post | IntStream.range(0, getLength()).allMatch(i -> getElapsedTime(i) == elapsedTimes[i])
+	 */
+	public InputScript(int[] paddleDirs, int[] elapsedTimes) {
+		if (paddleDirs == null || elapsedTimes == null)
+			throw new IllegalArgumentException("The paddle directions and elapsed times must not be null");
+		if (paddleDirs.length != elapsedTimes.length)
+			throw new IllegalArgumentException("There must be as many paddle directions as elapsed times");
+		if (!Arrays.stream(paddleDirs).allMatch(d -> -1 <= d && d <= 1))
+			throw new IllegalArgumentException("Paddle directions must be -1, 0 or 1");
+		if (!Arrays.stream(elapsedTimes).allMatch(t -> 0 <= t && t <= BreakoutState.MAX_ELAPSED_TIME))
+			throw new IllegalArgumentException("Elapsed times must lie between 0 and BreakoutState.MAX_ELAPSED_TIME");
+		this.paddleDirs = paddleDirs.clone();
+		this.elapsedTimes = elapsedTimes.clone();
+	}
+
+	/**
+	 * Return the number of ticks given by this script.
+	 */
+	public int getLength() {
+		return paddleDirs.length;
+	}
+
+	/**
+	 * Return the direction the paddle moves in during tick `i`.
+	 * 
+	 * @pre | i >= 0
+	 * @post | result == (i < getLength() ? paddleDirs[i] : 0)
+	 */
+	public int getPaddleDir(int i) {
+		return i < paddleDirs.length ? paddleDirs[i] : 0;
+	}
+
+	/**
+	 * Return the number of milliseconds that elapse during tick `i`.
+	 * 
+	 * @pre | i >= 0
+	 * @post | result == (i < getLength() ? elapsedTimes[i] : IDLE_ELAPSED_TIME)
+	 */
+	public int getElapsedTime(int i) {
+		return i < elapsedTimes.length ? elapsedTimes[i] : IDLE_ELAPSED_TIME;
+	}
+}
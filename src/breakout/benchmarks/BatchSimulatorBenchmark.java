@@ -0,0 +1,95 @@
+package breakout.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import breakout.BreakoutFacade;
+import breakout.BreakoutState;
+import breakout.batch.BatchSimulator;
+import breakout.batch.GameResult;
+import breakout.batch.InputScript;
+import breakout.gui.BreakoutApplication;
+
+/**
+ * Measures the throughput of `BatchSimulator` in games per second for pools of 1, 2, 4, ... workers
+ * up to the number of available processors, and the speedup over a single worker.
+ *
+ * Run with `java breakout.benchmarks.BatchSimulatorBenchmark`.
+ */
+public class BatchSimulatorBenchmark {
+
+	private static final int GAMES = 2_000;
+	private static final long MAX_GAME_TIME = 120_000;
+	private static final int SCRIPT_LENGTH = 3_000;
+
+	private static final BreakoutFacade facade = new BreakoutFacade();
+
+	private BatchSimulatorBenchmark() {
+		throw new AssertionError("This class is not intended to be instantiated");
+	}
+
+	private static InputScript[] createScripts(long seed) {
+		Random random = new Random(seed);
+		InputScript[] scripts = new InputScript[GAMES];
+		for (int i = 0; i < GAMES; i++) {
+			int[] paddleDirs = new int[SCRIPT_LENGTH];
+			int[] elapsedTimes = new int[SCRIPT_LENGTH];
+			int paddleDir = 0;
+			for (int k = 0; k < SCRIPT_LENGTH; k++) {
+				// hold a key for a while, like a player does
+				if (random.nextInt(10) == 0)
+					paddleDir = random.nextInt(3) - 1;
+				paddleDirs[k] = paddleDir;
+				elapsedTimes[k] = 15 + random.nextInt(10);
+			}
+			scripts[i] = new InputScript(paddleDirs, elapsedTimes);
+		}
+		return scripts;
+	}
+
+	private static BreakoutState[] createStates() {
+		BreakoutState[] states = new BreakoutState[GAMES];
+		for (int i = 0; i < GAMES; i++) {
+			states[i] = facade.createStateFromDescription(
+					i % 2 == 0 ? BreakoutApplication.initMap : BreakoutApplication.initMap2);
+		}
+		return states;
+	}
+
+	private static long time(int workers, InputScript[] scripts) {
+		ForkJoinPool pool = new ForkJoinPool(workers);
+		try {
+			BatchSimulator simulator = new BatchSimulator(pool);
+			BreakoutState[] states = createStates();
+			long start = System.nanoTime();
+			GameResult[] results = simulator.run(states, scripts, MAX_GAME_TIME);
+			long time = System.nanoTime() - start;
+			if (results.length != GAMES)
+				throw new AssertionError();
+			return time;
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	// 1, 2, 4, ... and finally all processors
+	private static int nextWorkerCount(int workers, int processors) {
+		return workers < processors ? Math.min(workers * 2, processors) : workers + 1;
+	}
+
+	public static void main(String[] args) {
+		InputScript[] scripts = createScripts(42);
+		int processors = Runtime.getRuntime().availableProcessors();
+		// warm up on all cores
+		time(processors, scripts);
+		System.out.printf("%8s %14s %10s%n", "workers", "games/s", "speedup");
+		double single = 0;
+		for (int workers = 1; workers <= processors; workers = nextWorkerCount(workers, processors)) {
+			long time = time(workers, scripts);
+			double gamesPerSecond = GAMES / (time / 1e9);
+			if (workers == 1)
+				single = gamesPerSecond;
+			System.out.printf("%8d %14.1f %10.2f%n", workers, gamesPerSecond, gamesPerSecond / single);
+		}
+	}
+}
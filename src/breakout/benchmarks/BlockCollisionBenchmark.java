@@ -0,0 +1,94 @@
+package breakout.benchmarks;
+
+import breakout.BlockState;
+import breakout.BreakoutFacade;
+import breakout.BreakoutState;
+import breakout.radioactivity.Ball;
+import breakout.utils.Point;
+import breakout.utils.Vector;
+
+/**
+ * Measures how the cost of a tick scales with the number of blocks, from the 80-cell grid of
+ * `GameMap` up to 100k blocks, next to the cost of testing every ball against every block.
+ * 
+ * Run with `java breakout.benchmarks.BlockCollisionBenchmark`.
+ */
+public class BlockCollisionBenchmark {
+
+	private static final int[] BLOCK_COUNTS = { 80, 1_000, 10_000, 100_000 };
+	private static final int BALLS = 100;
+	private static final int TICKS = 200;
+	// same block cells as GameMap
+	private static final int CELL_WIDTH = 5000;
+	private static final int CELL_HEIGHT = 3750;
+
+	private static final BreakoutFacade facade = new BreakoutFacade();
+
+	private BlockCollisionBenchmark() {
+		throw new AssertionError("This class is not intended to be instantiated");
+	}
+
+	/**
+	 * Return a state with `nbBlocks` blocks laid out like `GameMap` does, with the balls flying around
+	 * in an empty area of the same size below them.
+	 */
+	static BreakoutState createState(int nbBlocks) {
+		int columns = (int) Math.ceil(Math.sqrt(nbBlocks * 10 / 8.0));
+		int rows = (nbBlocks + columns - 1) / columns;
+		Point bottomRight = new Point(columns * CELL_WIDTH, 2 * rows * CELL_HEIGHT + CELL_HEIGHT);
+		BlockState[] blocks = new BlockState[nbBlocks];
+		for (int i = 0; i < nbBlocks; i++) {
+			Point topLeft = new Point((i % columns) * CELL_WIDTH + 20, (i / columns) * CELL_HEIGHT + 20);
+			blocks[i] = facade.createNormalBlockState(topLeft, topLeft.plus(new Vector(CELL_WIDTH - 70, CELL_HEIGHT - 70)));
+		}
+		Ball[] balls = new Ball[BALLS];
+		for (int i = 0; i < BALLS; i++) {
+			Point center = new Point((int) ((long) bottomRight.getX() * (i + 1) / (BALLS + 1)),
+					rows * CELL_HEIGHT + CELL_HEIGHT * (1 + i % rows));
+			balls[i] = facade.createNormalBall(center, 700, new Vector(4 - i % 9, 5 - i % 11));
+		}
+		return facade.createBreakoutState(balls, blocks, bottomRight,
+				facade.createNormalPaddleState(new Point(bottomRight.getX() / 2, bottomRight.getY() - CELL_HEIGHT / 2)));
+	}
+
+	private static long timeTicks(BreakoutState state) {
+		long start = System.nanoTime();
+		for (int i = 0; i < TICKS; i++) {
+			state.tick(0, 20);
+		}
+		return System.nanoTime() - start;
+	}
+
+	private static long timeLinearScan(BreakoutState state) {
+		Ball[] balls = state.getBalls();
+		BlockState[] blocks = state.getBlocks();
+		int found = 0;
+		long start = System.nanoTime();
+		for (int i = 0; i < TICKS; i++) {
+			for (Ball ball : balls) {
+				for (BlockState block : blocks) {
+					if (ball.collidesWith(block.getLocation())) {
+						found++;
+						break;
+					}
+				}
+			}
+		}
+		long time = System.nanoTime() - start;
+		if (found < 0)
+			throw new AssertionError();
+		return time;
+	}
+
+	public static void main(String[] args) {
+		System.out.printf("%10s %18s %22s%n", "blocks", "tick (us/tick)", "linear scan (us/tick)");
+		for (int nbBlocks : BLOCK_COUNTS) {
+			// warm up on a throwaway state, then measure on a fresh one
+			timeTicks(createState(nbBlocks));
+			timeLinearScan(createState(nbBlocks));
+			long tick = timeTicks(createState(nbBlocks));
+			long linear = timeLinearScan(createState(nbBlocks));
+			System.out.printf("%10d %18.1f %22.1f%n", nbBlocks, tick / 1000.0 / TICKS, linear / 1000.0 / TICKS);
+		}
+	}
+}
@@ -0,0 +1,63 @@
+package breakout.benchmarks;
+
+import java.util.function.Supplier;
+
+import breakout.BreakoutFacade;
+import breakout.BreakoutState;
+import breakout.gui.BreakoutApplication;
+
+/**
+ * Measures the cost of simulating one minute of game time with `BreakoutFacade.fastForward`, next to
+ * ticking through it 20 milliseconds at a time with `BreakoutFacade.tickDuring`.
+ *
+ * Run with `java breakout.benchmarks.FastForwardBenchmark`.
+ */
+public class FastForwardBenchmark {
+
+	private static final int GAME_TIME = 60_000;
+	private static final int WARMUP_ROUNDS = 100;
+	private static final int ROUNDS = 50;
+
+	private static final BreakoutFacade facade = new BreakoutFacade();
+
+	private FastForwardBenchmark() {
+		throw new AssertionError("This class is not intended to be instantiated");
+	}
+
+	private static long timeTickDuring(Supplier<BreakoutState> states, int rounds) {
+		long total = 0;
+		for (int i = 0; i < rounds; i++) {
+			BreakoutState state = states.get();
+			long start = System.nanoTime();
+			facade.tickDuring(state, GAME_TIME);
+			total += System.nanoTime() - start;
+		}
+		return total / rounds;
+	}
+
+	private static long timeFastForward(Supplier<BreakoutState> states, int rounds) {
+		long total = 0;
+		for (int i = 0; i < rounds; i++) {
+			BreakoutState state = states.get();
+			long start = System.nanoTime();
+			facade.fastForward(state, GAME_TIME);
+			total += System.nanoTime() - start;
+		}
+		return total / rounds;
+	}
+
+	private static void run(String name, Supplier<BreakoutState> states) {
+		// warm up, then measure
+		timeTickDuring(states, WARMUP_ROUNDS);
+		timeFastForward(states, WARMUP_ROUNDS);
+		long ticked = timeTickDuring(states, ROUNDS);
+		long forwarded = timeFastForward(states, ROUNDS);
+		System.out.printf("%-24s %20.1f %20.1f%n", name, ticked / 1000.0, forwarded / 1000.0);
+	}
+
+	public static void main(String[] args) {
+		System.out.printf("%-24s %20s %20s%n", "one minute of", "tickDuring (us)", "fastForward (us)");
+		run("initMap", () -> facade.createStateFromDescription(BreakoutApplication.initMap));
+		run("100 balls, 1000 blocks", () -> BlockCollisionBenchmark.createState(1_000));
+	}
+}
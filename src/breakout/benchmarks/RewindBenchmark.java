@@ -0,0 +1,110 @@
+package breakout.benchmarks;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+import breakout.BreakoutFacade;
+import breakout.BreakoutState;
+import breakout.RewindBuffer;
+import breakout.gui.BreakoutApplication;
+
+/**
+ * Measures what rollback-based online play costs with a `RewindBuffer`: saving a checkpoint every tick,
+ * next to deep copying the state through `getBalls()`/`getAlphas()` every tick, and rolling back eight
+ * ticks and playing them again, which has to fit well inside a 20 millisecond frame.
+ *
+ * Run with `java breakout.benchmarks.RewindBenchmark`.
+ */
+public class RewindBenchmark {
+
+	private static final int FRAMES = 8;
+	private static final int TICKS = 2_000;
+	private static final int WARMUP_ROUNDS = 5;
+	private static final int ROUNDS = 5;
+
+	private static final BreakoutFacade facade = new BreakoutFacade();
+
+	private RewindBenchmark() {
+		throw new AssertionError("This class is not intended to be instantiated");
+	}
+
+	private static int paddleDir(long tick) {
+		return (int) (tick / 50 % 3) - 1;
+	}
+
+	// Nanoseconds per tick spent saving a checkpoint.
+	private static long timeSave(Supplier<BreakoutState> states) {
+		BreakoutState state = states.get();
+		RewindBuffer buffer = new RewindBuffer(FRAMES);
+		long total = 0;
+		for (int t = 0; t < TICKS; t++) {
+			long start = System.nanoTime();
+			buffer.save(t, state);
+			total += System.nanoTime() - start;
+			state.tick(paddleDir(t), 20);
+		}
+		return total / TICKS;
+	}
+
+	// Nanoseconds per tick spent deep copying the state through its Ball and Alpha objects.
+	private static long timeDeepCopy(Supplier<BreakoutState> states) {
+		BreakoutState state = states.get();
+		long total = 0;
+		for (int t = 0; t < TICKS; t++) {
+			long start = System.nanoTime();
+			new BreakoutState(facade.getAlphas(state), facade.getBalls(state), facade.getBlocks(state),
+					facade.getBottomRight(state), facade.getPaddle(state));
+			total += System.nanoTime() - start;
+			state.tick(paddleDir(t), 20);
+		}
+		return total / TICKS;
+	}
+
+	// Nanoseconds per rollback of `FRAMES` ticks followed by playing them again.
+	private static long timeRollback(Supplier<BreakoutState> states) {
+		BreakoutState state = states.get();
+		RewindBuffer buffer = new RewindBuffer(FRAMES);
+		int[] paddleDirs = new int[FRAMES];
+		int[] elapsedTimes = new int[FRAMES];
+		Arrays.fill(elapsedTimes, 20);
+		long total = 0;
+		int rollbacks = 0;
+		for (int t = 0; t < TICKS; t++) {
+			if (t >= FRAMES && t % FRAMES == 0) {
+				for (int i = 0; i < FRAMES; i++)
+					paddleDirs[i] = -paddleDir(t - FRAMES + i);
+				long start = System.nanoTime();
+				state = buffer.resimulate(t - FRAMES, paddleDirs, elapsedTimes);
+				total += System.nanoTime() - start;
+				rollbacks++;
+			}
+			buffer.save(t, state);
+			state.tick(paddleDir(t), 20);
+		}
+		return total / rollbacks;
+	}
+
+	private static void run(String name, Supplier<BreakoutState> states) {
+		for (int i = 0; i < WARMUP_ROUNDS; i++) {
+			timeSave(states);
+			timeDeepCopy(states);
+			timeRollback(states);
+		}
+		long saved = 0;
+		long copied = 0;
+		long rolledBack = 0;
+		for (int i = 0; i < ROUNDS; i++) {
+			saved += timeSave(states);
+			copied += timeDeepCopy(states);
+			rolledBack += timeRollback(states);
+		}
+		System.out.printf("%-24s %16.2f %16.2f %20.1f%n", name, saved / 1000.0 / ROUNDS, copied / 1000.0 / ROUNDS,
+				rolledBack / 1000.0 / ROUNDS);
+	}
+
+	public static void main(String[] args) {
+		System.out.printf("%-24s %16s %16s %20s%n", "state", "save (us)", "deep copy (us)", "rollback 8 (us)");
+		run("initMap", () -> facade.createStateFromDescription(BreakoutApplication.initMap));
+		run("100 balls, 1000 blocks", () -> BlockCollisionBenchmark.createState(1_000));
+	}
+}
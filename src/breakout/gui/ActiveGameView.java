@@ -0,0 +1,127 @@
+package breakout.gui;
+
+import java.awt.Canvas;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
+import java.util.concurrent.locks.LockSupport;
+
+import breakout.BreakoutState;
+import breakout.replay.InputRecorder;
+
+/**
+ * A view for playing breakout that renders actively: rather than asking Swing to repaint it, a render
+ * thread of its own paints every frame into a `BufferStrategy` and shows it, at a target frame rate.
+ * Frames are paced by a `FramePacer`, and the game is played by a `Simulation` like in `GameView`; each
+ * frame shows the game as it is at the time the frame is due.
+ */
+@SuppressWarnings("serial")
+public class ActiveGameView extends Canvas {
+
+	/** The frame rate of a view for which none is given. */
+	public static final int DEFAULT_FRAMES_PER_SECOND = 60;
+	// the frame times the statistics are about
+	private static final int STATS_WINDOW = 300;
+	// how long before a frame is due the render thread stops sleeping and spins, because waking up from a
+	// sleep can take longer than asked
+	private static final long SPIN_NANOS = 1_000_000;
+
+	private final Simulation simulation;
+	private final FramePainter painter = new FramePainter();
+	private final int framesPerSecond;
+	private final FrameStats stats;
+	private volatile boolean stopped;
+
+	/**
+	 * Create a view for playing breakout starting from `breakoutState`, recording the player's input with
+	 * `recorder` unless it is null, showing `framesPerSecond` frames a second. The game starts when the view
+	 * is started.
+	 *
+	 * @throws IllegalArgumentException | framesPerSecond < 1
+	 */
+	public ActiveGameView(BreakoutState breakoutState, InputRecorder recorder, int framesPerSecond) {
+		if (framesPerSecond < 1)
+			throw new IllegalArgumentException("The frame rate must be at least 1");
+		this.framesPerSecond = framesPerSecond;
+		this.stats = new FrameStats(1_000_000_000L / framesPerSecond, STATS_WINDOW);
+		this.simulation = new Simulation(breakoutState, recorder, () -> {}, won -> {
+			stopped = true;
+			GameView.showGameOver(this, won);
+		});
+
+		setBackground(Color.black);
+		// the render thread paints everything
+		setIgnoreRepaint(true);
+		setFocusable(true);
+		addKeyListener(simulation.keyListener());
+	}
+
+	@Override
+	public Dimension getPreferredSize() {
+		return GameView.preferredSize(simulation.getFrame().bottomRight);
+	}
+
+	/** Return the statistics about the frames shown so far. */
+	FrameStats getFrameStats() {
+		return stats;
+	}
+
+	/**
+	 * Start playing the game and showing it. The view must be displayable, for instance because it is in
+	 * a window that is visible.
+	 */
+	public void start() {
+		createBufferStrategy(2);
+		simulation.start();
+		Thread renderer = new Thread(this::render, "Breakout renderer");
+		renderer.setDaemon(true);
+		renderer.start();
+	}
+
+	/** Stop playing the game and showing it. */
+	public void stop() {
+		stopped = true;
+		simulation.stop();
+	}
+
+	private void render() {
+		BufferStrategy strategy = getBufferStrategy();
+		FramePacer pacer = new FramePacer(framesPerSecond, System.nanoTime());
+		while (!stopped) {
+			renderFrame(strategy, pacer.getNextFrameTime());
+			long now = System.nanoTime();
+			stats.frameShown(now, pacer.frameShown(now));
+			sleepUntil(pacer.getNextFrameTime());
+		}
+	}
+
+	private void renderFrame(BufferStrategy strategy, long due) {
+		// the buffers can be lost, for instance when the display mode changes, in which case the frame is
+		// painted again
+		do {
+			do {
+				Graphics g = strategy.getDrawGraphics();
+				try {
+					g.setColor(getBackground());
+					g.fillRect(0, 0, getWidth(), getHeight());
+					painter.paint(g, simulation.getFrame(), due, getBackground());
+				} finally {
+					g.dispose();
+				}
+			} while (strategy.contentsRestored());
+			strategy.show();
+		} while (strategy.contentsLost());
+		Toolkit.getDefaultToolkit().sync();
+	}
+
+	private static void sleepUntil(long time) {
+		for (long left = time - System.nanoTime(); left > 0; left = time - System.nanoTime()) {
+			if (left > SPIN_NANOS)
+				LockSupport.parkNanos(left - SPIN_NANOS);
+			else
+				Thread.onSpinWait();
+		}
+	}
+}
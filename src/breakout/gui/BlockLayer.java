@@ -0,0 +1,112 @@
+package breakout.gui;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+
+import breakout.BlockState;
+import breakout.utils.Point;
+import breakout.utils.Rect;
+
+/**
+ * The blocks of a game painted over the background into an opaque image, so that a frame draws them
+ * with a single `drawImage`, which copies the pixels, rather than a `fillRect` per block. Blocks only
+ * change when they are hit, so the image is brought up to date by repainting just the areas of the
+ * blocks that were hit, destroyed or replaced since it was last painted. Callers pass the same array
+ * for as long as the blocks do not change, which lets the layer skip looking at them.
+ */
+final class BlockLayer {
+
+	private BufferedImage image;
+	private Color background;
+	// the blocks the image shows
+	private BlockState[] blocks;
+
+	// scratch space for `update`
+	private final IdentityHashMap<BlockState, int[]> painted = new IdentityHashMap<>();
+	private final ArrayList<Rectangle> dirty = new ArrayList<>();
+
+	/**
+	 * Paint `blocks` on `background` onto `g`, covering an area of `width` by `height` pixels. The caller
+	 * does not change `blocks` afterwards.
+	 */
+	void paint(Graphics g, BlockState[] blocks, Color background, int width, int height) {
+		update((Graphics2D) g, blocks, background, width, height);
+		g.drawImage(image, 0, 0, null);
+	}
+
+	private void update(Graphics2D target, BlockState[] blocks, Color background, int width, int height) {
+		if (image == null || image.getWidth() != width || image.getHeight() != height
+				|| !background.equals(this.background)) {
+			// in the layout of the screen, which lets Java2D keep a copy in video memory while it does not change
+			image = target.getDeviceConfiguration().createCompatibleImage(width, height);
+			this.background = background;
+			this.blocks = null;
+		} else if (blocks == this.blocks) {
+			return;
+		}
+		Graphics2D g = image.createGraphics();
+		try {
+			if (this.blocks == null) {
+				g.setColor(background);
+				g.fillRect(0, 0, width, height);
+				paintBlocks(g, blocks, null);
+			} else {
+				for (Rectangle area : findChanges(this.blocks, blocks)) {
+					g.setClip(area);
+					g.setColor(background);
+					g.fillRect(area.x, area.y, area.width, area.height);
+					paintBlocks(g, blocks, area);
+				}
+			}
+		} finally {
+			g.dispose();
+		}
+		this.blocks = blocks;
+	}
+
+	// Return the areas of the blocks that are in one of `before` and `after` but not in the other, with
+	// blocks that occur more than once counted as often as they occur.
+	private ArrayList<Rectangle> findChanges(BlockState[] before, BlockState[] after) {
+		painted.clear();
+		dirty.clear();
+		for (BlockState block : before) {
+			painted.computeIfAbsent(block, b -> new int[1])[0]++;
+		}
+		for (BlockState block : after) {
+			int[] count = painted.get(block);
+			if (count == null || count[0] == 0) {
+				dirty.add(area(block));
+			} else {
+				count[0]--;
+			}
+		}
+		painted.forEach((block, count) -> {
+			if (count[0] > 0)
+				dirty.add(area(block));
+		});
+		return dirty;
+	}
+
+	// Paint the blocks that overlap `area`, or all blocks if `area` is null.
+	private static void paintBlocks(Graphics g, BlockState[] blocks, Rectangle area) {
+		for (BlockState block : blocks) {
+			Rectangle location = area(block);
+			if (area == null || area.intersects(location)) {
+				g.setColor(block.getColor());
+				g.fillRect(location.x, location.y, location.width, location.height);
+			}
+		}
+	}
+
+	private static Rectangle area(BlockState block) {
+		Rect location = block.getLocation();
+		Point tl = GameView.toGUICoord(location.getTopLeft());
+		Point br = GameView.toGUICoord(location.getBottomRight());
+		return new Rectangle(tl.getX(), tl.getY(), br.getX() - tl.getX(), br.getY() - tl.getY());
+	}
+}
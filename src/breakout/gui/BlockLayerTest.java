@@ -0,0 +1,71 @@
+package breakout.gui;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import org.junit.jupiter.api.Test;
+
+import breakout.BlockState;
+import breakout.BreakoutFacade;
+import breakout.BreakoutState;
+import breakout.radioactivity.Ball;
+import breakout.utils.Point;
+import breakout.utils.Vector;
+
+class BlockLayerTest {
+
+	static BufferedImage paint(BlockLayer layer, BreakoutState state, BlockState[] blocks) {
+		Point botRight = GameView.toGUICoord(state.getBottomRight());
+		BufferedImage image = new BufferedImage(botRight.getX() + 1, botRight.getY() + 1, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = image.createGraphics();
+		layer.paint(g, blocks, Color.black, image.getWidth(), image.getHeight());
+		g.dispose();
+		return image;
+	}
+
+	static void assertSamePixels(BufferedImage expected, BufferedImage actual) {
+		for (int y = 0; y < expected.getHeight(); y++) {
+			for (int x = 0; x < expected.getWidth(); x++) {
+				assertEquals(expected.getRGB(x, y), actual.getRGB(x, y), "pixel " + x + ", " + y);
+			}
+		}
+	}
+
+	@Test
+	void testRepaintedAreasMatchAFullRepaint() {
+		BreakoutFacade facade = new BreakoutFacade();
+		BreakoutState map = facade.createStateFromDescription(BreakoutApplication.initMap2);
+		// balls flying up into the blocks
+		Ball[] balls = new Ball[20];
+		for (int i = 0; i < balls.length; i++) {
+			balls[i] = facade.createNormalBall(new Point(1000 + 2400 * i, 20000), 700, new Vector(i % 7 - 3, -8));
+		}
+		BreakoutState state = facade.createBreakoutState(balls, map.getBlocks(), map.getBottomRight(), map.getPaddle());
+		BlockLayer layer = new BlockLayer();
+		paint(layer, state, state.getBlocks());
+		int changes = 0;
+		for (int t = 0; t < 20000 && !state.isDead() && !state.isWon(); t++) {
+			int hits = state.getBlockHitCount();
+			state.tick(0, 20);
+			if (state.getBlockHitCount() != hits) {
+				changes++;
+				BlockState[] blocks = state.getBlocks();
+				assertSamePixels(paint(new BlockLayer(), state, blocks), paint(layer, state, blocks));
+			}
+		}
+		assertTrue(changes > 0);
+	}
+
+	@Test
+	void testOtherBlocksAreRepainted() {
+		BreakoutFacade facade = new BreakoutFacade();
+		BlockLayer layer = new BlockLayer();
+		BreakoutState state = facade.createStateFromDescription(BreakoutApplication.initMap);
+		paint(layer, state, state.getBlocks());
+		BreakoutState other = facade.createStateFromDescription(BreakoutApplication.initMap2);
+		assertSamePixels(paint(new BlockLayer(), other, other.getBlocks()), paint(layer, other, other.getBlocks()));
+	}
+}
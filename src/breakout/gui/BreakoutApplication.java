@@ -1,10 +1,14 @@
 package breakout.gui;
 
 import java.awt.EventQueue;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import javax.swing.JFrame;
+import javax.swing.Timer;
 
 import breakout.BreakoutFacade;
 import breakout.BreakoutState;
+import breakout.replay.InputRecorder;
 
 public class BreakoutApplication {
 
@@ -30,12 +34,48 @@ RSSRR###RR
 
 """;
 	
-	public static void main(String[] args) {
+	/**
+	 * Return a recorder for the input of a game on `map` if the system property `breakout.record` names a
+	 * file to record to, or null otherwise. The log is completed when the application exits.
+	 */
+	private static InputRecorder createRecorder(String map) throws IOException {
+		String path = System.getProperty("breakout.record");
+		if (path == null)
+			return null;
+		InputRecorder recorder = new InputRecorder(new FileOutputStream(path), map);
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			try {
+				recorder.close();
+			} catch (IOException e) {
+				System.err.println("Could not complete the recording: " + e);
+			}
+		}));
+		return recorder;
+	}
+
+	/**
+	 * Return the frame rate for an actively rendered view if the system property `breakout.fps` is set, or
+	 * 0 if the game is to be shown by a `GameView` instead. An empty value means the default frame rate.
+	 */
+	private static int activeFramesPerSecond() {
+		String fps = System.getProperty("breakout.fps");
+		if (fps == null)
+			return 0;
+		return fps.isEmpty() ? ActiveGameView.DEFAULT_FRAMES_PER_SECOND : Integer.parseInt(fps);
+	}
+
+	public static void main(String[] args) throws IOException {
 		BreakoutFacade facade = new BreakoutFacade();
 		BreakoutState state = facade.createStateFromDescription(initMap2);
 //		BreakoutState state = GameMap.someAlphas();
+		InputRecorder recorder = createRecorder(initMap2);
+		int fps = activeFramesPerSecond();
+		if (fps > 0) {
+			EventQueue.invokeLater(() -> showActive(state, recorder, fps));
+			return;
+		}
 		EventQueue.invokeLater(() -> {
-			GameView mazeView = new GameView(state);
+			GameView mazeView = new GameView(state, recorder);
 			JFrame frame = new JFrame("Breakout");
 			frame.getContentPane().add(mazeView);
 			frame.pack();
@@ -45,4 +85,20 @@ RSSRR###RR
 		});
 	}
 
+	// Show the game in an actively rendered view, printing its frame statistics every few seconds if the
+	// system property `breakout.stats` is set.
+	private static void showActive(BreakoutState state, InputRecorder recorder, int fps) {
+		ActiveGameView view = new ActiveGameView(state, recorder, fps);
+		JFrame frame = new JFrame("Breakout");
+		frame.getContentPane().add(view);
+		frame.pack();
+		frame.setLocationRelativeTo(null);
+		frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+		frame.setVisible(true);
+		view.start();
+		view.requestFocus();
+		if (System.getProperty("breakout.stats") != null)
+			new Timer(5000, e -> System.err.println(view.getFrameStats().summary())).start();
+	}
+
 }
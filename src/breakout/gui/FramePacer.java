@@ -0,0 +1,65 @@
+package breakout.gui;
+
+/**
+ * Decides when an actively rendered view shows its frames. Frames are due at a fixed cadence counted from
+ * the first frame, rather than a frame interval after the previous frame was done, so that small delays
+ * do not add up and the frames stay in step with a display refreshing at the target rate. A renderer that
+ * falls a whole frame or more behind skips the frames it missed instead of rushing them out back to back.
+ *
+ * @invar | getFrameNanos() > 0
+ * @invar | getSkippedFrameCount() >= 0
+ */
+final class FramePacer {
+
+	private final long frameNanos;
+	private long due;
+	private long skipped;
+
+	/**
+	 * Initialize this pacer for `framesPerSecond` frames a second, the first of which is due at
+	 * `System.nanoTime` `start`.
+	 *
+	 * @throws IllegalArgumentException | framesPerSecond < 1
+	 * @post | getNextFrameTime() == start
+	 * @post | getSkippedFrameCount() == 0
+	 */
+	FramePacer(int framesPerSecond, long start) {
+		if (framesPerSecond < 1)
+			throw new IllegalArgumentException("The frame rate must be at least 1");
+		this.frameNanos = 1_000_000_000L / framesPerSecond;
+		this.due = start;
+	}
+
+	/** Return the nanoseconds between two frames. */
+	long getFrameNanos() {
+		return frameNanos;
+	}
+
+	/** Return the `System.nanoTime` at which the next frame is due. */
+	long getNextFrameTime() {
+		return due;
+	}
+
+	/** Return the number of frames skipped so far. */
+	long getSkippedFrameCount() {
+		return skipped;
+	}
+
+	/**
+	 * Note that the frame due at `getNextFrameTime()` was shown at `System.nanoTime` `now`, and move on to
+	 * the next frame, skipping the frames whose time has passed entirely. Return the number of frames
+	 * skipped.
+	 *
+	 * @mutates | this
+	 * @post | getNextFrameTime() > now - getFrameNanos()
+	 */
+	int frameShown(long now) {
+		due += frameNanos;
+		long missed = (now - due) / frameNanos;
+		if (missed <= 0)
+			return 0;
+		due += missed * frameNanos;
+		skipped += missed;
+		return (int) Math.min(missed, Integer.MAX_VALUE);
+	}
+}
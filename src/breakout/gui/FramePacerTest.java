@@ -0,0 +1,41 @@
+package breakout.gui;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class FramePacerTest {
+
+	static final long MS = 1_000_000;
+
+	@Test
+	void testFramesAreDueAtAFixedCadence() {
+		FramePacer pacer = new FramePacer(50, 1000 * MS);
+		assertEquals(20 * MS, pacer.getFrameNanos());
+		assertEquals(1000 * MS, pacer.getNextFrameTime());
+		// a frame shown a little late does not push the next ones back
+		assertEquals(0, pacer.frameShown(1005 * MS));
+		assertEquals(1020 * MS, pacer.getNextFrameTime());
+		assertEquals(0, pacer.frameShown(1021 * MS));
+		assertEquals(1040 * MS, pacer.getNextFrameTime());
+		assertEquals(0, pacer.getSkippedFrameCount());
+	}
+
+	@Test
+	void testMissedFramesAreSkipped() {
+		FramePacer pacer = new FramePacer(50, 0);
+		// the first frame took 65 ms: the frames due at 20 and 40 ms were missed entirely, the one due at
+		// 60 ms is late but can still be shown
+		assertEquals(2, pacer.frameShown(65 * MS));
+		assertEquals(60 * MS, pacer.getNextFrameTime());
+		assertEquals(2, pacer.getSkippedFrameCount());
+		assertEquals(0, pacer.frameShown(70 * MS));
+		assertEquals(80 * MS, pacer.getNextFrameTime());
+		assertEquals(2, pacer.getSkippedFrameCount());
+	}
+
+	@Test
+	void testFrameRateMustBePositive() {
+		assertThrows(IllegalArgumentException.class, () -> new FramePacer(0, 0));
+	}
+}
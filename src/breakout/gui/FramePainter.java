@@ -0,0 +1,197 @@
+package breakout.gui;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.util.Arrays;
+
+import breakout.BalphaSnapshot;
+import breakout.BreakoutFacade;
+import breakout.PaddleState;
+import breakout.utils.Point;
+import breakout.utils.Rect;
+import breakout.utils.Vector;
+
+/**
+ * Paints the frames a `Simulation` publishes, for `GameView` and `ActiveGameView`. A painter keeps the
+ * blocks painted between frames, so each view has a painter of its own, used from one thread at a time.
+ */
+final class FramePainter {
+
+	private final BreakoutFacade facade = new BreakoutFacade();
+
+	private final BlockLayer blockLayer = new BlockLayer();
+
+	// where the balls and alphas are painted in the current frame, between two steps of the game
+	private int[] ballX = new int[0];
+	private int[] ballY = new int[0];
+	private int[] alphaX = new int[0];
+	private int[] alphaY = new int[0];
+	// the balls of the current frame grouped by color, their color indices, and the counting sort's counts
+	private int[] ballOrder = new int[0];
+	private int[] ballColor = new int[0];
+	private final int[] colorStart = new int[BalphaSnapshot.BALL_COLOR_COUNT + 1];
+
+	// Return the value `progress` of the way from `from` to `to`.
+	static int interpolate(int from, int to, double progress) {
+		return from + (int) Math.round((to - from) * progress);
+	}
+
+	/**
+	 * Paint `frame` as it is at `System.nanoTime` `now` onto `g`, with the field on `background`.
+	 */
+	void paint(Graphics g, Simulation.Frame frame, long now, Color background) {
+		double progress = frame.progress(now);
+
+		Point botRight = GameView.toGUICoord(frame.bottomRight);
+		paintBlocks(g, frame, background, botRight);
+		g.setColor(Color.black);
+		g.drawRect(0, 0, botRight.getX(), botRight.getY());
+
+		interpolateBalls(frame.previousBalphas, frame.balphas, progress);
+		interpolateAlphas(frame.previousBalphas, frame.balphas, progress);
+		paintBalls(g, frame.balphas);
+		paintAlphas(g, frame.balphas); //squished circles in principle.
+		paintLinks(g, frame.balphas);
+		paintPaddle(g, frame, progress);
+	}
+
+	// Put the balls of `current` where they are `progress` of the way from where they were in `previous`,
+	// telling them apart by their ids. Balls that are new in `current` stay where they are.
+	private void interpolateBalls(BalphaSnapshot previous, BalphaSnapshot current, double progress) {
+		if (ballX.length < current.getBallCount()) {
+			ballX = new int[current.getBallCount()];
+			ballY = new int[current.getBallCount()];
+		}
+		int j = 0;
+		for (int i = 0; i < current.getBallCount(); i++) {
+			while (j < previous.getBallCount() && previous.getBallId(j) < current.getBallId(i))
+				j++;
+			if (j < previous.getBallCount() && previous.getBallId(j) == current.getBallId(i)) {
+				ballX[i] = interpolate(previous.getBallX(j), current.getBallX(i), progress);
+				ballY[i] = interpolate(previous.getBallY(j), current.getBallY(i), progress);
+			} else {
+				ballX[i] = current.getBallX(i);
+				ballY[i] = current.getBallY(i);
+			}
+		}
+	}
+
+	// Like `interpolateBalls`, for the alphas.
+	private void interpolateAlphas(BalphaSnapshot previous, BalphaSnapshot current, double progress) {
+		if (alphaX.length < current.getAlphaCount()) {
+			alphaX = new int[current.getAlphaCount()];
+			alphaY = new int[current.getAlphaCount()];
+		}
+		int j = 0;
+		for (int i = 0; i < current.getAlphaCount(); i++) {
+			while (j < previous.getAlphaCount() && previous.getAlphaId(j) < current.getAlphaId(i))
+				j++;
+			if (j < previous.getAlphaCount() && previous.getAlphaId(j) == current.getAlphaId(i)) {
+				alphaX[i] = interpolate(previous.getAlphaX(j), current.getAlphaX(i), progress);
+				alphaY[i] = interpolate(previous.getAlphaY(j), current.getAlphaY(i), progress);
+			} else {
+				alphaX[i] = current.getAlphaX(i);
+				alphaY[i] = current.getAlphaY(i);
+			}
+		}
+	}
+
+	private void paintPaddle(Graphics g, Simulation.Frame frame, double progress) {
+		// paddle
+		PaddleState paddle = frame.paddle;
+		Point center = paddle.getCenter();
+		Point previousCenter = frame.previousPaddle.getCenter();
+		Vector offset = new Vector(interpolate(previousCenter.getX(), center.getX(), progress) - center.getX(),
+				interpolate(previousCenter.getY(), center.getY(), progress) - center.getY());
+		Rect loc = facade.getLocation(paddle);
+		Color c = facade.getColor(paddle);
+		Point tl = loc.getTopLeft().plus(offset);
+		Point br = loc.getBottomRight().plus(offset);
+		g.setColor(c);
+		paintPaddle(g, tl, br);
+	}
+
+	private void paintPaddle(Graphics g, Point tlg, Point brg) {
+		Point tl = GameView.toGUICoord(tlg);
+		Point br = GameView.toGUICoord(brg);
+		g.fillRect(tl.getX(), tl.getY(), br.getX() - tl.getX(), br.getY() - tl.getY());
+	}
+
+	private void paintBalls(Graphics g, BalphaSnapshot snapshot) {
+		// grouped by color, so that the color only has to be set once per color rather than once per ball:
+		// supercharged balls cycle through a rainbow of thousands of colors, so balls of the same color are
+		// rarely next to each other
+		int n = snapshot.getBallCount();
+		groupBallsByColor(snapshot, n);
+		int current = -1;
+		for (int k = 0; k < n; k++) {
+			int i = ballOrder[k];
+			if (ballColor[i] != current) {
+				current = ballColor[i];
+				g.setColor(BalphaSnapshot.getBallColorByIndex(current));
+			}
+			paintBall(g, ballX[i], ballY[i], snapshot.getBallDiameter(i));
+		}
+	}
+
+	// Sort the indices of the first `n` balls of `snapshot` into `ballOrder` by color index, with a counting
+	// sort, which keeps balls of the same color in order and takes linear time.
+	private void groupBallsByColor(BalphaSnapshot snapshot, int n) {
+		if (ballOrder.length < n) {
+			ballOrder = new int[n];
+			ballColor = new int[n];
+		}
+		Arrays.fill(colorStart, 0);
+		for (int i = 0; i < n; i++) {
+			ballColor[i] = snapshot.getBallColorIndex(i);
+			colorStart[ballColor[i] + 1]++;
+		}
+		for (int c = 1; c < colorStart.length; c++) {
+			colorStart[c] += colorStart[c - 1];
+		}
+		for (int i = 0; i < n; i++) {
+			ballOrder[colorStart[ballColor[i]]++] = i;
+		}
+	}
+	
+	private void paintBall(Graphics g, int x, int y, int diam) {
+		int radius = diam/2;
+		Point tl = GameView.toGUICoord(new Point(x - radius, y - radius));
+		Point br = GameView.toGUICoord(new Point(x + radius, y + radius));
+		g.fillOval(tl.getX(), tl.getY(), br.getX() - tl.getX(), br.getY() - tl.getY());
+	}
+	
+	private void paintAlphas(Graphics g, BalphaSnapshot snapshot) {
+		Color current = null;
+		for (int i = 0; i < snapshot.getAlphaCount(); i++) {
+			Color color = snapshot.getAlphaColor(i);
+			if (color != current) {
+				g.setColor(color);
+				current = color;
+			}
+			int diam = snapshot.getAlphaDiameter(i);
+			int radius = diam/2;
+			//alphas are squished ovals for now
+			Point tl = GameView.toGUICoord(new Point(alphaX[i] - radius, alphaY[i] - radius / 2));
+			g.fillOval(tl.getX(), tl.getY(), diam/50 , radius/50);
+		}
+	}
+	
+	private void paintLinks(Graphics g, BalphaSnapshot snapshot) {
+		g.setColor(Color.red);
+		for (int k = 0; k < snapshot.getLinkCount(); k++) {
+			int ball = snapshot.getLinkBall(k);
+			int alpha = snapshot.getLinkAlpha(k);
+			Point start = GameView.toGUICoord(new Point(ballX[ball], ballY[ball]));
+			Point end = GameView.toGUICoord(new Point(alphaX[alpha], alphaY[alpha]));
+			g.drawLine(start.getX(), start.getY(), end.getX(), end.getY());
+		}
+	}
+
+	
+
+	private void paintBlocks(Graphics g, Simulation.Frame frame, Color background, Point botRight) {
+		// blocks and the background of the field, from the layer that keeps them painted between frames
+		blockLayer.paint(g, frame.blocks, background, botRight.getX() + 1, botRight.getY() + 1);
+	}
+}
@@ -0,0 +1,101 @@
+package breakout.gui;
+
+import java.util.Arrays;
+
+/**
+ * Statistics about the frames an actively rendered view showed recently, to tell whether it keeps up with
+ * its target frame rate: the frame rate, the time between frames, the frames that came late, that is,
+ * more than half a frame interval after they were due, and the frames that were skipped. Safe to use from
+ * several threads.
+ */
+final class FrameStats {
+
+	private final long targetFrameNanos;
+	// the times between the last frames shown, as a ring
+	private final long[] frameTimes;
+	private int size;
+	private int next;
+	private long lastShown = Long.MIN_VALUE;
+	private long frameCount;
+	private long skippedCount;
+
+	/**
+	 * Initialize this object to keep the statistics of the last `window` frames of a view that shows a
+	 * frame every `targetFrameNanos` nanoseconds.
+	 *
+	 * @throws IllegalArgumentException | targetFrameNanos < 1 || window < 1
+	 */
+	FrameStats(long targetFrameNanos, int window) {
+		if (targetFrameNanos < 1 || window < 1)
+			throw new IllegalArgumentException("The frame time and window must be positive");
+		this.targetFrameNanos = targetFrameNanos;
+		this.frameTimes = new long[window];
+	}
+
+	/**
+	 * Record that a frame was shown at `System.nanoTime` `now`, after `skipped` frames were skipped.
+	 *
+	 * @pre | skipped >= 0
+	 */
+	synchronized void frameShown(long now, int skipped) {
+		if (frameCount > 0) {
+			frameTimes[next] = now - lastShown;
+			next = (next + 1) % frameTimes.length;
+			size = Math.min(size + 1, frameTimes.length);
+		}
+		lastShown = now;
+		frameCount++;
+		skippedCount += skipped;
+	}
+
+	/** Return the number of frames shown so far. */
+	synchronized long getFrameCount() {
+		return frameCount;
+	}
+
+	/** Return the number of frames skipped so far. */
+	synchronized long getSkippedFrameCount() {
+		return skippedCount;
+	}
+
+	/** Return the frames shown per second over the last frames, or 0 if fewer than two were shown. */
+	synchronized double getFramesPerSecond() {
+		long total = 0;
+		for (int i = 0; i < size; i++) {
+			total += frameTimes[i];
+		}
+		return total == 0 ? 0 : size * 1e9 / total;
+	}
+
+	/**
+	 * Return the time between two of the last frames that `fraction` of those times do not exceed, in
+	 * nanoseconds, or 0 if fewer than two frames were shown.
+	 *
+	 * @pre | 0 <= fraction && fraction <= 1
+	 */
+	synchronized long getFrameTimePercentile(double fraction) {
+		if (size == 0)
+			return 0;
+		long[] sorted = Arrays.copyOf(frameTimes, size);
+		Arrays.sort(sorted);
+		return sorted[Math.max(0, (int) Math.ceil(fraction * size) - 1)];
+	}
+
+	/** Return the number of the last frames that came more than half a frame interval late. */
+	synchronized int getLateFrameCount() {
+		int late = 0;
+		for (int i = 0; i < size; i++) {
+			if (2 * frameTimes[i] > 3 * targetFrameNanos)
+				late++;
+		}
+		return late;
+	}
+
+	/** Return the statistics as a line of text. */
+	synchronized String summary() {
+		return String.format("%.1f fps (target %.1f), frame time p50 %.1f ms, p99 %.1f ms, max %.1f ms, "
+				+ "%d of the last %d frames late, %d frames skipped", getFramesPerSecond(), 1e9 / targetFrameNanos,
+				getFrameTimePercentile(0.5) / 1e6, getFrameTimePercentile(0.99) / 1e6, getFrameTimePercentile(1) / 1e6,
+				getLateFrameCount(), size, skippedCount);
+	}
+}
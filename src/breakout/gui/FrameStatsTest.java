@@ -0,0 +1,49 @@
+package breakout.gui;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class FrameStatsTest {
+
+	static final long MS = 1_000_000;
+
+	@Test
+	void testSteadyFrames() {
+		FrameStats stats = new FrameStats(20 * MS, 10);
+		assertEquals(0, stats.getFramesPerSecond());
+		for (int i = 0; i <= 5; i++)
+			stats.frameShown(i * 20 * MS, 0);
+		assertEquals(6, stats.getFrameCount());
+		assertEquals(50, Math.round(stats.getFramesPerSecond()));
+		assertEquals(20 * MS, stats.getFrameTimePercentile(0.5));
+		assertEquals(0, stats.getLateFrameCount());
+	}
+
+	@Test
+	void testLateAndSkippedFrames() {
+		FrameStats stats = new FrameStats(20 * MS, 10);
+		stats.frameShown(0, 0);
+		stats.frameShown(20 * MS, 0);
+		stats.frameShown(50 * MS, 0);
+		stats.frameShown(110 * MS, 2);
+		assertEquals(2, stats.getSkippedFrameCount());
+		// 30 ms is exactly one and a half frames, which is not late yet
+		assertEquals(1, stats.getLateFrameCount());
+		assertEquals(30 * MS, stats.getFrameTimePercentile(0.5));
+		assertEquals(60 * MS, stats.getFrameTimePercentile(1));
+		assertTrue(stats.summary().contains("2 frames skipped"));
+	}
+
+	@Test
+	void testOnlyTheLastFramesCount() {
+		FrameStats stats = new FrameStats(20 * MS, 2);
+		stats.frameShown(0, 0);
+		stats.frameShown(100 * MS, 0);
+		stats.frameShown(120 * MS, 0);
+		stats.frameShown(140 * MS, 0);
+		assertEquals(4, stats.getFrameCount());
+		assertEquals(0, stats.getLateFrameCount());
+		assertEquals(20 * MS, stats.getFrameTimePercentile(1));
+	}
+}
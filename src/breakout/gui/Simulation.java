@@ -0,0 +1,230 @@
+package breakout.gui;
+
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.KeyListener;
+import java.io.IOException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import breakout.BalphaSnapshot;
+import breakout.BlockState;
+import breakout.BreakoutFacade;
+import breakout.BreakoutState;
+import breakout.PaddleState;
+import breakout.replay.InputRecorder;
+import breakout.utils.Point;
+
+/**
+ * Plays a game on a thread of its own, in fixed steps of `STEP_MILLIS` milliseconds of game time paced by
+ * `System.nanoTime`, so that neither painting nor anything else on the event dispatch thread stretches
+ * or squeezes the steps. After each step, the simulation publishes an immutable `Frame` of the game,
+ * which the view paints from without ever touching the game state.
+ *
+ * Key presses reach the simulation through a queue, which it drains at the start of each step.
+ */
+final class Simulation {
+
+	/** The milliseconds of game time a step lasts. */
+	static final int STEP_MILLIS = GameView.ballMoveDelayMillis;
+	static final long STEP_NANOS = STEP_MILLIS * 1_000_000L;
+	// after a hiccup, at most this many steps are played at once to catch up; the rest of the time is lost,
+	// rather than having catching up take longer than the time it makes up for
+	private static final int MAX_CATCH_UP_STEPS = 5;
+
+	static final int LEFT_DOWN = 0;
+	static final int LEFT_UP = 1;
+	static final int RIGHT_DOWN = 2;
+	static final int RIGHT_UP = 3;
+
+	/**
+	 * The game as it was after a step, with the balls, alphas and paddle as they were after the step before,
+	 * so that the view can paint any moment in between.
+	 *
+	 * @immutable
+	 */
+	static final class Frame {
+		final BalphaSnapshot balphas;
+		final BalphaSnapshot previousBalphas;
+		// never changed, and the same array as in the frame before if no block was hit
+		final BlockState[] blocks;
+		final PaddleState paddle;
+		final PaddleState previousPaddle;
+		final Point bottomRight;
+		/** The `System.nanoTime` at which the step was played. */
+		final long time;
+
+		Frame(BalphaSnapshot balphas, BalphaSnapshot previousBalphas, BlockState[] blocks, PaddleState paddle,
+				PaddleState previousPaddle, Point bottomRight, long time) {
+			this.balphas = balphas;
+			this.previousBalphas = previousBalphas;
+			this.blocks = blocks;
+			this.paddle = paddle;
+			this.previousPaddle = previousPaddle;
+			this.bottomRight = bottomRight;
+			this.time = time;
+		}
+
+		/**
+		 * Return how far the game has come from the step before this frame's step to this frame's step at
+		 * `System.nanoTime` `now`, if it is painted one step late: 0 when the step was played, up to 1 a step
+		 * later.
+		 */
+		double progress(long now) {
+			return Math.min(1, Math.max(0, (now - time) / (double) STEP_NANOS));
+		}
+	}
+
+	private final BreakoutFacade facade = new BreakoutFacade();
+	// only touched by the simulation thread once it runs
+	private final BreakoutState state;
+	private InputRecorder recorder;
+	private boolean leftKeyDown;
+	private boolean rightKeyDown;
+	private int blockHitCount;
+
+	private final ConcurrentLinkedQueue<Integer> input = new ConcurrentLinkedQueue<>();
+	private final AtomicReference<Frame> frame = new AtomicReference<>();
+	private final Runnable frameListener;
+	private final Consumer<Boolean> gameOverListener;
+	private final Thread thread;
+	private volatile boolean stopped;
+
+	/**
+	 * Initialize this simulation to play `state`, recording the input with `recorder` unless it is null.
+	 * After each step, `frameListener` is called on the simulation thread; when the game is won or lost,
+	 * the simulation stops and calls `gameOverListener` on that thread with whether the game was won.
+	 */
+	Simulation(BreakoutState state, InputRecorder recorder, Runnable frameListener, Consumer<Boolean> gameOverListener) {
+		this.state = state;
+		this.recorder = recorder;
+		this.frameListener = frameListener;
+		this.gameOverListener = gameOverListener;
+		this.blockHitCount = state.getBlockHitCount();
+		BalphaSnapshot balphas = state.getSnapshot();
+		frame.set(new Frame(balphas, balphas, state.getBlocks(), state.getPaddle(), state.getPaddle(),
+				state.getBottomRight(), System.nanoTime()));
+		thread = new Thread(this::run, "Breakout simulation");
+		thread.setDaemon(true);
+	}
+
+	/** Return the frame of the last step played, or of the initial state before the first step. */
+	Frame getFrame() {
+		return frame.get();
+	}
+
+	/**
+	 * Queue one of `LEFT_DOWN`, `LEFT_UP`, `RIGHT_DOWN` and `RIGHT_UP`, to take effect from the next step
+	 * on. May be called from any thread.
+	 */
+	void keyChanged(int event) {
+		input.offer(event);
+	}
+
+	/** Return a key listener that passes the left and right arrow keys on to this simulation. */
+	KeyListener keyListener() {
+		return new KeyAdapter() {
+			@Override
+			public void keyPressed(KeyEvent e) {
+				switch (e.getKeyCode()) {
+				case KeyEvent.VK_RIGHT -> keyChanged(RIGHT_DOWN);
+				case KeyEvent.VK_LEFT -> keyChanged(LEFT_DOWN);
+				}
+			}
+
+			@Override
+			public void keyReleased(KeyEvent e) {
+				switch (e.getKeyCode()) {
+				case KeyEvent.VK_RIGHT -> keyChanged(RIGHT_UP);
+				case KeyEvent.VK_LEFT -> keyChanged(LEFT_UP);
+				}
+			}
+		};
+	}
+
+	void start() {
+		thread.start();
+	}
+
+	/** Stop playing after the current step, if any. May be called from any thread. */
+	void stop() {
+		stopped = true;
+		LockSupport.unpark(thread);
+	}
+
+	private void run() {
+		long previous = System.nanoTime();
+		// the time that has passed but has not been played yet
+		long accumulator = 0;
+		while (!stopped) {
+			long now = System.nanoTime();
+			accumulator = Math.min(accumulator + now - previous, MAX_CATCH_UP_STEPS * STEP_NANOS);
+			previous = now;
+			while (accumulator >= STEP_NANOS && !stopped) {
+				accumulator -= STEP_NANOS;
+				if (!step())
+					return;
+			}
+			LockSupport.parkNanos(STEP_NANOS - accumulator);
+		}
+	}
+
+	// Return false if the game is over.
+	private boolean step() {
+		for (Integer event = input.poll(); event != null; event = input.poll()) {
+			switch (event) {
+			case LEFT_DOWN -> leftKeyDown = true;
+			case LEFT_UP -> leftKeyDown = false;
+			case RIGHT_DOWN -> rightKeyDown = true;
+			case RIGHT_UP -> rightKeyDown = false;
+			default -> throw new AssertionError(event);
+			}
+		}
+		int paddleDir = 0;
+		if (leftKeyDown && !rightKeyDown) {
+			facade.movePaddleLeft(state, STEP_MILLIS);
+			paddleDir = -1;
+		}
+		if (!leftKeyDown && rightKeyDown) {
+			facade.movePaddleRight(state, STEP_MILLIS);
+			paddleDir = 1;
+		}
+		facade.tick(state, paddleDir, STEP_MILLIS);
+		record(paddleDir);
+		publish();
+		if (facade.isDead(state) || facade.isWon(state)) {
+			gameOverListener.accept(facade.isWon(state));
+			return false;
+		}
+		return true;
+	}
+
+	private void publish() {
+		Frame last = frame.get();
+		BlockState[] blocks = last.blocks;
+		if (state.getBlockHitCount() != blockHitCount) {
+			blockHitCount = state.getBlockHitCount();
+			blocks = state.getBlocks();
+		}
+		frame.set(new Frame(state.getSnapshot(), last.balphas, blocks, state.getPaddle(), last.paddle,
+				last.bottomRight, System.nanoTime()));
+		frameListener.run();
+	}
+
+	private void record(int paddleDir) {
+		if (recorder != null) {
+			try {
+				recorder.record(paddleDir, STEP_MILLIS);
+			} catch (IOException e) {
+				// losing the recording is no reason to stop the game
+				System.err.println("Recording stopped: " + e);
+				recorder = null;
+			} catch (IllegalStateException e) {
+				// closed by the application on its way out, for instance by a shutdown hook
+				recorder = null;
+			}
+		}
+	}
+}
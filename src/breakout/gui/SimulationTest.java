@@ -0,0 +1,95 @@
+package breakout.gui;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import breakout.BreakoutFacade;
+import breakout.BreakoutState;
+import breakout.radioactivity.Ball;
+import breakout.replay.InputLog;
+import breakout.replay.InputRecorder;
+import breakout.utils.Point;
+import breakout.utils.Vector;
+
+class SimulationTest {
+
+	BreakoutFacade facade = new BreakoutFacade();
+
+	@Test
+	void testStepsFollowTheKeys() throws InterruptedException {
+		BreakoutState state = facade.createStateFromDescription(BreakoutApplication.initMap);
+		AtomicInteger frames = new AtomicInteger();
+		Simulation simulation = new Simulation(state, null, frames::incrementAndGet, won -> {});
+		Simulation.Frame first = simulation.getFrame();
+		simulation.keyChanged(Simulation.RIGHT_DOWN);
+		simulation.start();
+		Thread.sleep(20 * Simulation.STEP_MILLIS);
+		simulation.stop();
+		Simulation.Frame last = simulation.getFrame();
+		assertTrue(frames.get() >= 5);
+		assertTrue(last.paddle.getCenter().getX() > first.paddle.getCenter().getX());
+		assertTrue(last.time > first.time);
+		// no block was hit, so the frames share the blocks
+		assertSame(first.blocks, last.blocks);
+	}
+
+	@Test
+	void testGameOverStopsTheSimulation() throws Exception {
+		BreakoutState map = facade.createStateFromDescription(BreakoutApplication.initMap);
+		Ball falling = facade.createNormalBall(new Point(1000, 29000), 700, new Vector(0, 10));
+		BreakoutState state = facade.createBreakoutState(new Ball[] { falling }, map.getBlocks(), map.getBottomRight(),
+				map.getPaddle());
+		CompletableFuture<Boolean> gameOver = new CompletableFuture<>();
+		Simulation simulation = new Simulation(state, null, () -> {}, gameOver::complete);
+		simulation.start();
+		assertFalse(gameOver.get(5, TimeUnit.SECONDS));
+		assertEquals(0, simulation.getFrame().balphas.getBallCount());
+	}
+
+	@Test
+	void testClosingTheRecorderMidGameKeepsTheLogIntact() throws Exception {
+		BreakoutState state = facade.createStateFromDescription(BreakoutApplication.initMap);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		InputRecorder recorder = new InputRecorder(bytes, BreakoutApplication.initMap);
+		AtomicInteger frames = new AtomicInteger();
+		Simulation simulation = new Simulation(state, recorder, frames::incrementAndGet, won -> {});
+		simulation.start();
+		Thread.sleep(10 * Simulation.STEP_MILLIS);
+		// every frame published so far was recorded first
+		int recorded = frames.get();
+		// as the application's shutdown hook does, while the simulation is still playing
+		recorder.close();
+		int closedAt = frames.get();
+		Thread.sleep(10 * Simulation.STEP_MILLIS);
+		simulation.stop();
+		// the simulation went on without the recorder
+		assertTrue(frames.get() > closedAt);
+		InputLog log = InputLog.read(new ByteArrayInputStream(bytes.toByteArray()));
+		assertEquals(recorder.getFrameCount(), log.getLength());
+		assertTrue(log.getLength() >= recorded);
+	}
+
+	@Test
+	void testProgressIsClampedToOneStep() {
+		BreakoutState state = facade.createStateFromDescription(BreakoutApplication.initMap);
+		Simulation.Frame frame = new Simulation(state, null, () -> {}, won -> {}).getFrame();
+		assertEquals(0, frame.progress(frame.time - Simulation.STEP_NANOS));
+		assertEquals(0.5, frame.progress(frame.time + Simulation.STEP_NANOS / 2));
+		assertEquals(1, frame.progress(frame.time + 3 * Simulation.STEP_NANOS));
+	}
+
+	@Test
+	void testInterpolateMovesPartOfTheWay() {
+		assertEquals(100, FramePainter.interpolate(100, 200, 0));
+		assertEquals(150, FramePainter.interpolate(100, 200, 0.5));
+		assertEquals(200, FramePainter.interpolate(100, 200, 1));
+		assertEquals(-5, FramePainter.interpolate(0, -10, 0.5));
+	}
+}
@@ -1,8 +1,10 @@
 package breakout.radioactivity;
 
 import java.awt.Color;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.TreeMap;
 
 import breakout.BreakoutState;
 import breakout.utils.Circle;
@@ -43,6 +45,18 @@ public abstract class Ball extends Balpha {
 	 * @invar | Math.abs(eCharge) == ((linkedAlphas.isEmpty()) ? 1 : linkedAlphas.stream().mapToInt(a -> a.linkedBalls.size()).max().getAsInt())
 	 */
 	private int eCharge;
+	
+	/**
+	 * For each number of balls an alpha of `linkedAlphas` is linked to, how many of those alphas have that
+	 * many balls; null while this ball has never been linked. Since an alpha gains or loses one ball at a time,
+	 * a link change only moves single counts, so the largest key gives `eCharge` without looking at the alphas.
+	 * 
+	 * @invar | alphaDegrees == null ? linkedAlphas.isEmpty() : alphaDegrees.values().stream().allMatch(n -> n > 0)
+	 * @invar | alphaDegrees == null || alphaDegrees.entrySet().stream().allMatch(e ->
+	 *        | 	linkedAlphas.stream().filter(a -> a.linkedBalls.size() == e.getKey()).count() == e.getValue())
+	 * @representationObject
+	 */
+	private TreeMap<Integer, Integer> alphaDegrees;
 
 	/**
 	 * Construct a new ball at a given `location`, with a given `velocity`.
@@ -57,7 +71,7 @@ public abstract class Ball extends Balpha {
 	public Ball(Circle location, Vector velocity) {
 		super(location, velocity);
 		linkedAlphas = new HashSet<Alpha>();
-		calculateEcharge();
+		eCharge = 1;
 	}
 	
 	/**
@@ -82,13 +96,32 @@ public abstract class Ball extends Balpha {
 		return Set.copyOf(linkedAlphas);
 	}
 	
-	private void calculateEcharge() {
-		int charge = 1;
-		for (Alpha a : linkedAlphas) {
-			charge = Math.max(charge, a.linkedBalls.size());
+	private void addDegree(int degree) {
+		if (alphaDegrees == null) {
+			alphaDegrees = new TreeMap<>();
+		}
+		alphaDegrees.merge(degree, 1, Integer::sum);
+	}
+	
+	private void removeDegree(int degree) {
+		int count = alphaDegrees.get(degree);
+		if (count == 1) {
+			alphaDegrees.remove(degree);
+		} else {
+			alphaDegrees.put(degree, count - 1);
 		}
-		if (linkedAlphas.size() % 2 != 0) charge *= -1;
-		eCharge = charge;
+	}
+	
+	// One of this ball's alphas went from `from` to `to` linked balls.
+	private void moveDegree(int from, int to) {
+		removeDegree(from);
+		addDegree(to);
+		updateEcharge();
+	}
+	
+	private void updateEcharge() {
+		int charge = alphaDegrees == null || alphaDegrees.isEmpty() ? 1 : Math.max(1, alphaDegrees.lastKey());
+		eCharge = linkedAlphas.size() % 2 != 0 ? -charge : charge;
 	}
 	
 	/**
@@ -102,13 +135,49 @@ public abstract class Ball extends Balpha {
 	 * @mutates_properties | getAlphas(), a.getBalls(), (...a.getBalls()).getEcharge()
 	 */
 	public void linkTo(Alpha a) {
-		linkedAlphas.add(a);
-		a.linkedBalls.add(this);
+		if (!linkedAlphas.add(a)) {
+			return;
+		}
+		int degree = a.linkedBalls.size();
 		for (Ball b : a.linkedBalls) {
-			b.calculateEcharge();
+			b.moveDegree(degree, degree + 1);
 		}
+		a.linkedBalls.add(this);
+		addDegree(degree + 1);
+		updateEcharge();
 	}
 	
+	/**
+	 * Link ball `balls[ballIndices[k]]` to alpha `alphas[alphaIndices[k]]` for every `k`, with the same
+	 * outcome as calling `linkTo` for each pair, but in time linear in the number of links: each ball's
+	 * charge is computed once at the end instead of being updated on every link.
+	 *
+	 * @pre | balls != null && Arrays.stream(balls).allMatch(b -> b != null && b.getAlphas().isEmpty())
+	 * @pre | alphas != null && Arrays.stream(alphas).allMatch(a -> a != null && a.getBalls().isEmpty())
+	 * @pre | ballIndices != null && alphaIndices != null && ballIndices.length == alphaIndices.length
+	 * @pre | Arrays.stream(ballIndices).allMatch(i -> 0 <= i && i < balls.length)
+	 * @pre | Arrays.stream(alphaIndices).allMatch(i -> 0 <= i && i < alphas.length)
+	 *
+	 * @mutates_properties | (...balls).getAlphas(), (...balls).getEcharge(), (...alphas).getBalls()
+	 */
+	public static void linkAll(Ball[] balls, Alpha[] alphas, int[] ballIndices, int[] alphaIndices) {
+		for (int k = 0; k < ballIndices.length; k++) {
+			Ball b = balls[ballIndices[k]];
+			Alpha a = alphas[alphaIndices[k]];
+			if (b.linkedAlphas.add(a)) {
+				a.linkedBalls.add(b);
+			}
+		}
+		for (Ball b : balls) {
+			if (!b.linkedAlphas.isEmpty() && (b.alphaDegrees == null || b.alphaDegrees.isEmpty())) {
+				for (Alpha a : b.linkedAlphas) {
+					b.addDegree(a.linkedBalls.size());
+				}
+				b.updateEcharge();
+			}
+		}
+	}
+
 	/**
 	 * Delete link between alpha particle `a` and this ball.
 	 * 
@@ -120,12 +189,16 @@ public abstract class Ball extends Balpha {
 	 * @mutates_properties | getAlphas(), a.getBalls(), (...a.getBalls()).getEcharge(), getEcharge()
 	 */
 	public void unLink(Alpha a) {
-		linkedAlphas.remove(a);
+		if (!linkedAlphas.remove(a)) {
+			return;
+		}
+		int degree = a.linkedBalls.size();
 		a.linkedBalls.remove(this);
 		for (Ball b : a.linkedBalls) {
-			b.calculateEcharge();
+			b.moveDegree(degree, degree - 1);
 		}
-		calculateEcharge();
+		removeDegree(degree);
+		updateEcharge();
 	}
 
 	/**
@@ -242,4 +315,14 @@ public abstract class Ball extends Balpha {
 		return super.equalsContent(obj) && ((Ball)obj).getEcharge() == getEcharge();
 	}
 
+	/**
+	 * Return a hash code for the content of this ball, consistent with `equalsContent`.
+	 * 
+	 * @inspects | this
+	 */
+	@Override
+	public int contentHashCode() {
+		return 31 * super.contentHashCode() + getEcharge();
+	}
+
 }
@@ -137,4 +137,19 @@ public abstract class Balpha {
 			return false;
 		return true;
 	}
+
+	/**
+	 * Return a hash code for the content of this particle, consistent with `equalsContent`: particles
+	 * with equal content have equal content hash codes.
+	 * 
+	 * @inspects | this
+	 */
+	public int contentHashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + getVelocity().hashCode();
+		result = prime * result + getLocation().getCenter().hashCode();
+		result = prime * result + getLocation().getDiameter();
+		return result;
+	}
 }
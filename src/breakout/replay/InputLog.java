@@ -0,0 +1,192 @@
+package breakout.replay;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import breakout.BreakoutState;
+
+/**
+ * The recorded input of a game: the description of the level it started from, as understood by
+ * `GameMap`, and for each tick the direction the paddle was moved in and the number of milliseconds
+ * that elapsed.
+ *
+ * In binary form, a log is the int `MAGIC`, a version byte and the level as a `writeUTF` string,
+ * followed by runs of equal frames. A run is a code byte holding the paddle direction plus one in its
+ * low two bits and the elapsed time in its high six bits, followed by the run length as a variable-length
+ * int. Elapsed times from `ELAPSED_ESCAPE` on are written as a variable-length int after the code byte.
+ * The byte `END` ends the log; a log cut off at a run boundary, as left behind by a game that crashed,
+ * is read up to the cut. Logs of more than `MAX_LENGTH` ticks, or with ticks longer than
+ * `BreakoutState.MAX_ELAPSED_TIME`, are rejected, so that a corrupt log cannot make reading it run out of
+ * memory and every log that is read can be replayed.
+ *
+ * @immutable
+ * @invar | getMap() != null
+ * @invar | 0 <= getLength() && getLength() <= MAX_LENGTH
+ * @invar | IntStream.range(0, getLength()).allMatch(i -> -1 <= getPaddleDir(i) && getPaddleDir(i) <= 1)
+ * @invar | IntStream.range(0, getLength()).allMatch(i ->
+ *        |     0 <= getElapsedTime(i) && getElapsedTime(i) <= BreakoutState.MAX_ELAPSED_TIME)
+ */
+public class InputLog {
+
+	static final int MAGIC = 0x42524B49; // "BRKI"
+	static final int VERSION = 1;
+	static final int ELAPSED_ESCAPE = 63;
+	static final int END = 0xFF;
+	/** The most ticks a log holds: over 23 hours of play at `GameView`'s rate, in 32 MB once read. */
+	public static final int MAX_LENGTH = 1 << 22;
+
+	private final String map;
+	/**
+	 * @invar | paddleDirs != null && elapsedTimes != null
+	 * @invar | paddleDirs.length == elapsedTimes.length
+	 * @representationObject
+	 */
+	private final int[] paddleDirs;
+	/**
+	 * @representationObject
+	 */
+	private final int[] elapsedTimes;
+
+	private InputLog(String map, int[] paddleDirs, int[] elapsedTimes) {
+		this.map = map;
+		this.paddleDirs = paddleDirs;
+		this.elapsedTimes = elapsedTimes;
+	}
+
+	/**
+	 * Return the description of the level the game started from.
+	 */
+	public String getMap() {
+		return map;
+	}
+
+	/**
+	 * Return the number of recorded ticks.
+	 */
+	public int getLength() {
+		return paddleDirs.length;
+	}
+
+	/**
+	 * Return the direction the paddle was moved in during tick `i`.
+	 *
+	 * @pre | 0 <= i && i < getLength()
+	 */
+	public int getPaddleDir(int i) {
+		return paddleDirs[i];
+	}
+
+	/**
+	 * Return the number of milliseconds that elapsed during tick `i`.
+	 *
+	 * @pre | 0 <= i && i < getLength()
+	 */
+	public int getElapsedTime(int i) {
+		return elapsedTimes[i];
+	}
+
+	/**
+	 * Return the total number of milliseconds of the recorded ticks.
+	 *
+	 * @post | result == IntStream.range(0, getLength()).mapToLong(i -> getElapsedTime(i)).sum()
+	 */
+	public long getGameTime() {
+		long result = 0;
+		for (int t : elapsedTimes) {
+			result += t;
+		}
+		return result;
+	}
+
+	/**
+	 * Write this log to `out` in binary form, and close `out`.
+	 *
+	 * @throws IllegalArgumentException | out == null
+	 * @throws IOException if `out` cannot be written
+	 */
+	public void write(OutputStream out) throws IOException {
+		try (InputRecorder recorder = new InputRecorder(out, map)) {
+			for (int i = 0; i < paddleDirs.length; i++) {
+				recorder.record(paddleDirs[i], elapsedTimes[i]);
+			}
+		}
+	}
+
+	/**
+	 * Read a log in binary form from `in`, which is left open.
+	 *
+	 * @throws IllegalArgumentException | in == null
+	 * @throws IOException if `in` cannot be read or does not hold a log
+	 */
+	public static InputLog read(InputStream in) throws IOException {
+		if (in == null)
+			throw new IllegalArgumentException("The input stream must not be null");
+		DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+		if (data.readInt() != MAGIC)
+			throw new IOException("Not an input log");
+		int version = data.readUnsignedByte();
+		if (version != VERSION)
+			throw new IOException("Unsupported input log version " + version);
+		String map = data.readUTF();
+		int[] paddleDirs = new int[64];
+		int[] elapsedTimes = new int[64];
+		int length = 0;
+		for (;;) {
+			int code = data.read();
+			if (code < 0 || code == END)
+				break;
+			int dirBits = code & 3;
+			if (dirBits == 3)
+				throw new IOException("Corrupt input log: bad paddle direction");
+			int elapsedTime = code >>> 2;
+			if (elapsedTime == ELAPSED_ESCAPE)
+				elapsedTime = readVarInt(data);
+			if (elapsedTime > BreakoutState.MAX_ELAPSED_TIME)
+				throw new IOException("Corrupt input log: elapsed time " + elapsedTime + " exceeds the maximum");
+			int runLength = readVarInt(data);
+			if (runLength <= 0)
+				throw new IOException("Corrupt input log: bad run length");
+			if (runLength > MAX_LENGTH - length)
+				throw new IOException("Input log longer than " + MAX_LENGTH + " ticks");
+			if (length + runLength > paddleDirs.length) {
+				int capacity = Math.max(length + runLength, paddleDirs.length * 2);
+				paddleDirs = Arrays.copyOf(paddleDirs, capacity);
+				elapsedTimes = Arrays.copyOf(elapsedTimes, capacity);
+			}
+			Arrays.fill(paddleDirs, length, length + runLength, dirBits - 1);
+			Arrays.fill(elapsedTimes, length, length + runLength, elapsedTime);
+			length += runLength;
+		}
+		return new InputLog(map, Arrays.copyOf(paddleDirs, length), Arrays.copyOf(elapsedTimes, length));
+	}
+
+	static void writeVarInt(DataOutput out, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			out.writeByte(value & 0x7F | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+
+	private static int readVarInt(DataInputStream in) throws IOException {
+		int result = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			int b = in.read();
+			if (b < 0)
+				throw new EOFException("Input log cut off inside a run");
+			result |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				if (result < 0)
+					throw new IOException("Corrupt input log: negative number");
+				return result;
+			}
+		}
+		throw new IOException("Corrupt input log: number too long");
+	}
+}
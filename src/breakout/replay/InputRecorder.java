@@ -0,0 +1,126 @@
+package breakout.replay;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import breakout.BreakoutState;
+
+/**
+ * Appends the input of a game, one frame per tick, to a binary log as it is played. A frame is what
+ * `GameView` feeds into the game on each tick: the direction the paddle is moved in (-1, 0 or 1) and
+ * the number of milliseconds that elapse.
+ *
+ * The log starts with the level the game was started from, after which runs of equal frames are
+ * written as a frame code and a run length. A player holds a key, or none, for many ticks in a row at
+ * the timer's steady rate, so a minute of play usually takes a few hundred bytes. See `InputLog` for
+ * the format.
+ *
+ * A recorder may be used from several threads, for instance by a game playing on a thread of its own
+ * while a shutdown hook closes the log.
+ *
+ * @invar | 0 <= getFrameCount() && getFrameCount() <= InputLog.MAX_LENGTH
+ */
+public class InputRecorder implements AutoCloseable {
+
+	private final DataOutputStream out;
+	private long frameCount;
+	private boolean closed;
+
+	// the frame of the run that has not been written yet, if runLength > 0
+	private int runPaddleDir;
+	private int runElapsedTime;
+	private int runLength;
+
+	/**
+	 * Initialize this recorder to write the log of a game started from the level with the given
+	 * description to `out`, and write the log's header.
+	 *
+	 * @throws IllegalArgumentException | out == null
+	 * @throws IllegalArgumentException | map == null
+	 * @throws IOException if the header cannot be written
+	 * @post | getFrameCount() == 0
+	 */
+	public InputRecorder(OutputStream out, String map) throws IOException {
+		if (out == null)
+			throw new IllegalArgumentException("The output stream must not be null");
+		if (map == null)
+			throw new IllegalArgumentException("The map must not be null");
+		this.out = new DataOutputStream(new BufferedOutputStream(out));
+		this.out.writeInt(InputLog.MAGIC);
+		this.out.writeByte(InputLog.VERSION);
+		this.out.writeUTF(map);
+	}
+
+	/** Return the number of frames recorded so far. */
+	public synchronized long getFrameCount() {
+		return frameCount;
+	}
+
+	/**
+	 * Append a frame to the log.
+	 *
+	 * @throws IllegalArgumentException | paddleDir < -1 || 1 < paddleDir
+	 * @throws IllegalArgumentException | elapsedTime < 0 || BreakoutState.MAX_ELAPSED_TIME < elapsedTime
+	 * @throws IllegalStateException if this recorder has been closed
+	 * @throws IOException if the log cannot be written, or already holds `InputLog.MAX_LENGTH` frames
+	 * @post | getFrameCount() == old(getFrameCount()) + 1
+	 */
+	public synchronized void record(int paddleDir, int elapsedTime) throws IOException {
+		if (paddleDir < -1 || 1 < paddleDir)
+			throw new IllegalArgumentException("Paddle directions must be -1, 0 or 1");
+		if (elapsedTime < 0 || BreakoutState.MAX_ELAPSED_TIME < elapsedTime)
+			throw new IllegalArgumentException("Elapsed times must lie between 0 and BreakoutState.MAX_ELAPSED_TIME");
+		if (closed)
+			throw new IllegalStateException("The recorder has been closed");
+		if (frameCount == InputLog.MAX_LENGTH)
+			throw new IOException("The log is full");
+		if (runLength > 0 && (paddleDir != runPaddleDir || elapsedTime != runElapsedTime)) {
+			writeRun();
+		}
+		runPaddleDir = paddleDir;
+		runElapsedTime = elapsedTime;
+		runLength++;
+		frameCount++;
+	}
+
+	private void writeRun() throws IOException {
+		int dirBits = runPaddleDir + 1;
+		if (runElapsedTime < InputLog.ELAPSED_ESCAPE) {
+			out.writeByte(runElapsedTime << 2 | dirBits);
+		} else {
+			out.writeByte(InputLog.ELAPSED_ESCAPE << 2 | dirBits);
+			InputLog.writeVarInt(out, runElapsedTime);
+		}
+		InputLog.writeVarInt(out, runLength);
+		runLength = 0;
+	}
+
+	/**
+	 * Write the frames recorded so far to the underlying stream, leaving the current run open.
+	 *
+	 * @throws IOException if the log cannot be written
+	 */
+	public synchronized void flush() throws IOException {
+		out.flush();
+	}
+
+	/**
+	 * Write the last run and the end of the log, and close the underlying stream. Closing a closed
+	 * recorder does nothing.
+	 *
+	 * @throws IOException if the log cannot be written
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (closed)
+			return;
+		closed = true;
+		if (runLength > 0) {
+			writeRun();
+		}
+		out.writeByte(InputLog.END);
+		out.close();
+	}
+}
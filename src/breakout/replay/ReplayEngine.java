@@ -0,0 +1,91 @@
+package breakout.replay;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import breakout.BreakoutFacade;
+import breakout.BreakoutState;
+import breakout.batch.GameResult;
+
+/**
+ * Plays a recorded game again without a GUI, as fast as it can be simulated.
+ *
+ * The game depends on nothing but its start state and its input, so a replay ends in exactly the state the
+ * recorded game was in. Each tick is played the way `GameView` plays it: first the paddle is moved, then
+ * the state is ticked with the same paddle direction. The replay stops early if the game is won or lost,
+ * just like the GUI does.
+ *
+ * Run `java breakout.replay.ReplayEngine log...` to replay log files and print their outcome and the time
+ * each replay took.
+ */
+public class ReplayEngine {
+
+	private static final BreakoutFacade facade = new BreakoutFacade();
+
+	private ReplayEngine() {
+		throw new AssertionError("This class is not intended to be instantiated");
+	}
+
+	/**
+	 * Play the ticks of `log` on `state`, stopping early if the game is won or lost, and return the outcome.
+	 *
+	 * @pre | state != null
+	 * @pre | log != null
+	 * @pre | IntStream.range(0, log.getLength()).allMatch(i -> log.getElapsedTime(i) <= BreakoutState.MAX_ELAPSED_TIME)
+	 * @mutates | state
+	 * @post | result.isWon() == state.isWon()
+	 * @post | result.isDead() == state.isDead()
+	 * @post | result.getBlocksLeft() == state.getBlockCount()
+	 * @post | result.getTicks() <= log.getLength()
+	 */
+	public static GameResult replay(BreakoutState state, InputLog log) {
+		int ticks = 0;
+		long gameTime = 0;
+		boolean won = facade.isWon(state);
+		boolean dead = facade.isDead(state);
+		while (!won && !dead && ticks < log.getLength()) {
+			int paddleDir = log.getPaddleDir(ticks);
+			int elapsedTime = log.getElapsedTime(ticks);
+			if (paddleDir < 0) {
+				facade.movePaddleLeft(state, elapsedTime);
+			} else if (paddleDir > 0) {
+				facade.movePaddleRight(state, elapsedTime);
+			}
+			facade.tick(state, paddleDir, elapsedTime);
+			ticks++;
+			gameTime += elapsedTime;
+			won = facade.isWon(state);
+			dead = facade.isDead(state);
+		}
+		return new GameResult(won, dead, ticks, gameTime, facade.getBlocksLen(state));
+	}
+
+	/**
+	 * Play `log` from the start of the level it was recorded on, and return the outcome.
+	 *
+	 * @pre | log != null
+	 * @post | result != null
+	 */
+	public static GameResult replay(InputLog log) {
+		return replay(facade.createStateFromDescription(log.getMap()), log);
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length == 0) {
+			System.err.println("Usage: java breakout.replay.ReplayEngine log...");
+			System.exit(2);
+		}
+		for (String path : args) {
+			InputLog log;
+			try (InputStream in = new FileInputStream(path)) {
+				log = InputLog.read(in);
+			}
+			long start = System.nanoTime();
+			GameResult result = replay(log);
+			long time = System.nanoTime() - start;
+			System.out.printf("%s: %s, %.1f s of game time replayed in %.1f ms%n", path, result,
+					result.getGameTime() / 1000.0, time / 1e6);
+		}
+	}
+}
@@ -0,0 +1,148 @@
+package breakout.replay;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import breakout.BreakoutFacade;
+import breakout.BreakoutState;
+import breakout.TestStates;
+import breakout.batch.GameResult;
+import breakout.gui.BreakoutApplication;
+
+class ReplayTest {
+	BreakoutFacade facade = new BreakoutFacade();
+
+	static InputLog readBack(ByteArrayOutputStream bytes) throws IOException {
+		return InputLog.read(new ByteArrayInputStream(bytes.toByteArray()));
+	}
+
+	@Test
+	void testRoundTrip() throws IOException {
+		Random random = new Random(1);
+		int[] paddleDirs = new int[5000];
+		int[] elapsedTimes = new int[paddleDirs.length];
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (InputRecorder recorder = new InputRecorder(bytes, "level")) {
+			for (int i = 0; i < paddleDirs.length; i++) {
+				// runs of equal frames
+				if (i == 0 || random.nextInt(8) == 0) {
+					paddleDirs[i] = random.nextInt(3) - 1;
+					elapsedTimes[i] = random.nextInt(BreakoutState.MAX_ELAPSED_TIME + 1);
+				} else {
+					paddleDirs[i] = paddleDirs[i - 1];
+					elapsedTimes[i] = elapsedTimes[i - 1];
+				}
+				recorder.record(paddleDirs[i], elapsedTimes[i]);
+			}
+			assertEquals(paddleDirs.length, recorder.getFrameCount());
+		}
+		InputLog log = readBack(bytes);
+		assertEquals("level", log.getMap());
+		assertEquals(paddleDirs.length, log.getLength());
+		for (int i = 0; i < paddleDirs.length; i++) {
+			assertEquals(paddleDirs[i], log.getPaddleDir(i));
+			assertEquals(elapsedTimes[i], log.getElapsedTime(i));
+		}
+		assertEquals(Arrays.stream(elapsedTimes).asLongStream().sum(), log.getGameTime());
+
+		ByteArrayOutputStream again = new ByteArrayOutputStream();
+		log.write(again);
+		assertArrayEquals(bytes.toByteArray(), again.toByteArray());
+	}
+
+	@Test
+	void testSteadyPlayIsCompact() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (InputRecorder recorder = new InputRecorder(bytes, "")) {
+			// ten minutes of holding the same key at the timer's rate
+			for (int i = 0; i < 30_000; i++)
+				recorder.record(1, 20);
+		}
+		assertTrue(bytes.size() < 20);
+		assertEquals(30_000, readBack(bytes).getLength());
+	}
+
+	@Test
+	void testCutOffLogIsReadUpToTheCut() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		InputRecorder recorder = new InputRecorder(bytes, "level");
+		recorder.record(1, 20);
+		recorder.record(1, 20);
+		recorder.record(0, 20);
+		// the open run is not written by flush, and the end marker is missing
+		recorder.flush();
+		InputLog log = readBack(bytes);
+		assertEquals(2, log.getLength());
+	}
+
+	@Test
+	void testNotALog() {
+		byte[] bytes = "definitely not a log".getBytes();
+		assertThrows(IOException.class, () -> InputLog.read(new ByteArrayInputStream(bytes)));
+	}
+
+	// Return the bytes of a log of the runs given as code byte, varints... per run, without an end marker.
+	static byte[] rawLog(int... runBytes) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		new InputRecorder(bytes, "").flush();
+		for (int b : runBytes)
+			bytes.write(b);
+		return bytes.toByteArray();
+	}
+
+	@Test
+	void testHugeOrSlowLogsAreRejected() throws IOException {
+		// two runs of 2^28 - 1 ticks each: a few bytes that would expand into gigabytes
+		byte[] huge = rawLog(20 << 2 | 1, 0xFF, 0xFF, 0xFF, 0x7F, 20 << 2 | 2, 0xFF, 0xFF, 0xFF, 0x7F);
+		assertThrows(IOException.class, () -> InputLog.read(new ByteArrayInputStream(huge)));
+		// a tick longer than the game allows, written with the escape for long ticks
+		byte[] slow = rawLog(InputLog.ELAPSED_ESCAPE << 2 | 1, 100, 1);
+		assertThrows(IOException.class, () -> InputLog.read(new ByteArrayInputStream(slow)));
+		// a log of exactly the maximum length is fine
+		byte[] longest = rawLog(20 << 2 | 1, 0x80, 0x80, 0x80, 0x02);
+		assertEquals(InputLog.MAX_LENGTH, InputLog.read(new ByteArrayInputStream(longest)).getLength());
+	}
+
+	@Test
+	void testRecordRejectsBadFrames() throws IOException {
+		InputRecorder recorder = new InputRecorder(new ByteArrayOutputStream(), "");
+		assertThrows(IllegalArgumentException.class, () -> recorder.record(2, 20));
+		assertThrows(IllegalArgumentException.class, () -> recorder.record(0, -1));
+		assertThrows(IllegalArgumentException.class, () -> recorder.record(0, BreakoutState.MAX_ELAPSED_TIME + 1));
+		recorder.close();
+		assertThrows(IllegalStateException.class, () -> recorder.record(0, 20));
+	}
+
+	@Test
+	void testReplayEndsInTheRecordedState() throws IOException {
+		Random random = new Random(5);
+		String map = BreakoutApplication.initMap2;
+		BreakoutState state = facade.createStateFromDescription(map);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		int ticks = 0;
+		try (InputRecorder recorder = new InputRecorder(bytes, map)) {
+			int paddleDir = 0;
+			// play like GameView does, with a player holding keys for a while
+			for (; ticks < 5000 && !facade.isDead(state) && !facade.isWon(state); ticks++) {
+				if (random.nextInt(15) == 0)
+					paddleDir = random.nextInt(3) - 1;
+				int elapsedTime = 15 + random.nextInt(10);
+				TestStates.play(state, paddleDir, elapsedTime);
+				recorder.record(paddleDir, elapsedTime);
+			}
+		}
+		InputLog log = readBack(bytes);
+		BreakoutState replayed = facade.createStateFromDescription(log.getMap());
+		GameResult result = ReplayEngine.replay(replayed, log);
+		assertEquals(ticks, result.getTicks());
+		assertEquals(facade.isDead(state), result.isDead());
+		assertEquals(TestStates.describe(state), TestStates.describe(replayed));
+	}
+}
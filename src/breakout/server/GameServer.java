@@ -0,0 +1,223 @@
+package breakout.server;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+
+import breakout.BreakoutFacade;
+import breakout.gui.BreakoutApplication;
+
+/**
+ * Hosts many games at once without a GUI, one per client connection, speaking `ServerProtocol`.
+ *
+ * One I/O thread accepts connections and reads the clients' input through a `Selector`. The games are
+ * played on a shared scheduler with a fixed number of worker threads, each game ticking every
+ * `ServerProtocol.TICK_MILLIS` milliseconds and writing its frame to its client from the worker. A tick
+ * is late if it starts more than a tick after its time, which is how an overloaded server shows.
+ *
+ * Run `java breakout.server.GameServer port [workers]` to serve the level `BreakoutApplication.initMap`.
+ *
+ * @invar | getSessionCount() >= 0
+ * @invar | 0 <= getLateTickCount() && getLateTickCount() <= getTickCount()
+ */
+public class GameServer implements AutoCloseable {
+
+	private static final BreakoutFacade facade = new BreakoutFacade();
+
+	private final String map;
+	private final ServerSocketChannel serverChannel;
+	private final Selector selector;
+	private final ScheduledThreadPoolExecutor scheduler;
+	private final Thread ioThread;
+	private final Set<Session> sessions = ConcurrentHashMap.newKeySet();
+	private volatile boolean closed;
+
+	final LongAdder ticks = new LongAdder();
+	final LongAdder lateTicks = new LongAdder();
+	final LongAdder droppedFrames = new LongAdder();
+
+	/**
+	 * Initialize this server to serve games of the level with the given description, as understood by
+	 * `GameMap`, on `address`, playing them on `workers` threads, and start it.
+	 *
+	 * @throws IllegalArgumentException | address == null || map == null
+	 * @throws IllegalArgumentException | workers < 1
+	 * @throws IOException if the address cannot be bound
+	 * @post | getSessionCount() == 0
+	 */
+	public GameServer(InetSocketAddress address, String map, int workers) throws IOException {
+		if (address == null || map == null)
+			throw new IllegalArgumentException("The address and map must not be null");
+		if (workers < 1)
+			throw new IllegalArgumentException("There must be at least one worker");
+		// fail on a bad map here rather than for every client
+		facade.createStateFromDescription(map);
+		this.map = map;
+		serverChannel = ServerSocketChannel.open();
+		serverChannel.bind(address);
+		serverChannel.configureBlocking(false);
+		selector = Selector.open();
+		serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+		scheduler = new ScheduledThreadPoolExecutor(workers, runnable -> {
+			Thread thread = new Thread(runnable, "breakout-session-worker");
+			thread.setDaemon(true);
+			return thread;
+		});
+		scheduler.setRemoveOnCancelPolicy(true);
+		ioThread = new Thread(this::serve, "breakout-server-io");
+		ioThread.setDaemon(true);
+		ioThread.start();
+	}
+
+	/**
+	 * Initialize this server to serve games of the given level on a free port of the loopback address.
+	 *
+	 * @throws IllegalArgumentException | map == null
+	 * @throws IllegalArgumentException | workers < 1
+	 * @throws IOException if no port can be bound
+	 * @post | getSessionCount() == 0
+	 */
+	public GameServer(String map, int workers) throws IOException {
+		this(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), map, workers);
+	}
+
+	/** Return the port this server accepts clients on. */
+	public int getPort() {
+		return serverChannel.socket().getLocalPort();
+	}
+
+	/** Return the number of games being played. */
+	public int getSessionCount() {
+		return sessions.size();
+	}
+
+	/** Return the number of ticks played so far, over all games. */
+	public long getTickCount() {
+		return ticks.sum();
+	}
+
+	/** Return the number of ticks that started more than a tick after their time. */
+	public long getLateTickCount() {
+		return lateTicks.sum();
+	}
+
+	/** Return the number of frames not sent because their client had not read the previous one yet. */
+	public long getDroppedFrameCount() {
+		return droppedFrames.sum();
+	}
+
+	private void serve() {
+		try {
+			while (!closed) {
+				selector.select();
+				for (SelectionKey key : selector.selectedKeys()) {
+					try {
+						if (key.isAcceptable()) {
+							accept();
+						} else if (key.isReadable()) {
+							((Session) key.attachment()).read();
+						}
+					} catch (CancelledKeyException e) {
+						// a worker closed the session in the meantime
+					}
+				}
+				selector.selectedKeys().clear();
+			}
+		} catch (IOException e) {
+			// the server cannot go on
+		} finally {
+			close();
+			try {
+				selector.close();
+				serverChannel.close();
+			} catch (IOException e) {
+				// closing anyway
+			}
+		}
+	}
+
+	// Accept a client, if one is waiting. A client that cannot be accepted, for instance because it reset
+	// the connection already or the process is out of file descriptors, is turned away without disturbing
+	// the other sessions.
+	private void accept() {
+		SocketChannel channel;
+		try {
+			channel = serverChannel.accept();
+		} catch (IOException e) {
+			// the client stays queued, if it is still there, and is tried again on the next select
+			return;
+		}
+		if (channel == null)
+			return;
+		Session session = new Session(this, channel, facade.createStateFromDescription(map));
+		try {
+			channel.configureBlocking(false);
+			channel.socket().setTcpNoDelay(true);
+			channel.register(selector, SelectionKey.OP_READ, session);
+		} catch (IOException e) {
+			try {
+				channel.close();
+			} catch (IOException e2) {
+				// turned away anyway
+			}
+			return;
+		}
+		sessions.add(session);
+		try {
+			session.start(scheduler);
+		} catch (RejectedExecutionException e) {
+			// the server is being closed
+			session.close();
+		}
+	}
+
+	void sessionClosed(Session session) {
+		sessions.remove(session);
+	}
+
+	/**
+	 * Stop accepting clients, end all games and close their connections. Closing a closed server does
+	 * nothing.
+	 */
+	@Override
+	public void close() {
+		synchronized (this) {
+			if (closed)
+				return;
+			closed = true;
+		}
+		scheduler.shutdownNow();
+		for (Session session : sessions) {
+			session.close();
+		}
+		// the I/O thread closes the selector and the server channel on its way out
+		selector.wakeup();
+	}
+
+	public static void main(String[] args) throws IOException, InterruptedException {
+		if (args.length < 1 || args.length > 2) {
+			System.err.println("Usage: java breakout.server.GameServer port [workers]");
+			System.exit(2);
+		}
+		int port = Integer.parseInt(args[0]);
+		int workers = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		try (GameServer server = new GameServer(new InetSocketAddress(port), BreakoutApplication.initMap, workers)) {
+			System.out.printf("Serving on port %d with %d workers%n", server.getPort(), workers);
+			for (;;) {
+				Thread.sleep(10_000);
+				System.out.printf("%d sessions, %d ticks, %d late, %d frames dropped%n", server.getSessionCount(),
+						server.getTickCount(), server.getLateTickCount(), server.getDroppedFrameCount());
+			}
+		}
+	}
+}
@@ -0,0 +1,103 @@
+package breakout.server;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.net.StandardSocketOptions;
+import java.nio.channels.SocketChannel;
+
+import org.junit.jupiter.api.Test;
+
+import breakout.BreakoutState;
+import breakout.StateDeltaDecoder;
+import breakout.gui.BreakoutApplication;
+
+class GameServerTest {
+
+	static SocketChannel connect(GameServer server) throws IOException {
+		return SocketChannel.open(new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort()));
+	}
+
+	static void readFully(SocketChannel channel, ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer) < 0)
+				throw new IOException("Connection closed");
+		}
+		buffer.flip();
+	}
+
+	// Return the tick number of the next frame, leaving the state it holds in `state[0]`.
+	static int readFrame(SocketChannel channel, StateDeltaDecoder decoder, BreakoutState[] state) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(ServerProtocol.FRAME_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		readFully(channel, header);
+		int length = header.getInt();
+		int tick = header.getInt();
+		ByteBuffer body = ByteBuffer.allocate(length - 4);
+		readFully(channel, body);
+		assertTrue(decoder.decode(body));
+		state[0] = decoder.toState();
+		return tick;
+	}
+
+	@Test
+	void testSessionsTickAndFollowInput() throws Exception {
+		try (GameServer server = new GameServer(BreakoutApplication.initMap, 2);
+				SocketChannel first = connect(server);
+				SocketChannel second = connect(server)) {
+			BreakoutState[] state = new BreakoutState[1];
+			StateDeltaDecoder firstDecoder = new StateDeltaDecoder();
+			int tick = readFrame(first, firstDecoder, state);
+			int paddleX = state[0].getPaddle().getCenter().getX();
+			first.write(ByteBuffer.wrap(new byte[] { ServerProtocol.RIGHT }));
+			int later = tick;
+			for (int i = 0; i < 20; i++)
+				later = readFrame(first, firstDecoder, state);
+			assertTrue(later > tick);
+			assertTrue(state[0].getPaddle().getCenter().getX() > paddleX);
+			readFrame(second, new StateDeltaDecoder(), state);
+			assertEquals(2, server.getSessionCount());
+
+			first.write(ByteBuffer.wrap(new byte[] { (byte) ServerProtocol.QUIT }));
+			// the server closes the connection, after any frames already on their way
+			ByteBuffer rest = ByteBuffer.allocate(1 << 16);
+			while (first.read(rest) >= 0)
+				rest.clear();
+			assertEquals(1, server.getSessionCount());
+			assertTrue(server.getTickCount() >= 21);
+		}
+	}
+
+	@Test
+	void testResetConnectionsLeaveOtherSessionsAlone() throws Exception {
+		try (GameServer server = new GameServer(BreakoutApplication.initMap, 2);
+				SocketChannel player = connect(server)) {
+			StateDeltaDecoder decoder = new StateDeltaDecoder();
+			BreakoutState[] state = new BreakoutState[1];
+			int tick = readFrame(player, decoder, state);
+			for (int i = 0; i < 50; i++) {
+				SocketChannel reset = connect(server);
+				// closing with a zero linger time resets the connection, whether or not it was accepted yet
+				reset.setOption(StandardSocketOptions.SO_LINGER, 0);
+				reset.close();
+			}
+			int later = tick;
+			for (int i = 0; i < 10; i++)
+				later = readFrame(player, decoder, state);
+			assertTrue(later > tick);
+			// the server still takes new clients
+			try (SocketChannel late = connect(server)) {
+				readFrame(late, new StateDeltaDecoder(), state);
+			}
+		}
+	}
+
+	@Test
+	void testBadArguments() {
+		assertThrows(IllegalArgumentException.class, () -> new GameServer(null, 1));
+		assertThrows(IllegalArgumentException.class, () -> new GameServer(BreakoutApplication.initMap, 0));
+	}
+}
@@ -0,0 +1,144 @@
+package breakout.server;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import breakout.gui.BreakoutApplication;
+
+/**
+ * Finds out how many games a `GameServer` sustains per worker thread at 50 Hz, over loopback.
+ *
+ * The generator starts a server with the given number of workers, and then plays ever more games against
+ * it from a single client thread, doubling their number each round. Each client sends a random paddle
+ * direction every few ticks and reads, without decoding, every frame it gets; a client whose game ends
+ * connects again. A round is sustained if fewer than one in a hundred ticks is late. The generator runs
+ * on the same machine as the server, so its own work counts against the result.
+ *
+ * Run `java breakout.server.LoadGenerator [workers [seconds per round]]`.
+ */
+public class LoadGenerator {
+
+	private static final int FIRST_ROUND_SESSIONS = 16;
+	// beyond this, the machine runs out of ports and file descriptors before the server runs out of time
+	private static final int MAX_SESSIONS = 1 << 14;
+	private static final double MAX_LATE_FRACTION = 0.01;
+
+	private final InetSocketAddress address;
+	private final Selector selector;
+	private final List<SocketChannel> clients = new ArrayList<>();
+	private final ByteBuffer received = ByteBuffer.allocateDirect(1 << 16);
+	private final ByteBuffer input = ByteBuffer.allocate(1);
+	private final Random random = new Random(1);
+	private long receivedBytes;
+
+	private LoadGenerator(InetSocketAddress address) throws IOException {
+		this.address = address;
+		this.selector = Selector.open();
+	}
+
+	private void connect() throws IOException {
+		SocketChannel client = SocketChannel.open(address);
+		client.configureBlocking(false);
+		client.register(selector, SelectionKey.OP_READ, client);
+		clients.add(client);
+	}
+
+	private void sendInput() throws IOException {
+		for (int i = 0; i < clients.size(); i++) {
+			// a player changes direction every five ticks or so
+			if (random.nextInt(5) != 0)
+				continue;
+			input.clear();
+			input.put(0, (byte) (ServerProtocol.LEFT + random.nextInt(3)));
+			clients.get(i).write(input);
+		}
+	}
+
+	private void receive(long timeoutMillis) throws IOException {
+		selector.select(timeoutMillis);
+		for (SelectionKey key : selector.selectedKeys()) {
+			SocketChannel client = (SocketChannel) key.attachment();
+			int n;
+			try {
+				do {
+					received.clear();
+					n = client.read(received);
+					if (n > 0)
+						receivedBytes += n;
+				} while (n > 0);
+			} catch (IOException e) {
+				// reset by a server that ended the game with input of ours unread
+				n = -1;
+			}
+			if (n < 0) {
+				// the game is over: play another one
+				key.cancel();
+				client.close();
+				clients.remove(client);
+				connect();
+			}
+		}
+		selector.selectedKeys().clear();
+	}
+
+	private void play(long millis) throws IOException {
+		long end = System.nanoTime() + millis * 1_000_000L;
+		long nextInput = System.nanoTime();
+		for (long now = System.nanoTime(); now < end; now = System.nanoTime()) {
+			if (now >= nextInput) {
+				sendInput();
+				nextInput += ServerProtocol.TICK_MILLIS * 1_000_000L;
+			}
+			receive(Math.max(1, (nextInput - System.nanoTime()) / 1_000_000L));
+		}
+	}
+
+	private void close() throws IOException {
+		for (SocketChannel client : clients)
+			client.close();
+		selector.close();
+	}
+
+	public static void main(String[] args) throws IOException {
+		int workers = args.length > 0 ? Integer.parseInt(args[0]) : 1;
+		int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+		try (GameServer server = new GameServer(BreakoutApplication.initMap, workers)) {
+			LoadGenerator generator = new LoadGenerator(
+					new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort()));
+			System.out.printf("%10s %12s %10s %14s %14s%n", "sessions", "ticks/s", "late (%)", "dropped (%)", "MB/s");
+			int sustained = 0;
+			for (int sessions = FIRST_ROUND_SESSIONS; sessions <= MAX_SESSIONS; sessions *= 2) {
+				while (generator.clients.size() < sessions)
+					generator.connect();
+				// let the new sessions settle before measuring
+				generator.play(1000);
+				long ticks = server.getTickCount();
+				long late = server.getLateTickCount();
+				long dropped = server.getDroppedFrameCount();
+				long bytes = generator.receivedBytes;
+				generator.play(seconds * 1000L);
+				ticks = server.getTickCount() - ticks;
+				late = server.getLateTickCount() - late;
+				dropped = server.getDroppedFrameCount() - dropped;
+				bytes = generator.receivedBytes - bytes;
+				double lateFraction = ticks == 0 ? 1 : (double) late / ticks;
+				System.out.printf("%10d %12.0f %10.2f %14.2f %14.1f%n", sessions, (double) ticks / seconds,
+						100 * lateFraction, ticks == 0 ? 0 : 100.0 * dropped / ticks, bytes / 1e6 / seconds);
+				if (lateFraction >= MAX_LATE_FRACTION)
+					break;
+				sustained = sessions;
+			}
+			generator.close();
+			System.out.printf("Sustained %d sessions at 50 Hz on %d worker(s): %d per core%n", sustained, workers,
+					sustained / workers);
+		}
+	}
+}
@@ -0,0 +1,39 @@
+package breakout.server;
+
+/**
+ * The protocol between a `GameServer` and its clients. A client connection is a game session.
+ *
+ * A client sends single bytes: `LEFT`, `STOP` or `RIGHT` set the direction the paddle moves in from the next
+ * tick on, until another direction is sent, and `QUIT` ends the session.
+ *
+ * The server sends a frame after every tick: the number of bytes that follow and the number of the tick, as
+ * little-endian ints, followed by the state after that tick as a `StateDeltaEncoder` frame, which a
+ * `StateDeltaDecoder` turns back into the state. Every `KEYFRAME_INTERVAL`th frame is a keyframe. A client
+ * that reads slower than frames are produced misses frames rather than falling behind; the frame after a
+ * missed one still follows on from the last frame the client got. Once the game is won or lost, the server
+ * sends the final frame and closes the connection.
+ */
+public final class ServerProtocol {
+
+	/** Move the paddle to the left; the paddle direction plus one. */
+	public static final int LEFT = 0;
+	/** Stop moving the paddle. */
+	public static final int STOP = 1;
+	/** Move the paddle to the right. */
+	public static final int RIGHT = 2;
+	/** End the session. */
+	public static final int QUIT = 0xFF;
+
+	/** The milliseconds of game time a tick lasts, and the real time between ticks: 50 Hz. */
+	public static final int TICK_MILLIS = 20;
+
+	/** The number of frames from one keyframe to the next: one a second. */
+	public static final int KEYFRAME_INTERVAL = 1000 / TICK_MILLIS;
+
+	/** The number of bytes before the state in a frame: the length and the tick number. */
+	public static final int FRAME_HEADER_BYTES = 8;
+
+	private ServerProtocol() {
+		throw new AssertionError("This class is not intended to be instantiated");
+	}
+}
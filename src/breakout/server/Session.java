@@ -0,0 +1,156 @@
+package breakout.server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import breakout.BreakoutFacade;
+import breakout.BreakoutState;
+import breakout.StateDeltaEncoder;
+
+/**
+ * A game played by one client of a `GameServer`. The server's I/O thread feeds the client's input into
+ * `read`; a worker of the server's scheduler calls `step` every tick, which plays the tick and sends the
+ * client the state after it.
+ */
+final class Session {
+
+	private static final BreakoutFacade facade = new BreakoutFacade();
+	private static final long TICK_NANOS = ServerProtocol.TICK_MILLIS * 1_000_000L;
+
+	private final GameServer server;
+	private final SocketChannel channel;
+	private final BreakoutState state;
+	private final ByteBuffer input = ByteBuffer.allocate(64);
+	private final StateDeltaEncoder encoder = new StateDeltaEncoder(ServerProtocol.KEYFRAME_INTERVAL);
+	// only touched by the worker playing the ticks, which may differ from tick to tick but never overlap
+	private ByteBuffer output = ByteBuffer.allocateDirect(4096).order(ByteOrder.LITTLE_ENDIAN).flip();
+	private int tick;
+	private long start;
+	private boolean over;
+	// whether the state after the last tick still has to be sent
+	private boolean frameDue;
+
+	/** The direction the client last asked the paddle to move in. */
+	private volatile int paddleDir;
+	private volatile boolean closed;
+	private ScheduledFuture<?> future;
+
+	Session(GameServer server, SocketChannel channel, BreakoutState state) {
+		this.server = server;
+		this.channel = channel;
+		this.state = state;
+	}
+
+	/**
+	 * Start playing a tick every `ServerProtocol.TICK_MILLIS` milliseconds on `scheduler`.
+	 */
+	synchronized void start(ScheduledExecutorService scheduler) {
+		if (closed)
+			return;
+		start = System.nanoTime() + TICK_NANOS;
+		future = scheduler.scheduleAtFixedRate(this::step, TICK_NANOS, TICK_NANOS, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Read the client's input that has arrived. Called by the I/O thread when the channel is readable.
+	 */
+	void read() {
+		try {
+			input.clear();
+			int n = channel.read(input);
+			if (n < 0) {
+				close();
+				return;
+			}
+			for (int i = 0; i < n; i++) {
+				int b = input.get(i) & 0xFF;
+				if (b == ServerProtocol.QUIT) {
+					close();
+					return;
+				}
+				if (b <= ServerProtocol.RIGHT)
+					paddleDir = b - 1;
+			}
+		} catch (IOException e) {
+			close();
+		}
+	}
+
+	/**
+	 * Play a tick and send the state after it. Called by the scheduler at a fixed rate. Once the game is
+	 * over, ticks are no longer played, and the session closes as soon as the final frame is out.
+	 */
+	void step() {
+		if (closed)
+			return;
+		if (!over) {
+			// a tick that starts more than a tick after its time has missed its deadline
+			if (System.nanoTime() - (start + tick * TICK_NANOS) > TICK_NANOS)
+				server.lateTicks.increment();
+			int dir = paddleDir;
+			if (dir < 0) {
+				facade.movePaddleLeft(state, ServerProtocol.TICK_MILLIS);
+			} else if (dir > 0) {
+				facade.movePaddleRight(state, ServerProtocol.TICK_MILLIS);
+			}
+			facade.tick(state, dir, ServerProtocol.TICK_MILLIS);
+			tick++;
+			server.ticks.increment();
+			over = facade.isWon(state) || facade.isDead(state);
+			frameDue = true;
+		}
+		try {
+			if (output.hasRemaining())
+				channel.write(output);
+			if (!output.hasRemaining() && frameDue) {
+				writeFrame();
+				frameDue = false;
+			} else if (frameDue && !over) {
+				// the client is behind: let it catch up on the frame it is reading rather than queueing more
+				server.droppedFrames.increment();
+				frameDue = false;
+			}
+		} catch (IOException e) {
+			close();
+			return;
+		}
+		if (over && !frameDue && !output.hasRemaining())
+			close();
+	}
+
+	private void writeFrame() throws IOException {
+		int size = StateDeltaEncoder.maxKeyframeSize(state);
+		if (output.capacity() < ServerProtocol.FRAME_HEADER_BYTES + size)
+			output = ByteBuffer.allocateDirect(Math.max(ServerProtocol.FRAME_HEADER_BYTES + size, output.capacity() * 2))
+					.order(ByteOrder.LITTLE_ENDIAN);
+		output.clear();
+		output.position(ServerProtocol.FRAME_HEADER_BYTES);
+		encoder.encode(state, output);
+		output.putInt(0, output.position() - 4).putInt(4, tick);
+		output.flip();
+		channel.write(output);
+	}
+
+	/** Stop playing and close the connection. Closing a closed session does nothing. */
+	void close() {
+		synchronized (this) {
+			if (closed)
+				return;
+			closed = true;
+			if (future != null)
+				future.cancel(false);
+		}
+		// leave the server first, so that a client that sees the connection close no longer counts
+		server.sessionClosed(this);
+		try {
+			channel.close();
+		} catch (IOException e) {
+			// nothing left to do for this client
+		}
+	}
+}
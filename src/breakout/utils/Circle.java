@@ -123,6 +123,20 @@ public class Circle {
 		return center.plus(dir.scaled(diameter / 2));
 	}
 
+	/**
+	 * Return the outermost point in the given direction `dir` of the circle with the given center and diameter,
+	 * packed by `Vector.pack`.
+	 * 
+	 * @pre | dir != null
+	 * @pre | dir.product(dir) == 1
+	 * @post | new Point(Vector.unpackX(result), Vector.unpackY(result)).equals(
+	 *       |     new Circle(new Point(centerX, centerY), diameter).getOutermostPoint(dir))
+	 */
+	public static long getOutermostPoint(int centerX, int centerY, int diameter, Vector dir) {
+		int radius = diameter / 2;
+		return Vector.pack(centerX + dir.getX() * radius, centerY + dir.getY() * radius);
+	}
+
 	/**
 	 * Return a circle with the given `center` and the same diameter as this one.
 	 * 
@@ -94,4 +94,12 @@ class CircleTest {
 		assertEquals(2, c.getDiameter());
 	}
 
+	@Test
+	void testGetOutermostPointScalar() {
+		for (Vector dir : Rect.COLLISSION_DIRS) {
+			long p = Circle.getOutermostPoint(3, 8, 9, dir);
+			assertEquals(c389.getOutermostPoint(dir), new Point(Vector.unpackX(p), Vector.unpackY(p)));
+		}
+	}
+
 }
@@ -60,6 +60,15 @@ public class Rect {
 		return getTopLeft().isUpAndLeftFrom(loc) && loc.isUpAndLeftFrom(getBottomRight());
 	}
 
+	/**
+	 * Return whether the point (x, y) is inside this rectangle.
+	 * 
+	 * @post | result == contains(new Point(x, y))
+	 */
+	public boolean contains(int x, int y) {
+		return topLeft.getX() <= x && x <= bottomRight.getX() && topLeft.getY() <= y && y <= bottomRight.getY();
+	}
+
 	/**
 	 * Return whether this rectangle contains a given circle.
 	 * 
@@ -99,6 +108,23 @@ public class Rect {
 		return null;
 	}
 
+	/**
+	 * Same as `collideWith(Circle)`, for the circle with the given center and diameter.
+	 * The result is one of the constants in `COLLISSION_DIRS`, so nothing is allocated.
+	 * 
+	 * @post | result == null ? collideWith(new Circle(new Point(centerX, centerY), diameter)) == null :
+	 *       |     result.equals(collideWith(new Circle(new Point(centerX, centerY), diameter)))
+	 */
+	public Vector collideWith(int centerX, int centerY, int diameter) {
+		for (Vector coldir : COLLISSION_DIRS) {
+			long c = Circle.getOutermostPoint(centerX, centerY, diameter, coldir);
+			if(contains(Vector.unpackX(c), Vector.unpackY(c))) {
+				return coldir;
+			}
+		}
+		return null;
+	}
+
 	/**
 	 * Return the rectangle obtained by subtracting an inner margin from all sides of this rectangle.
 	 * 
@@ -140,6 +166,18 @@ public class Rect {
 		return new Point(nx, ny);
 	}
 
+	/**
+	 * Return the point inside this rectangle minus an inner margin `d` that is as close as possible to the point (x, y),
+	 * packed by `Vector.pack`. This is where `constrain(Circle)` puts the center of a circle with radius `d`.
+	 * 
+	 * @post | new Point(Vector.unpackX(result), Vector.unpackY(result)).equals(minusMargin(d).constrain(new Point(x, y)))
+	 */
+	public long constrain(int x, int y, int d) {
+		int nx = Math.min(bottomRight.getX() - d, Math.max(topLeft.getX() + d, x));
+		int ny = Math.min(bottomRight.getY() - d, Math.max(topLeft.getY() + d, y));
+		return Vector.pack(nx, ny);
+	}
+
 	/**
 	 * Return the width of this rectangle.
 	 * 
@@ -94,4 +94,27 @@ class RectTest {
 		assertEquals(new Point(1, 4), r1138.constrain(pm14));
 	}
 
+	@Test
+	void testContainsScalar() {
+		assertTrue(r1138.contains(2, 5));
+		assertTrue(r1138.contains(1, 1));
+		assertFalse(r1125.contains(-1, 4));
+		assertTrue(rm1438.contains(3, 8));
+	}
+
+	@Test
+	void testCollideWithScalar() {
+		assertEquals(Vector.DOWN, r1138.collideWith(2, 0, 2));
+		assertNull(rm1438.collideWith(2, 0, 2));
+		assertEquals(r1138.collideWith(c251), r1138.collideWith(2, 5, 1));
+	}
+
+	@Test
+	void testConstrainScalar() {
+		long p = rm1438.constrain(-5, 20, 1);
+		assertEquals(rm1438.minusMargin(1).constrain(new Point(-5, 20)), new Point(Vector.unpackX(p), Vector.unpackY(p)));
+		p = r1138.constrain(2, 5, 0);
+		assertEquals(p25, new Point(Vector.unpackX(p), Vector.unpackY(p)));
+	}
+
 }
@@ -147,6 +147,38 @@ public class Vector {
 		return this.minus(m.scaled(2 * this.product(m)));
 	}
 
+	/**
+	 * Return the pair (x, y) packed into a single long, so it can be returned without allocating.
+	 * 
+	 * @post | unpackX(result) == x
+	 * @post | unpackY(result) == y
+	 */
+	public static long pack(int x, int y) {
+		return ((long) x << 32) | (y & 0xFFFFFFFFL);
+	}
+
+	/** Return the x coordinate of a pair packed by `pack`. */
+	public static int unpackX(long packed) {
+		return (int) (packed >> 32);
+	}
+
+	/** Return the y coordinate of a pair packed by `pack`. */
+	public static int unpackY(long packed) {
+		return (int) packed;
+	}
+
+	/**
+	 * Mirror the vector (x, y) over a given normal vector and return the result, packed by `pack`.
+	 * 
+	 * @pre | m != null
+	 * @pre | m.getSquareLength() == 1
+	 * @post | new Vector(unpackX(result), unpackY(result)).equals(new Vector(x, y).mirrorOver(m))
+	 */
+	public static long mirrorOver(int x, int y, Vector m) {
+		int twiceProduct = 2 * (m.x * x + m.y * y);
+		return pack(x - m.x * twiceProduct, y - m.y * twiceProduct);
+	}
+
 	/**
 	 * Scale this vector down by dividing its coordinates by the given factor.
 	 * 
@@ -164,9 +196,19 @@ public class Vector {
 	 * returns new speed of the ball after magnetism occurs.
 	 */
 	public static Vector magnetSpeed(Point alphaPos, Point ballPos, int ballEcharge, Vector ballSpeed) {
-		Vector ballToAlpha = alphaPos.minus(ballPos);
-		double ballToAlphaLength = ballToAlpha.getLength();
-		double ballSpeedNLength = ballSpeed.getLength();
+		long res = magnetSpeed(alphaPos.getX(), alphaPos.getY(), ballPos.getX(), ballPos.getY(), ballEcharge,
+				ballSpeed.getX(), ballSpeed.getY());
+		return new Vector(unpackX(res), unpackY(res));
+	}
+
+	/**
+	 * Same as `magnetSpeed(Point, Point, int, Vector)`, on coordinates, with the new speed packed by `pack`.
+	 */
+	public static long magnetSpeed(int alphaX, int alphaY, int ballX, int ballY, int ballEcharge, int speedX, int speedY) {
+		int toAlphaX = alphaX - ballX;
+		int toAlphaY = alphaY - ballY;
+		double ballToAlphaLength = Math.sqrt(toAlphaX * toAlphaX + toAlphaY * toAlphaY);
+		double ballSpeedNLength = Math.sqrt(speedX * speedX + speedY * speedY);
 		//increase ball speed by max 50%. eCharges > 4 act as eCharges == 4.
 		int chargeVal = Math.abs(ballEcharge);
 		if (chargeVal == 0) {throw new IllegalArgumentException();}
@@ -176,18 +218,21 @@ public class Vector {
 		if (ballToAlphaLength > ballSpeedNLength &&  ballSpeedNLength  >= 0) {
 			double downFactor = ballSpeedNLength / ballToAlphaLength;
 			assert 0 < downFactor && downFactor < 1;
-			Vector res = ballToAlpha.floatScale(downFactor);
 			int chargeSign;
 			if (ballEcharge < 0) {chargeSign = -1;}
 			else {chargeSign = 1;}
-			res = res.scaled(- chargeSign); //either attracted or repelled by alpha
-			return res;
+			//either attracted or repelled by alpha
+			return pack(roundAwayFromZero(toAlphaX * downFactor) * -chargeSign, roundAwayFromZero(toAlphaY * downFactor) * -chargeSign);
 		}
-		else return ballSpeed;
+		else return pack(speedX, speedY);
 	}
 	
+	private static int roundAwayFromZero(double value) {
+		return (int) (value >= 0 ? Math.ceil(value) : Math.floor(value));
+	}
+
 	public int floorCeil(double value) {
-        return (int) (value >= 0 ? Math.ceil(value) : Math.floor(value));
+        return roundAwayFromZero(value);
 	}
    
 	public Vector floatScale(double factor) {
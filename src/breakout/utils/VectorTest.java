@@ -93,4 +93,71 @@ class VectorTest {
 		assertEquals(new Vector(1, -8), vm18.scaledDiv(-1));
 	}
 
+	@Test
+	void testPack() {
+		long p = Vector.pack(-1, 8);
+		assertEquals(-1, Vector.unpackX(p));
+		assertEquals(8, Vector.unpackY(p));
+		p = Vector.pack(Integer.MAX_VALUE, Integer.MIN_VALUE);
+		assertEquals(Integer.MAX_VALUE, Vector.unpackX(p));
+		assertEquals(Integer.MIN_VALUE, Vector.unpackY(p));
+	}
+
+	@Test
+	void testMirrorOverScalar() {
+		for (Vector m : Rect.COLLISSION_DIRS) {
+			for (Vector v : new Vector[] { v00, v34, vm18 }) {
+				long p = Vector.mirrorOver(v.getX(), v.getY(), m);
+				assertEquals(v.mirrorOver(m), new Vector(Vector.unpackX(p), Vector.unpackY(p)));
+			}
+		}
+	}
+
+	// The original object-based magnetSpeed, kept here so the optimized versions are checked against it
+	// rather than against each other.
+	static Vector baselineMagnetSpeed(Point alphaPos, Point ballPos, int ballEcharge, Vector ballSpeed) {
+		Vector ballToAlpha = alphaPos.minus(ballPos);
+		double ballToAlphaLength = ballToAlpha.getLength();
+		double ballSpeedNLength = ballSpeed.getLength();
+		int chargeVal = Math.abs(ballEcharge);
+		if (chargeVal == 2) {ballSpeedNLength = ballSpeedNLength * (1 + (0.166));}
+		if (chargeVal == 3) {ballSpeedNLength = ballSpeedNLength * (1 + (0.333));}
+		if (chargeVal >= 4) {ballSpeedNLength = ballSpeedNLength * (1 + (0.5));}
+		if (ballToAlphaLength > ballSpeedNLength) {
+			double downFactor = ballSpeedNLength / ballToAlphaLength;
+			return ballToAlpha.floatScale(downFactor).scaled(ballEcharge < 0 ? 1 : -1);
+		}
+		return ballSpeed;
+	}
+
+	@Test
+	void testMagnetSpeedValues() {
+		Point alpha = new Point(30, 40);
+		// 50 away at speed 5: a tenth of the way to the alpha, away from it for a positive charge
+		assertEquals(new Vector(-3, -4), Vector.magnetSpeed(alpha, Point.ORIGIN, 1, v34));
+		assertEquals(new Vector(3, 4), Vector.magnetSpeed(alpha, Point.ORIGIN, -1, v34));
+		// a charge of 4 or more speeds up by half: (4.5, 6) rounded away from zero
+		assertEquals(new Vector(-5, -6), Vector.magnetSpeed(alpha, Point.ORIGIN, 4, v34));
+		assertEquals(new Vector(-5, -6), Vector.magnetSpeed(alpha, Point.ORIGIN, 9, v34));
+		// closer to the alpha than the speed: no change
+		assertEquals(v34, Vector.magnetSpeed(alpha, new Point(28, 38), 1, v34));
+	}
+
+	@Test
+	void testMagnetSpeedMatchesBaseline() {
+		Point alpha = new Point(100, 40);
+		for (int charge : new int[] { -5, -3, -2, -1, 1, 2, 3, 4 }) {
+			for (Point ball : new Point[] { new Point(0, 0), new Point(99, 40), new Point(300, -70), new Point(-1234, 567) }) {
+				for (Vector speed : new Vector[] { v34, vm18, new Vector(-70, 25) }) {
+					Vector expected = baselineMagnetSpeed(alpha, ball, charge, speed);
+					assertEquals(expected, Vector.magnetSpeed(alpha, ball, charge, speed));
+					long p = Vector.magnetSpeed(alpha.getX(), alpha.getY(), ball.getX(), ball.getY(), charge,
+							speed.getX(), speed.getY());
+					assertEquals(expected, new Vector(Vector.unpackX(p), Vector.unpackY(p)));
+				}
+			}
+		}
+		assertThrows(IllegalArgumentException.class, () -> Vector.magnetSpeed(0, 0, 10, 10, 0, 3, 4));
+	}
+
 }